@@ -0,0 +1,120 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.api.ApiServer;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.metrics.Counter;
+import com.example.hogwarts.metrics.Metrics;
+import com.example.hogwarts.metrics.Timer;
+import com.example.hogwarts.metrics.TimerSnapshot;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the HTTP API on localhost and reports requests per second and latency percentiles. The
+ * server runs in this JVM over an in-memory store; each client is a virtual thread sending one
+ * request at a time over a kept-alive HTTP/1.1 connection: mostly artifact reads, plus wizard
+ * inventories, catalogue pages, transfer history and repairs. Latencies are measured by the client,
+ * so they include the loopback round trip. Run with
+ * {@code java -Xms4g -Xmx4g -cp benchmarks/target/benchmarks.jar com.example.hogwarts.benchmark.ApiLoadTest [clients] [seconds] [artifacts]}.
+ */
+public class ApiLoadTest {
+    private static final int WARMUP_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int artifacts = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        if (!Metrics.ENABLED) {
+            throw new IllegalStateException("Latencies are recorded with the metrics timers; drop -Dhogwarts.metrics=false");
+        }
+
+        DataStore store = Fixtures.populate(artifacts, artifacts);
+        int wizards = Fixtures.wizardCountFor(artifacts);
+        ApiServer api = ApiServer.start(store, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        String base = "http://localhost:" + api.getPort() + "/api";
+        System.out.printf("%,d artifacts, %,d wizards, %,d transfers; %d clients on %s%n",
+                artifacts, wizards, store.getTransferCount(), clients, base);
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(threads)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            run(client, base, clients, WARMUP_SECONDS, artifacts, wizards, "warmup");
+            run(client, base, clients, seconds, artifacts, wizards, "measured");
+        } finally {
+            api.stop();
+        }
+
+        TimerSnapshot latency = Metrics.timer("ApiLoadTest.measured").snapshot();
+        long failed = Metrics.counter("ApiLoadTest.measured.failed").get();
+        System.out.printf("%,d requests in %d s: %,.0f requests/s, %,d failed%n",
+                latency.count(), seconds, latency.count() / (double) seconds, failed);
+        System.out.printf("latency (µs): mean %,d  p50 %,d  p90 %,d  p99 %,d  p99.9 %,d  max %,d%n",
+                latency.meanNanos() / 1000, latency.p50Nanos() / 1000, latency.p90Nanos() / 1000,
+                latency.p99Nanos() / 1000, latency.p999Nanos() / 1000, latency.maxNanos() / 1000);
+    }
+
+    // Keeps {@code clients} requests in flight for {@code seconds}, recording each under {@code phase}
+    private static void run(HttpClient client, String base, int clients, int seconds, int artifacts, int wizards,
+                            String phase) throws InterruptedException {
+        Timer latency = Metrics.timer("ApiLoadTest." + phase);
+        Counter failed = Metrics.counter("ApiLoadTest." + phase + ".failed");
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    HttpRequest request = next(base, random, artifacts, wizards);
+                    long start = Metrics.start();
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() >= 300) failed.increment();
+                    } catch (Exception e) {
+                        failed.increment();
+                    } finally {
+                        latency.record(start);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static HttpRequest next(String base, ThreadLocalRandom random, int artifacts, int wizards) {
+        int roll = random.nextInt(100);
+        int artifact = random.nextInt(1, artifacts + 1);
+        if (roll < 60) {
+            return get(base + "/artifacts/" + artifact);
+        } else if (roll < 75) {
+            return get(base + "/wizards/" + random.nextInt(1, wizards + 1) + "/artifacts");
+        } else if (roll < 85) {
+            return get(base + "/artifacts?offset=" + random.nextInt(artifacts) + "&limit=20");
+        } else if (roll < 90) {
+            return get(base + "/artifacts/" + artifact + "/transfers?limit=20");
+        }
+        return HttpRequest.newBuilder(URI.create(base + "/artifacts/" + artifact + "/repair"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1}"))
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+}
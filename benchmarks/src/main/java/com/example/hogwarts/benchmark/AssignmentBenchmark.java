@@ -0,0 +1,64 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.controller.WizardController;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Wizard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WizardController.assignArtifactToWizard on random artifact/wizard pairs. Each operation also
+ * restores the artifact's condition so the 5-point wear never makes artifacts unassignable;
+ * every assignment records a transfer, so the heap grows for the length of the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms16g", "-Xmx16g"})
+public class AssignmentBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int artifacts;
+
+    private DataStore store;
+    private WizardController controller;
+    private int wizards;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Fixtures.populate(artifacts, 0);
+        controller = new WizardController(store);
+        wizards = Fixtures.wizardCountFor(artifacts);
+    }
+
+    private String assignRandom() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Artifact artifact = store.findArtifactById(random.nextInt(1, artifacts + 1));
+        Wizard wizard = store.findWizardById(random.nextInt(1, wizards + 1));
+        String result = controller.assignArtifactToWizard(artifact, wizard);
+        store.setArtifactCondition(artifact.getId(), 100);
+        return result;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String assignArtifactToWizard() {
+        return assignRandom();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String assignArtifactToWizardFourThreads() {
+        return assignRandom();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String assignArtifactToWizardAllCores() {
+        return assignRandom();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.PasswordHash;
+import com.example.hogwarts.model.Role;
+import com.example.hogwarts.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login latency with {@code users} provisioned accounts. {@code cachedLogin} repeats a login that
+ * already has a verified session; {@code fullLogin} runs against a store whose sessions expire
+ * immediately, so every call pays the PBKDF2 work factor. Filler accounts share one precomputed
+ * hash, since hashing 100k passwords at the real work factor would dominate the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+    private static final String USERNAME = "staff-login";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"1000", "100000"})
+    public int users;
+
+    private DataStore cachedStore;
+    private DataStore uncachedStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cachedStore = populate();
+        System.setProperty("hogwarts.auth.session.minutes", "0");
+        try {
+            uncachedStore = populate();
+        } finally {
+            System.clearProperty("hogwarts.auth.session.minutes");
+        }
+        cachedStore.authenticate(USERNAME, PASSWORD); // open the verified session
+    }
+
+    private DataStore populate() {
+        DataStore store = DataStore.inMemory();
+        PasswordHash filler = PasswordHash.create("filler");
+        for (int i = 0; i < users; i++) {
+            store.addUser("staff-" + i, filler, Role.USER);
+        }
+        store.addUser(USERNAME, PASSWORD, Role.USER);
+        return store;
+    }
+
+    @Benchmark
+    public User cachedLogin() {
+        return cachedStore.authenticate(USERNAME, PASSWORD);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public User cachedLoginAllCores() {
+        return cachedStore.authenticate(USERNAME, PASSWORD);
+    }
+
+    @Benchmark
+    public User fullLogin() {
+        return uncachedStore.authenticate(USERNAME, PASSWORD);
+    }
+
+    @Benchmark
+    public User wrongPassword() {
+        return cachedStore.authenticate(USERNAME, "wrong");
+    }
+
+    @Benchmark
+    public User unknownUser() {
+        return cachedStore.authenticate("nobody", PASSWORD);
+    }
+}
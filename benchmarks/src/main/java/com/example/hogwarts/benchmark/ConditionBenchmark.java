@@ -0,0 +1,52 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.model.Artifact;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nightly maintenance over the whole catalogue: one bulk pass over the dense condition array
+ * against wearing every artifact object in turn. Wear alternates with a full repair so conditions
+ * never bottom out and every pass changes every artifact.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ConditionBenchmark {
+    @Param({"100000", "1000000"})
+    public int artifacts;
+
+    private DataStore store;
+    private Collection<Artifact> all;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Fixtures.populate(artifacts, 0);
+        all = store.findAllArtifacts();
+    }
+
+    @Benchmark
+    public int bulkWearAndRepair() {
+        return store.applyWearToAll(5) + store.repairWhere(condition -> true, 5);
+    }
+
+    @Benchmark
+    public int perObjectWearAndRepair() {
+        int changed = 0;
+        for (Artifact artifact : all) {
+            artifact.applyWear(5);
+            changed++;
+        }
+        for (Artifact artifact : all) {
+            artifact.repair(5);
+            changed++;
+        }
+        return changed;
+    }
+}
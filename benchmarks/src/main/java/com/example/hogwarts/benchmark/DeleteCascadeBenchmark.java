@@ -0,0 +1,88 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.controller.ArtifactController;
+import com.example.hogwarts.controller.WizardController;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Wizard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes that cascade into ownership: removing a wizard that owns {@code owned} artifacts, and
+ * deleting every artifact of such a wizard one by one or in one bulk delete. The bulk delete
+ * returns before its name index cleanup has run, so it is also measured waiting for that.
+ * Each iteration rebuilds the wizard, so these run as single shots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms16g", "-Xmx16g"})
+public class DeleteCascadeBenchmark {
+    @Param({"1000", "1000000"})
+    public int artifacts;
+
+    @Param({"100", "10000", "100000"})
+    public int owned;
+
+    private DataStore store;
+    private WizardController wizardController;
+    private ArtifactController artifactController;
+    private Wizard wizard;
+    private List<Integer> ownedIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Fixtures.populate(artifacts, 0);
+        wizardController = new WizardController(store);
+        artifactController = new ArtifactController(store);
+    }
+
+    @Setup(Level.Iteration)
+    public void createOwner() {
+        wizard = wizardController.addWizard("Departing wizard");
+        ownedIds = new ArrayList<>(owned);
+        for (int i = 0; i < owned; i++) {
+            Artifact artifact = artifactController.addArtifact("Owned " + i, "Owned by the departing wizard");
+            ownedIds.add(artifact.getId());
+        }
+        store.assignArtifactsToWizard(ownedIds, wizard.getId());
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        for (int id : ownedIds) {
+            store.deleteArtifactById(id);
+        }
+        store.deleteWizardById(wizard.getId());
+    }
+
+    @Benchmark
+    public void deleteWizard() {
+        wizardController.deleteWizard(wizard.getId());
+    }
+
+    @Benchmark
+    public void deleteOwnedArtifacts() {
+        for (int id : ownedIds) {
+            artifactController.deleteArtifact(id);
+        }
+    }
+
+    @Benchmark
+    public int deleteOwnedArtifactsInBulk() {
+        return artifactController.deleteArtifacts(ownedIds);
+    }
+
+    @Benchmark
+    public int deleteOwnedArtifactsInBulkWithCleanup() {
+        int deleted = artifactController.deleteArtifacts(ownedIds);
+        store.nameIndexCleanup().join();
+        return deleted;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Transfer;
+import com.example.hogwarts.model.Wizard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds in-memory stores of a given size. Half of the artifacts are assigned, spread over one
+ * wizard per hundred artifacts, and transfers pick random artifact/wizard pairs.
+ */
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static int wizardCountFor(int artifactCount) {
+        return Math.max(10, artifactCount / 100);
+    }
+
+    static DataStore populate(int artifactCount, int transferCount) {
+        DataStore store = DataStore.inMemory();
+        SplittableRandom random = new SplittableRandom(42);
+        int wizardCount = wizardCountFor(artifactCount);
+
+        for (int i = 1; i <= wizardCount; i++) {
+            store.addWizard(new Wizard("Wizard " + i));
+        }
+        for (int i = 1; i <= artifactCount; i++) {
+            store.addArtifact(new Artifact("Artifact " + i, "Benchmark artifact number " + i));
+        }
+
+        // assign every second artifact, one batch per wizard
+        List<List<Integer>> batches = new ArrayList<>(wizardCount);
+        for (int i = 0; i < wizardCount; i++) {
+            batches.add(new ArrayList<>());
+        }
+        for (int id = 1; id <= artifactCount; id += 2) {
+            batches.get(random.nextInt(wizardCount)).add(id);
+        }
+        for (int i = 0; i < wizardCount; i++) {
+            store.assignArtifactsToWizard(batches.get(i), i + 1);
+        }
+
+        for (int i = 0; i < transferCount; i++) {
+            Artifact artifact = store.findArtifactById(random.nextInt(1, artifactCount + 1));
+            Wizard wizard = store.findWizardById(random.nextInt(1, wizardCount + 1));
+            store.addTransfer(new Transfer(random.nextBoolean() ? "assign" : "unassign", artifact, wizard));
+        }
+        return store;
+    }
+}
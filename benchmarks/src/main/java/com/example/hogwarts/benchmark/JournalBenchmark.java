@@ -0,0 +1,76 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.data.Journal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal throughput in mutations/sec, comparing an fsync per operation with group commit.
+ * The threaded variants model concurrent operators; the burst variant models a batch of
+ * assignments committed together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+    private static final int BURST = 64;
+
+    @Param({"PER_OPERATION", "GROUP"})
+    public Journal.SyncMode syncMode;
+
+    private Path directory;
+    private Journal journal;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        journal = Journal.open(directory.resolve("journal.log"), syncMode, entry -> { });
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        journal.close();
+        Files.deleteIfExists(directory.resolve("journal.log"));
+        Files.deleteIfExists(directory);
+    }
+
+    private void mutate() {
+        journal.awaitDurable(journal.append(Journal.Entry.assign(42, 7)));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void singleWriter() {
+        mutate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void eightWriters() {
+        mutate();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void thirtyTwoWriters() {
+        mutate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BURST)
+    public void burstOfAssignments() {
+        long last = 0;
+        for (int i = 0; i < BURST; i++) {
+            last = journal.append(Journal.Entry.assign(i, 7));
+        }
+        journal.awaitDurable(last);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.controller.ArtifactController;
+import com.example.hogwarts.controller.WizardController;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.metrics.Metrics;
+import com.example.hogwarts.metrics.Timer;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Wizard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics instrumentation on hot controller calls. Metrics.ENABLED is fixed when the
+ * class loads, so every timed operation runs twice: once in a fork with metrics on (the default)
+ * and once in a fork started with -Dhogwarts.metrics=false. findArtifactById is not timed at any
+ * layer and serves as the baseline. timerRecord measures one clock read plus one histogram update
+ * on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MetricsBenchmark {
+    private static final String DISABLED = "-Dhogwarts.metrics=false";
+
+    @Param({"100000"})
+    public int artifacts;
+
+    private DataStore store;
+    private ArtifactController artifactController;
+    private WizardController wizardController;
+    private int wizards;
+    private Timer timer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Fixtures.populate(artifacts, 0);
+        artifactController = new ArtifactController(store);
+        wizardController = new WizardController(store);
+        wizards = Fixtures.wizardCountFor(artifacts);
+        timer = Metrics.timer("MetricsBenchmark.timerRecord");
+    }
+
+    private Artifact findRandom() {
+        return artifactController.findArtifactById(ThreadLocalRandom.current().nextInt(1, artifacts + 1));
+    }
+
+    private List<Artifact> searchRandom() {
+        return artifactController.searchArtifacts("Artifact " + ThreadLocalRandom.current().nextInt(1, 1000));
+    }
+
+    private String assignRandom() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Artifact artifact = store.findArtifactById(random.nextInt(1, artifacts + 1));
+        Wizard wizard = store.findWizardById(random.nextInt(1, wizards + 1));
+        String result = wizardController.assignArtifactToWizard(artifact, wizard);
+        store.setArtifactCondition(artifact.getId(), 100);
+        return result;
+    }
+
+    @Benchmark
+    public Artifact findArtifactById() {
+        return findRandom();
+    }
+
+    @Benchmark
+    public List<Artifact> searchArtifacts() {
+        return searchRandom();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", DISABLED})
+    public List<Artifact> searchArtifactsUninstrumented() {
+        return searchRandom();
+    }
+
+    @Benchmark
+    public String assignArtifactToWizard() {
+        return assignRandom();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", DISABLED})
+    public String assignArtifactToWizardUninstrumented() {
+        return assignRandom();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void timerRecord() {
+        timer.record(Metrics.start());
+    }
+}
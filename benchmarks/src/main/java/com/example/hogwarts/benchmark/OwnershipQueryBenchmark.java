@@ -0,0 +1,51 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.controller.WizardController;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.model.Artifact;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queries behind the Assign and Unassign dialogs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms16g", "-Xmx16g"})
+public class OwnershipQueryBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int artifacts;
+
+    private DataStore store;
+    private WizardController controller;
+    private int wizards;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Fixtures.populate(artifacts, 0);
+        controller = new WizardController(store);
+        wizards = Fixtures.wizardCountFor(artifacts);
+    }
+
+    @Benchmark
+    public List<Artifact> getUnassignedArtifacts() {
+        return controller.getUnassignedArtifacts();
+    }
+
+    @Benchmark
+    public List<Artifact> getAssignedArtifacts() {
+        return controller.getAssignedArtifacts(store.findWizardById(ThreadLocalRandom.current().nextInt(1, wizards + 1)));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<Artifact> getAssignedArtifactsAllCores() {
+        return getAssignedArtifacts();
+    }
+}
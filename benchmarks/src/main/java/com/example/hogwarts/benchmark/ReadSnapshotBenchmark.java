@@ -0,0 +1,102 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.ReadSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A consistent view of the whole catalogue, as an export or report needs one: the snapshot the
+ * store maintains on every change against copying every entity with writers paused. Taking and
+ * scanning each shows the reader's side; the groups run one writer beside a reader that keeps
+ * taking views and show what each approach costs the writer. {@code write} alone is the baseline
+ * for the price of keeping the snapshot up to date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ReadSnapshotBenchmark {
+    @Param({"100000", "1000000"})
+    public int artifacts;
+
+    private DataStore store;
+    private int wizards;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = Fixtures.populate(artifacts, 0);
+        wizards = Fixtures.wizardCountFor(artifacts);
+    }
+
+    private boolean write() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return store.setArtifactCondition(random.nextInt(1, artifacts + 1), random.nextInt(10, 101));
+    }
+
+    // What a report does with a view: one wizard's artifacts
+    private int read(ReadSnapshot view) {
+        return view.findArtifactsByOwner(ThreadLocalRandom.current().nextInt(1, wizards + 1)).size();
+    }
+
+    private static long scan(ReadSnapshot view) {
+        long conditions = 0;
+        for (ReadSnapshot.ArtifactState artifact : view.artifacts()) {
+            conditions += artifact.condition();
+        }
+        return conditions;
+    }
+
+    @Benchmark
+    public ReadSnapshot persistentSnapshot() {
+        return store.readSnapshot();
+    }
+
+    @Benchmark
+    public ReadSnapshot stopTheWorldCopy() {
+        return store.copyReadSnapshot();
+    }
+
+    @Benchmark
+    public long persistentSnapshotScan() {
+        return scan(store.readSnapshot());
+    }
+
+    @Benchmark
+    public long stopTheWorldCopyScan() {
+        return scan(store.copyReadSnapshot());
+    }
+
+    @Benchmark
+    public boolean writeAlone() {
+        return write();
+    }
+
+    @Benchmark
+    @Group("persistent")
+    public boolean persistentWriter() {
+        return write();
+    }
+
+    @Benchmark
+    @Group("persistent")
+    public int persistentReader() {
+        return read(store.readSnapshot());
+    }
+
+    @Benchmark
+    @Group("stopTheWorld")
+    public boolean stopTheWorldWriter() {
+        return write();
+    }
+
+    @Benchmark
+    @Group("stopTheWorld")
+    public int stopTheWorldReader() {
+        return read(store.copyReadSnapshot());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Transfer;
+import com.example.hogwarts.model.Wizard;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Reports heap bytes per transfer record: the object layout the store used to keep (a Transfer
+ * per record in an ID map plus per-artifact and per-wizard skip-list indexes) against the
+ * columnar transfer log. Run with a fixed heap, e.g.
+ * {@code java -Xms4g -Xmx4g -cp benchmarks/target/benchmarks.jar com.example.hogwarts.benchmark.TransferFootprint 1000000}.
+ */
+public class TransferFootprint {
+    public static void main(String[] args) {
+        int transfers = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int artifacts = 10_000;
+
+        DataStore store = Fixtures.populate(artifacts, 0);
+        int wizards = Fixtures.wizardCountFor(artifacts);
+
+        long before = usedHeap();
+        Map<Integer, Transfer> byId = new ConcurrentHashMap<>();
+        Map<Integer, NavigableMap<Integer, Transfer>> byArtifact = new ConcurrentHashMap<>();
+        Map<Integer, NavigableMap<Integer, Transfer>> byWizard = new ConcurrentHashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int id = 1; id <= transfers; id++) {
+            Artifact artifact = store.findArtifactById(random.nextInt(1, artifacts + 1));
+            Wizard wizard = store.findWizardById(random.nextInt(1, wizards + 1));
+            Transfer transfer = new Transfer(random.nextBoolean() ? "assign" : "unassign", artifact, wizard);
+            transfer.setId(id);
+            byId.put(id, transfer);
+            byArtifact.computeIfAbsent(artifact.getId(), k -> new ConcurrentSkipListMap<>()).put(id, transfer);
+            byWizard.computeIfAbsent(wizard.getId(), k -> new ConcurrentSkipListMap<>()).put(id, transfer);
+        }
+        long objectBytes = usedHeap() - before;
+        System.out.println("records: " + byId.size() + ", " + byArtifact.size() + " artifacts, " + byWizard.size() + " wizards");
+        byId = null;
+        byArtifact = null;
+        byWizard = null;
+
+        before = usedHeap();
+        random = new SplittableRandom(42);
+        for (int i = 0; i < transfers; i++) {
+            Artifact artifact = store.findArtifactById(random.nextInt(1, artifacts + 1));
+            Wizard wizard = store.findWizardById(random.nextInt(1, wizards + 1));
+            store.addTransfer(new Transfer(random.nextBoolean() ? "assign" : "unassign", artifact, wizard));
+        }
+        long logBytes = usedHeap() - before;
+
+        System.out.printf("Transfer objects + indexes: %6.1f bytes/record (%,d bytes)%n", (double) objectBytes / transfers, objectBytes);
+        System.out.printf("Columnar transfer log:      %6.1f bytes/record (%,d bytes, %,d estimated by the log)%n",
+                (double) logBytes / transfers, logBytes, store.getTransferHistoryBytes());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.controller.TransferController;
+import com.example.hogwarts.data.Page;
+import com.example.hogwarts.model.Transfer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-artifact and per-wizard transfer history lookups, as used by the Transfers dialog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms16g", "-Xmx16g"})
+public class TransferQueryBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    public int artifacts;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int transfers;
+
+    private TransferController controller;
+    private int wizards;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = new TransferController(Fixtures.populate(artifacts, transfers));
+        wizards = Fixtures.wizardCountFor(artifacts);
+    }
+
+    @Benchmark
+    public Collection<Transfer> findAllTransfersById() {
+        return controller.findAllTransfersById(ThreadLocalRandom.current().nextInt(1, artifacts + 1));
+    }
+
+    @Benchmark
+    public Collection<Transfer> findTransfersByWizard() {
+        return controller.findTransfersByWizard(ThreadLocalRandom.current().nextInt(1, wizards + 1));
+    }
+
+    // A page from the middle of the global time index; fixture transfers are all recorded during setup
+    @Benchmark
+    public Page<Transfer> findTransfersBetween() {
+        return controller.findTransfersBetween(null, null, ThreadLocalRandom.current().nextInt(transfers), 50);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Collection<Transfer> findAllTransfersByIdAllCores() {
+        return findAllTransfersById();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.hogwarts.benchmark;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Wizard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ownership changes on a wizard that already owns {@code owned} artifacts, as some departments'
+ * wizards do: moving one more artifact in and out again, and reading the artifact count the
+ * wizard table shows per row. Neither should depend on how much the wizard owns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class WizardInventoryBenchmark {
+    @Param({"100", "10000", "200000"})
+    public int owned;
+
+    private DataStore store;
+    private Wizard wizard;
+    private int spareId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = DataStore.inMemory();
+        wizard = store.addWizard(new Wizard("Department"));
+        List<Integer> ids = new ArrayList<>(owned);
+        for (int i = 0; i < owned; i++) {
+            ids.add(store.addArtifact(new Artifact("Owned " + i, "Department stock")).getId());
+        }
+        store.assignArtifactsToWizard(ids, wizard.getId());
+        spareId = store.addArtifact(new Artifact("Spare", "Moves in and out")).getId();
+    }
+
+    @Benchmark
+    public boolean assignAndUnassign() {
+        store.assignArtifactToWizard(spareId, wizard.getId());
+        store.setArtifactCondition(spareId, 100); // undo the wear of assigning
+        return store.unassignArtifactFromWizard(wizard.getId(), spareId);
+    }
+
+    @Benchmark
+    public int artifactCount() {
+        return wizard.getArtifactCount();
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.hogwarts;
 
+import com.example.hogwarts.api.ApiServer;
 import com.example.hogwarts.controller.LoginController;
+import com.example.hogwarts.data.DataStore;
 import com.example.hogwarts.view.LoginView;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public class HogwartsApplication extends Application {
+    private CompletableFuture<DataStore> loading;
 
     @Override
     public void start(Stage primaryStage) {
+        this.loading = DataStore.preload(); // map the snapshot while the login screen is up
+
         LoginView loginView = new LoginView();
         LoginController loginController = new LoginController(loginView);
+        loginController.waitForData(this.loading);
 
         Scene scene = new Scene(loginView, 400, 250);
         primaryStage.setScene(scene);
@@ -19,7 +31,28 @@ public class HogwartsApplication extends Application {
         primaryStage.show();
     }
 
-    public static void main(String[] args) {
-        launch(args);
+    @Override
+    public void stop() {
+        DataStore store = this.loading.exceptionally(error -> null).join();
+        if (store != null) {
+            store.close(); // snapshot and flush the journal before the JVM exits
+        }
+    }
+
+    // --server [port] runs the HTTP API on localhost instead of the desktop UI
+    public static void main(String[] args) throws IOException {
+        int server = List.of(args).indexOf("--server");
+        if (server < 0) {
+            launch(args);
+            return;
+        }
+        int port = server + 1 < args.length ? Integer.parseInt(args[server + 1]) : ApiServer.DEFAULT_PORT;
+        DataStore store = DataStore.getInstance();
+        ApiServer api = ApiServer.start(store, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop();
+            store.close(); // snapshot and flush the journal, as when the window closes
+        }));
+        System.out.println("Serving the Hogwarts API on http://localhost:" + api.getPort() + "/api (Ctrl+C to stop)");
     }
 }
@@ -0,0 +1,183 @@
+package com.example.hogwarts.api;
+
+import com.example.hogwarts.bulk.JsonLines;
+import com.example.hogwarts.data.DataStore;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One API request: the path below the API root split into segments, the decoded query string and
+ * the flat JSON body, plus helpers that write a JSON response with a known length. A fixed-length
+ * response is what lets the server keep the connection open for the client's next request.
+ */
+final class ApiExchange {
+    // Writes one element of a JSON array
+    @FunctionalInterface
+    interface ElementWriter<T> {
+        void write(StringBuilder out, T element) throws IOException;
+    }
+
+    private final HttpExchange exchange;
+    private final String[] segments;
+    private Map<String, String> query; // decoded on first use, so a malformed query is reported as bad input
+    private final String body;
+
+    ApiExchange(HttpExchange exchange, String root) throws IOException {
+        this.exchange = exchange;
+        String path = exchange.getRequestURI().getPath().substring(root.length());
+        this.segments = path.isEmpty() || path.equals("/") ? new String[0] : path.replaceFirst("^/", "").split("/");
+        // read the whole body even when it is not needed, or the connection cannot be reused
+        this.body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    String method() {
+        return exchange.getRequestMethod();
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    String segment(int index) {
+        return segments[index];
+    }
+
+    // Segment {@code index} as a positive ID
+    int id(int index) {
+        return positive(segments[index], "ID");
+    }
+
+    String query(String name) {
+        if (query == null) query = decodeQuery(exchange.getRequestURI().getRawQuery());
+        String value = query.get(name);
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static Map<String, String> decodeQuery(String raw) {
+        Map<String, String> values = new HashMap<>();
+        if (raw == null) return values;
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            values.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    int queryInt(String name, int defaultValue) {
+        String value = query(name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value);
+        }
+    }
+
+    Instant queryInstant(String name) {
+        String value = query(name);
+        if (value == null) return null;
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " is not an ISO-8601 instant: " + value);
+        }
+    }
+
+    // Values of {@code fields} in the JSON body, in order; null where absent or when there is no body
+    String[] body(String... fields) {
+        return body.isBlank() ? new String[fields.length] : JsonLines.parse(body.trim(), fields);
+    }
+
+    static String required(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is missing");
+        }
+        return value;
+    }
+
+    static int positive(String value, String field) {
+        int number;
+        try {
+            number = Integer.parseInt(required(value, field).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+        if (number <= 0) {
+            throw new IllegalArgumentException(field + " must be positive: " + value);
+        }
+        return number;
+    }
+
+    // An optional version to update against; absent means the update is unconditional
+    static long version(String value) {
+        if (value == null || value.isBlank()) return DataStore.ANY_VERSION;
+        try {
+            long version = Long.parseLong(value.trim());
+            if (version >= 0) return version;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("version must be a non-negative number: " + value);
+    }
+
+    void sendObject(int status, String[] fields, Object... values) throws IOException {
+        StringBuilder out = new StringBuilder();
+        JsonLines.object(out, fields, values);
+        send(status, out);
+    }
+
+    <T> void sendList(Collection<T> elements, ElementWriter<T> writer) throws IOException {
+        send(200, list(new StringBuilder(), elements, writer));
+    }
+
+    // {"offset":..,"total":..,"items":[..]}
+    <T> void sendPage(int offset, int total, Collection<T> items, ElementWriter<T> writer) throws IOException {
+        StringBuilder out = new StringBuilder();
+        out.append("{\"offset\":").append(offset).append(",\"total\":").append(total).append(",\"items\":");
+        list(out, items, writer).append('}');
+        send(200, out);
+    }
+
+    <T> void sendElement(int status, T element, ElementWriter<T> writer) throws IOException {
+        StringBuilder out = new StringBuilder();
+        writer.write(out, element);
+        send(status, out);
+    }
+
+    void sendError(int status, String message) throws IOException {
+        sendObject(status, new String[] {"error"}, message);
+    }
+
+    void sendNoContent() throws IOException {
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private static <T> StringBuilder list(StringBuilder out, Collection<T> elements, ElementWriter<T> writer)
+            throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (T element : elements) {
+            if (!first) out.append(',');
+            first = false;
+            writer.write(out, element);
+        }
+        return out.append(']');
+    }
+
+    private void send(int status, CharSequence json) throws IOException {
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
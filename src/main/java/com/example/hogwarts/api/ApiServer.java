@@ -0,0 +1,354 @@
+package com.example.hogwarts.api;
+
+import com.example.hogwarts.bulk.JsonLines;
+import com.example.hogwarts.controller.ArtifactController;
+import com.example.hogwarts.controller.TransferController;
+import com.example.hogwarts.controller.WizardController;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.Page;
+import com.example.hogwarts.data.StaleVersionException;
+import com.example.hogwarts.metrics.Counter;
+import com.example.hogwarts.metrics.Metrics;
+import com.example.hogwarts.metrics.Timer;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Transfer;
+import com.example.hogwarts.model.Wizard;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP/JSON API over the wizard, artifact and transfer controllers, for scanners and other
+ * tools that cannot use the desktop UI. Every request runs on its own virtual thread, so a request
+ * waiting on a journal commit ties up no platform thread, and responses always carry a length so
+ * HTTP/1.1 clients keep their connections open between requests.
+ *
+ * <pre>
+ * GET    /api/wizards?q=&amp;offset=&amp;limit=          POST /api/wizards {"name"}
+ * GET    /api/wizards/{id}                        PUT /api/wizards/{id} {"name","version"}    DELETE /api/wizards/{id}
+ * GET    /api/wizards/{id}/artifacts              POST /api/wizards/{id}/artifacts {"artifact"}
+ * DELETE /api/wizards/{id}/artifacts/{artifactId}
+ * GET    /api/artifacts?q=&amp;unassigned=true&amp;offset=&amp;limit=
+ * POST   /api/artifacts {"name","description"}
+ * GET    /api/artifacts/{id}                      PUT /api/artifacts/{id} {"name","description","version"}
+ * DELETE /api/artifacts/{id}                      POST /api/artifacts/{id}/repair {"amount","version"}
+ * GET    /api/artifacts/{id}/transfers?from=&amp;to=&amp;offset=&amp;limit=
+ * GET    /api/transfers?wizard={id}&amp;from=&amp;to=&amp;offset=&amp;limit=   (wizard is optional)
+ * </pre>
+ *
+ * Times are ISO-8601 instants and ranges are {@code [from, to)}. Errors come back as
+ * {@code {"error": "..."}} with 400 for bad input, 404 for unknown IDs and 409 when an assignment
+ * is refused. Wizards and artifacts carry a {@code version}; sending it back with an update makes the
+ * update conditional, and a 409 then means someone else changed the entity first.
+ */
+public final class ApiServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final String ROOT = "/api";
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    private static final String[] WIZARD_FIELDS = {"id", "name", "artifactCount", "version"};
+    private static final String[] ARTIFACT_FIELDS = {"id", "name", "description", "condition", "owner", "version"};
+    private static final String[] TRANSFER_FIELDS = {"id", "type", "artifact", "wizard", "timestamp"};
+
+    private static final Timer REQUEST = Metrics.timer("ApiServer.request");
+    private static final Counter SERVER_ERRORS = Metrics.counter("ApiServer.serverErrors");
+
+    static {
+        // Without TCP_NODELAY a response body written after its headers waits for the client's
+        // delayed ACK, adding ~40 ms to every kept-alive request; must be set before the first server
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-", 0).factory());
+    private final WizardController wizards;
+    private final ArtifactController artifacts;
+    private final TransferController transfers;
+
+    private ApiServer(DataStore store, InetSocketAddress address) throws IOException {
+        this.wizards = new WizardController(store);
+        this.artifacts = new ArtifactController(store);
+        this.transfers = new TransferController(store);
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext(ROOT, this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    /**
+     * Starts serving {@code store} on {@code address}; port 0 picks a free port. Bind to a loopback
+     * address: the API has no authentication of its own.
+     */
+    public static ApiServer start(DataStore store, InetSocketAddress address) throws IOException {
+        ApiServer api = new ApiServer(store, address);
+        api.server.start();
+        return api;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Stops accepting connections, gives requests in progress up to a second to finish, then stops
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) {
+        long start = Metrics.start();
+        try (exchange) {
+            ApiExchange request;
+            try {
+                request = new ApiExchange(exchange, ROOT);
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(400, -1); // the request could not be parsed, so there is nothing to route
+                return;
+            }
+            try {
+                route(request);
+            } catch (NoSuchElementException e) {
+                request.sendError(404, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                request.sendError(400, e.getMessage());
+            } catch (UnsupportedOperationException e) {
+                request.sendError(405, e.getMessage());
+            } catch (StaleVersionException e) {
+                request.sendError(409, e.getMessage());
+            } catch (RuntimeException e) {
+                SERVER_ERRORS.increment();
+                request.sendError(500, e.toString());
+            }
+        } catch (IOException | RuntimeException e) {
+            SERVER_ERRORS.increment(); // the client went away or the request could not be read; nothing to answer
+        } finally {
+            REQUEST.record(start);
+        }
+    }
+
+    private void route(ApiExchange request) throws IOException {
+        String resource = request.segmentCount() == 0 ? "" : request.segment(0);
+        switch (resource) {
+            case "wizards" -> wizards(request);
+            case "artifacts" -> artifacts(request);
+            case "transfers" -> transfers(request);
+            default -> throw new NoSuchElementException("No such resource: " + ROOT + "/" + resource);
+        }
+    }
+
+    // Wizards
+
+    private void wizards(ApiExchange request) throws IOException {
+        String method = request.method();
+        switch (request.segmentCount()) {
+            case 1 -> {
+                if (method.equals("GET")) {
+                    String query = request.query("q");
+                    if (query != null) {
+                        sendPage(request, wizards.searchWizards(query, offset(request), limit(request)), ApiServer::writeWizard);
+                    } else {
+                        sendPage(request, wizards.wizardPages().fetch(offset(request), limit(request)), ApiServer::writeWizard);
+                    }
+                } else if (method.equals("POST")) {
+                    String name = ApiExchange.required(request.body("name")[0], "name");
+                    request.sendElement(201, wizards.addWizard(name), ApiServer::writeWizard);
+                } else {
+                    throw notAllowed(request);
+                }
+            }
+            case 2 -> {
+                Wizard wizard = wizard(request.id(1));
+                switch (method) {
+                    case "GET" -> request.sendElement(200, wizard, ApiServer::writeWizard);
+                    case "PUT" -> {
+                        String[] body = request.body("name", "version");
+                        wizards.updateWizard(wizard.getId(), ApiExchange.version(body[1]), ApiExchange.required(body[0], "name"));
+                        request.sendElement(200, wizard, ApiServer::writeWizard);
+                    }
+                    case "DELETE" -> {
+                        wizards.deleteWizard(wizard.getId());
+                        request.sendNoContent();
+                    }
+                    default -> throw notAllowed(request);
+                }
+            }
+            case 3 -> {
+                requireSegment(request, 2, "artifacts");
+                Wizard wizard = wizard(request.id(1));
+                if (method.equals("GET")) {
+                    request.sendList(wizards.getAssignedArtifacts(wizard), ApiServer::writeArtifact);
+                } else if (method.equals("POST")) {
+                    Artifact artifact = artifact(ApiExchange.positive(request.body("artifact")[0], "artifact"));
+                    String refused = wizards.assignArtifactToWizard(artifact, wizard);
+                    if (refused != null) {
+                        request.sendError(409, refused);
+                    } else {
+                        request.sendElement(200, artifact, ApiServer::writeArtifact);
+                    }
+                } else {
+                    throw notAllowed(request);
+                }
+            }
+            case 4 -> {
+                requireSegment(request, 2, "artifacts");
+                if (!method.equals("DELETE")) throw notAllowed(request);
+                Wizard wizard = wizard(request.id(1));
+                Artifact artifact = artifact(request.id(3));
+                if (artifact.getOwner() != wizard || !wizards.unassignArtifactFromWizard(wizard, artifact)) {
+                    request.sendError(409, "Artifact " + artifact.getId() + " is not assigned to wizard " + wizard.getId());
+                } else {
+                    request.sendNoContent();
+                }
+            }
+            default -> throw notFound();
+        }
+    }
+
+    // Artifacts
+
+    private void artifacts(ApiExchange request) throws IOException {
+        String method = request.method();
+        switch (request.segmentCount()) {
+            case 1 -> {
+                if (method.equals("GET")) {
+                    String query = request.query("q");
+                    if (query != null) {
+                        sendPage(request, artifacts.searchArtifacts(query, offset(request), limit(request)), ApiServer::writeArtifact);
+                    } else if ("true".equals(request.query("unassigned"))) {
+                        sendPage(request, wizards.getUnassignedArtifacts(offset(request), limit(request)), ApiServer::writeArtifact);
+                    } else {
+                        sendPage(request, artifacts.artifactPages().fetch(offset(request), limit(request)), ApiServer::writeArtifact);
+                    }
+                } else if (method.equals("POST")) {
+                    String[] body = request.body("name", "description");
+                    Artifact artifact = artifacts.addArtifact(ApiExchange.required(body[0], "name"), body[1] == null ? "" : body[1]);
+                    request.sendElement(201, artifact, ApiServer::writeArtifact);
+                } else {
+                    throw notAllowed(request);
+                }
+            }
+            case 2 -> {
+                Artifact artifact = artifact(request.id(1));
+                switch (method) {
+                    case "GET" -> request.sendElement(200, artifact, ApiServer::writeArtifact);
+                    case "PUT" -> {
+                        String[] body = request.body("name", "description", "version");
+                        artifacts.updateArtifact(artifact.getId(), ApiExchange.version(body[2]), ApiExchange.required(body[0], "name"),
+                                body[1] == null ? artifact.getDescription() : body[1]);
+                        request.sendElement(200, artifact, ApiServer::writeArtifact);
+                    }
+                    case "DELETE" -> {
+                        artifacts.deleteArtifact(artifact.getId());
+                        request.sendNoContent();
+                    }
+                    default -> throw notAllowed(request);
+                }
+            }
+            case 3 -> {
+                Artifact artifact = artifact(request.id(1));
+                if (request.segment(2).equals("repair") && method.equals("POST")) {
+                    String[] body = request.body("amount", "version");
+                    artifacts.repairArtifact(artifact.getId(), ApiExchange.version(body[1]), ApiExchange.positive(body[0], "amount"));
+                    request.sendElement(200, artifact, ApiServer::writeArtifact);
+                } else if (request.segment(2).equals("transfers") && method.equals("GET")) {
+                    sendPage(request, transfers.findTransfersBetween(artifact.getId(), request.queryInstant("from"),
+                            request.queryInstant("to"), offset(request), limit(request)), ApiServer::writeTransfer);
+                } else {
+                    throw notFound();
+                }
+            }
+            default -> throw notFound();
+        }
+    }
+
+    // Transfers
+
+    private void transfers(ApiExchange request) throws IOException {
+        if (request.segmentCount() != 1) throw notFound();
+        if (!request.method().equals("GET")) throw notAllowed(request);
+        String wizardId = request.query("wizard");
+        Instant from = request.queryInstant("from");
+        Instant to = request.queryInstant("to");
+        if (wizardId != null) {
+            int id = wizard(ApiExchange.positive(wizardId, "wizard")).getId();
+            sendPage(request, transfers.findWizardTransfersBetween(id, from, to, offset(request), limit(request)),
+                    ApiServer::writeTransfer);
+        } else {
+            sendPage(request, transfers.findTransfersBetween(from, to, offset(request), limit(request)), ApiServer::writeTransfer);
+        }
+    }
+
+    private Wizard wizard(int id) {
+        Wizard wizard = wizards.findWizardById(id);
+        if (wizard == null) {
+            throw new NoSuchElementException("Wizard with ID " + id + " not found.");
+        }
+        return wizard;
+    }
+
+    private Artifact artifact(int id) {
+        Artifact artifact = artifacts.findArtifactById(id);
+        if (artifact == null) {
+            throw new NoSuchElementException("Artifact with ID " + id + " not found.");
+        }
+        return artifact;
+    }
+
+    private static <T> void sendPage(ApiExchange request, Page<T> page, ApiExchange.ElementWriter<T> writer) throws IOException {
+        request.sendPage(page.offset(), page.total(), page.items(), writer);
+    }
+
+    private static int offset(ApiExchange request) {
+        int offset = request.queryInt("offset", 0);
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        return offset;
+    }
+
+    private static int limit(ApiExchange request) {
+        int limit = request.queryInt("limit", DEFAULT_LIMIT);
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 0 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static void requireSegment(ApiExchange request, int index, String expected) {
+        if (!request.segment(index).equals(expected)) throw notFound();
+    }
+
+    private static NoSuchElementException notFound() {
+        return new NoSuchElementException("No such resource");
+    }
+
+    private static UnsupportedOperationException notAllowed(ApiExchange request) {
+        return new UnsupportedOperationException(request.method() + " is not supported here");
+    }
+
+    private static void writeWizard(StringBuilder out, Wizard wizard) throws IOException {
+        JsonLines.object(out, WIZARD_FIELDS, wizard.getId(), wizard.getName(), wizard.getArtifactCount(),
+                wizard.getVersion());
+    }
+
+    private static void writeArtifact(StringBuilder out, Artifact artifact) throws IOException {
+        Wizard owner = artifact.getOwner();
+        JsonLines.object(out, ARTIFACT_FIELDS, artifact.getId(), artifact.getName(), artifact.getDescription(),
+                artifact.getCondition(), owner == null ? null : owner.getId(), artifact.getVersion());
+    }
+
+    private static void writeTransfer(StringBuilder out, Transfer transfer) throws IOException {
+        JsonLines.object(out, TRANSFER_FIELDS, transfer.getId(), transfer.getType(),
+                transfer.getArtifact() == null ? null : transfer.getArtifact().getId(),
+                transfer.getWizard() == null ? null : transfer.getWizard().getId(), transfer.getTimestamp());
+    }
+}
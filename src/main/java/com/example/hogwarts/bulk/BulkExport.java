@@ -0,0 +1,151 @@
+package com.example.hogwarts.bulk;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.ReadSnapshot;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Wizard;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams wizards, artifacts or transfer history from a DataStore to a CSV or JSON-lines file,
+ * in the layout {@link BulkImport} reads. Rows are pulled from the store's batched iterators and
+ * written straight into a 64 KB buffer, so no list of the whole result is ever built and memory
+ * use does not depend on the size of the export. Wizards and artifacts are read from one
+ * {@link ReadSnapshot}, so the file shows the catalogue as of the moment the export started even
+ * while it keeps changing, and nothing is moved or listed twice.
+ *
+ * The file is written next to its destination and moved into place when complete, so a failed or
+ * cancelled export never leaves a truncated file behind. IDs are the store's own; re-importing
+ * transfers therefore needs the wizards and artifacts they refer to in the same import.
+ */
+public final class BulkExport {
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int BATCH_ROWS = 4096; // rows between progress reports and cancellation checks
+
+    public enum Entity { WIZARDS, ARTIFACTS, TRANSFERS }
+
+    /**
+     * Which rows to export; 0 and null mean no restriction. Wizards can be narrowed to one wizard,
+     * artifacts to one artifact or to the artifacts a wizard owns, and transfers by any combination
+     * of artifact, wizard and time range {@code [from, to)}.
+     */
+    public record Filter(int artifactId, int wizardId, Instant from, Instant to) {
+        public static final Filter NONE = new Filter(0, 0, null, null);
+    }
+
+    public record Result(Entity entity, long exported, Path file, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : exported * 1e9 / elapsedNanos;
+        }
+    }
+
+    // The values of one row, in the order of the entity's field names
+    @FunctionalInterface
+    private interface Columns<T> {
+        Object[] of(T row);
+    }
+
+    private final DataStore store;
+    private volatile LongConsumer progress = rows -> { };
+    private volatile boolean cancelled;
+
+    public BulkExport(DataStore store) {
+        this.store = store;
+    }
+
+    // Called on the exporting thread every few thousand rows with the rows written so far
+    public void setProgressListener(LongConsumer progress) {
+        this.progress = progress;
+    }
+
+    // Stops the running export at its next batch, which then throws CancellationException; later exports stop too
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public Result export(Entity entity, Path file, Filter filter) throws IOException {
+        return switch (entity) {
+            case WIZARDS -> run(entity, file, wizards(store.readSnapshot(), filter), BulkImport.WIZARD_FIELDS,
+                    wizard -> new Object[] {wizard.name(), wizard.id()});
+            case ARTIFACTS -> run(entity, file, artifacts(store.readSnapshot(), filter), BulkImport.ARTIFACT_FIELDS,
+                    artifact -> new Object[] {artifact.name(), artifact.id(), artifact.description(), artifact.condition(),
+                            artifact.isAssigned() ? artifact.ownerId() : null});
+            case TRANSFERS -> run(entity, file,
+                    store.iterateTransfers(filter.artifactId(), filter.wizardId(), filter.from(), filter.to()),
+                    BulkImport.TRANSFER_FIELDS, transfer -> new Object[] {transfer.getType(), idOf(transfer.getArtifact()),
+                            idOf(transfer.getWizard()), transfer.getTimestamp()});
+        };
+    }
+
+    private static Iterator<ReadSnapshot.WizardState> wizards(ReadSnapshot snapshot, Filter filter) {
+        if (filter.wizardId() != 0) return single(snapshot.findWizardById(filter.wizardId()));
+        return snapshot.wizards().iterator();
+    }
+
+    private static Iterator<ReadSnapshot.ArtifactState> artifacts(ReadSnapshot snapshot, Filter filter) {
+        if (filter.artifactId() != 0) {
+            ReadSnapshot.ArtifactState artifact = snapshot.findArtifactById(filter.artifactId());
+            boolean owned = artifact != null && (filter.wizardId() == 0 || artifact.ownerId() == filter.wizardId());
+            return single(owned ? artifact : null);
+        }
+        if (filter.wizardId() != 0) return snapshot.findArtifactsByOwner(filter.wizardId()).iterator(); // one wizard's items
+        return snapshot.artifacts().iterator();
+    }
+
+    private static <T> Iterator<T> single(T entity) {
+        return entity == null ? Collections.emptyIterator() : List.of(entity).iterator();
+    }
+
+    private <T> Result run(Entity entity, Path file, Iterator<T> rows, String[] fields, Columns<T> columns)
+            throws IOException {
+        long start = System.nanoTime();
+        Format format = Format.forFile(file);
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long exported = 0;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(partial), StandardCharsets.UTF_8),
+                BUFFER_BYTES)) {
+            if (format == Format.CSV) Csv.writeRecord(out, (Object[]) fields);
+            while (rows.hasNext()) {
+                Object[] values = columns.of(rows.next());
+                if (format == Format.CSV) {
+                    Csv.writeRecord(out, values);
+                } else {
+                    JsonLines.write(out, fields, values);
+                }
+                if (++exported % BATCH_ROWS == 0) {
+                    if (cancelled) throw new CancellationException("Export cancelled");
+                    progress.accept(exported);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        progress.accept(exported);
+        return new Result(entity, exported, file, System.nanoTime() - start);
+    }
+
+    // 0 when the transfer names an entity the store no longer knows
+    private static int idOf(Artifact artifact) {
+        return artifact == null ? 0 : artifact.getId();
+    }
+
+    private static int idOf(Wizard wizard) {
+        return wizard == null ? 0 : wizard.getId();
+    }
+}
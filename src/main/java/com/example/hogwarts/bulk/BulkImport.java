@@ -0,0 +1,324 @@
+package com.example.hogwarts.bulk;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.Transfer;
+import com.example.hogwarts.model.Wizard;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams wizards, artifacts and transfer history from CSV or JSON-lines files into a DataStore.
+ *
+ * The calling thread reads records in batches of {@value #BATCH_ROWS} and hands each batch to the
+ * common pool to be parsed; at most a few batches per core are read ahead, so memory stays bounded
+ * whatever the file size. Parsed batches are inserted in file order, each through one DataStore
+ * bulk call with a single journal commit.
+ *
+ * Files refer to entities by their own IDs, which are mapped to the IDs the store assigns, so
+ * wizards must be imported before the artifacts and transfers that name them. Rows that cannot be
+ * parsed or that refer to unknown entities are skipped and counted. One importer keeps the ID
+ * mappings of everything it has loaded; it is not thread-safe.
+ */
+public final class BulkImport {
+    static final int BATCH_ROWS = 8192;
+    private static final int IN_FLIGHT = 2 * Runtime.getRuntime().availableProcessors();
+    private static final int MAX_ERRORS = 20; // messages kept per file; the rest are only counted
+
+    // Column (CSV) or key (JSON lines) names; the leading ones up to the count are required
+    static final String[] WIZARD_FIELDS = {"name", "id"};
+    static final String[] ARTIFACT_FIELDS = {"name", "id", "description", "condition", "owner"};
+    static final String[] TRANSFER_FIELDS = {"type", "artifact", "wizard", "timestamp"};
+    private static final Set<String> TRANSFER_TYPES = Set.of("assign", "unassign"); // the types the store records
+
+    public record Result(String entity, long imported, long rejected, List<String> errors, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : (imported + rejected) * 1e9 / elapsedNanos;
+        }
+    }
+
+    private record WizardRow(long record, int id, String name) { }
+    private record ArtifactRow(long record, int id, String name, String description, int condition, int ownerId) { }
+    private record TransferRow(long record, String type, int artifactId, int wizardId, Instant timestamp) { }
+
+    // Rows parsed from one batch, plus a message for each record that could not be
+    private record Parsed<R>(List<R> rows, List<String> errors) { }
+
+    @FunctionalInterface
+    private interface RowMapper<R> {
+        R map(long record, String[] values);
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter<R> {
+        void write(List<R> rows, Tally tally);
+    }
+
+    private static final class Tally {
+        long imported;
+        long rejected;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(String message) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) errors.add(message);
+        }
+
+        void reject(long record, String message) {
+            reject("Record " + record + ": " + message);
+        }
+    }
+
+    private final DataStore store;
+    private final IdMap wizardIds = new IdMap(); // file ID -> store ID
+    private final IdMap artifactIds = new IdMap();
+    private LongConsumer progress = rows -> { };
+
+    public BulkImport(DataStore store) {
+        this.store = store;
+    }
+
+    // Called on the importing thread after every batch with the rows read so far from the current file
+    public void setProgressListener(LongConsumer progress) {
+        this.progress = progress;
+    }
+
+    public Result importWizards(Path file) throws IOException {
+        return run("wizards", file, WIZARD_FIELDS, 1,
+                (record, values) -> new WizardRow(record, optionalId(values[1], "id"), required(values[0], "name")),
+                this::writeWizards);
+    }
+
+    public Result importArtifacts(Path file) throws IOException {
+        return run("artifacts", file, ARTIFACT_FIELDS, 1, (record, values) -> {
+            String description = values[2] == null ? "" : values[2];
+            int condition = values[3] == null || values[3].isBlank() ? 100 : number(values[3], "condition");
+            if (condition < 0 || condition > 100) {
+                throw new IllegalArgumentException("condition must be between 0 and 100");
+            }
+            return new ArtifactRow(record, optionalId(values[1], "id"), required(values[0], "name"), description,
+                    condition, optionalId(values[4], "owner"));
+        }, this::writeArtifacts);
+    }
+
+    public Result importTransfers(Path file) throws IOException {
+        return run("transfers", file, TRANSFER_FIELDS, TRANSFER_FIELDS.length, (record, values) -> {
+            Instant timestamp;
+            try {
+                timestamp = Instant.parse(required(values[3], "timestamp").trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("timestamp is not an ISO-8601 instant: " + values[3]);
+            }
+            String type = required(values[0], "type").trim();
+            if (!TRANSFER_TYPES.contains(type)) {
+                throw new IllegalArgumentException("type must be assign or unassign: " + values[0]);
+            }
+            return new TransferRow(record, type, number(required(values[1], "artifact"), "artifact"),
+                    number(required(values[2], "wizard"), "wizard"), timestamp);
+        }, this::writeTransfers);
+    }
+
+    private <R> Result run(String entity, Path file, String[] fields, int required,
+                           RowMapper<R> mapper, BatchWriter<R> writer) throws IOException {
+        long start = System.nanoTime();
+        Format format = Format.forFile(file);
+        Tally tally = new Tally();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Function<String, String[]> parser = parserFor(format, in, fields, required, file);
+            Deque<CompletableFuture<Parsed<R>>> inFlight = new ArrayDeque<>();
+            List<String> batch = new ArrayList<>(BATCH_ROWS);
+            long first = 1; // data records are numbered from 1, after any CSV header
+            String record;
+            while ((record = format == Format.CSV ? Csv.readRecord(in) : in.readLine()) != null) {
+                batch.add(record);
+                if (batch.size() == BATCH_ROWS) {
+                    inFlight.add(parseAsync(batch, first, parser, mapper));
+                    first += batch.size();
+                    batch = new ArrayList<>(BATCH_ROWS);
+                    if (inFlight.size() >= IN_FLIGHT) {
+                        write(inFlight.poll().join(), writer, tally);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                inFlight.add(parseAsync(batch, first, parser, mapper));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll().join(), writer, tally);
+            }
+        }
+        return new Result(entity, tally.imported, tally.rejected, List.copyOf(tally.errors), System.nanoTime() - start);
+    }
+
+    private static <R> CompletableFuture<Parsed<R>> parseAsync(List<String> records, long first,
+                                                               Function<String, String[]> parser, RowMapper<R> mapper) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<R> rows = new ArrayList<>(records.size());
+            List<String> errors = new ArrayList<>();
+            for (int i = 0; i < records.size(); i++) {
+                String record = records.get(i);
+                if (record.isBlank()) continue;
+                try {
+                    rows.add(mapper.map(first + i, parser.apply(record)));
+                } catch (RuntimeException e) {
+                    errors.add("Record " + (first + i) + ": " + e.getMessage());
+                }
+            }
+            return new Parsed<>(rows, errors);
+        });
+    }
+
+    private <R> void write(Parsed<R> parsed, BatchWriter<R> writer, Tally tally) {
+        for (String error : parsed.errors()) {
+            tally.reject(error);
+        }
+        if (!parsed.rows().isEmpty()) {
+            writer.write(parsed.rows(), tally);
+        }
+        progress.accept(tally.imported + tally.rejected);
+    }
+
+    // CSV columns are found by header name, in any order and case; JSON keys must match exactly
+    private static Function<String, String[]> parserFor(Format format, BufferedReader in, String[] fields,
+                                                        int required, Path file) throws IOException {
+        if (format == Format.JSON_LINES) {
+            return line -> JsonLines.parse(line, fields);
+        }
+        String header = Csv.readRecord(in);
+        if (header == null) {
+            throw new IOException("Empty file: " + file);
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : Csv.split(header)) {
+            columns.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        int[] index = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            index[i] = columns.indexOf(fields[i]);
+            if (index[i] < 0 && i < required) {
+                throw new IOException("Missing column \"" + fields[i] + "\" in " + file
+                        + " (required: " + String.join(", ", Arrays.copyOf(fields, required)) + ")");
+            }
+        }
+        return record -> {
+            String[] cells = Csv.split(record);
+            String[] values = new String[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                if (index[i] >= 0 && index[i] < cells.length) values[i] = cells[index[i]];
+            }
+            return values;
+        };
+    }
+
+    private void writeWizards(List<WizardRow> rows, Tally tally) {
+        List<WizardRow> accepted = new ArrayList<>(rows.size());
+        List<Wizard> wizards = new ArrayList<>(rows.size());
+        for (WizardRow row : rows) {
+            if (!claim(wizardIds, row.id())) {
+                tally.reject(row.record(), "duplicate wizard ID " + row.id());
+                continue;
+            }
+            accepted.add(row);
+            wizards.add(new Wizard(row.name()));
+        }
+        store.importWizards(wizards);
+        for (int i = 0; i < wizards.size(); i++) {
+            if (accepted.get(i).id() != 0) wizardIds.put(accepted.get(i).id(), wizards.get(i).getId());
+        }
+        tally.imported += wizards.size();
+    }
+
+    private void writeArtifacts(List<ArtifactRow> rows, Tally tally) {
+        List<ArtifactRow> accepted = new ArrayList<>(rows.size());
+        List<Artifact> artifacts = new ArrayList<>(rows.size());
+        int[] ownerIds = new int[rows.size()];
+        for (ArtifactRow row : rows) {
+            int ownerId = row.ownerId() == 0 ? 0 : wizardIds.get(row.ownerId());
+            if (ownerId < 0 || (row.ownerId() != 0 && ownerId == 0)) {
+                tally.reject(row.record(), "unknown owner " + row.ownerId());
+                continue;
+            }
+            if (!claim(artifactIds, row.id())) {
+                tally.reject(row.record(), "duplicate artifact ID " + row.id());
+                continue;
+            }
+            Artifact artifact = new Artifact(row.name(), row.description());
+            artifact.setCondition(row.condition());
+            ownerIds[artifacts.size()] = ownerId;
+            accepted.add(row);
+            artifacts.add(artifact);
+        }
+        store.importArtifacts(artifacts, Arrays.copyOf(ownerIds, artifacts.size()));
+        for (int i = 0; i < artifacts.size(); i++) {
+            if (accepted.get(i).id() != 0) artifactIds.put(accepted.get(i).id(), artifacts.get(i).getId());
+        }
+        tally.imported += artifacts.size();
+    }
+
+    private void writeTransfers(List<TransferRow> rows, Tally tally) {
+        List<Transfer> transfers = new ArrayList<>(rows.size());
+        for (TransferRow row : rows) {
+            int artifactId = artifactIds.get(row.artifactId());
+            int wizardId = wizardIds.get(row.wizardId());
+            Artifact artifact = artifactId > 0 ? store.findArtifactById(artifactId) : null;
+            Wizard wizard = wizardId > 0 ? store.findWizardById(wizardId) : null;
+            if (artifact == null || wizard == null) {
+                tally.reject(row.record(), artifact == null ? "unknown artifact " + row.artifactId()
+                        : "unknown wizard " + row.wizardId());
+                continue;
+            }
+            transfers.add(new Transfer(row.type(), artifact, wizard, row.timestamp()));
+        }
+        store.importTransfers(transfers);
+        tally.imported += transfers.size();
+    }
+
+    // Reserves a file ID for a row of the current batch; false when an earlier row already has it
+    private static boolean claim(IdMap ids, int fileId) {
+        if (fileId == 0) return true; // rows without an ID cannot be referred to, so never clash
+        if (ids.get(fileId) != 0) return false;
+        ids.put(fileId, -1); // replaced by the store ID once the batch is inserted
+        return true;
+    }
+
+    private static String required(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is missing");
+        }
+        return value;
+    }
+
+    private static int number(String value, String field) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+    }
+
+    // 0 when absent; file IDs must otherwise be positive
+    private static int optionalId(String value, String field) {
+        if (value == null || value.isBlank()) return 0;
+        int id = number(value, field);
+        if (id <= 0) {
+            throw new IllegalArgumentException(field + " must be positive: " + value);
+        }
+        return id;
+    }
+}
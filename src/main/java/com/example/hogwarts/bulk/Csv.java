@@ -0,0 +1,97 @@
+package com.example.hogwarts.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 style CSV: comma separated, fields optionally quoted, a doubled quote inside quotes
+ * stands for one quote, and a quoted field may span lines.
+ */
+final class Csv {
+    private Csv() {
+    }
+
+    // Next whole record, joining physical lines while a quoted field is still open; null at the end
+    static String readRecord(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        if (line == null || !openQuote(line, false)) return line;
+        StringBuilder record = new StringBuilder(line);
+        boolean open = true;
+        while (open) {
+            line = in.readLine();
+            if (line == null) {
+                throw new IOException("CSV file ends inside a quoted field");
+            }
+            record.append('\n').append(line);
+            open = openQuote(line, true);
+        }
+        return record.toString();
+    }
+
+    // Whether a quoted field is still open at the end of {@code line}, given its state at the start
+    private static boolean openQuote(String line, boolean open) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') open = !open; // a doubled quote flips twice
+        }
+        return open;
+    }
+
+    // Appends one record and a line break; null is an empty field, and fields holding a comma, quote or line break are quoted
+    static void writeRecord(Appendable out, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.append(',');
+            if (fields[i] == null) continue;
+            String field = fields[i].toString();
+            if (!needsQuotes(field)) {
+                out.append(field);
+                continue;
+            }
+            out.append('"');
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                if (c == '"') out.append('"');
+                out.append(c);
+            }
+            out.append('"');
+        }
+        out.append('\n');
+    }
+
+    private static boolean needsQuotes(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    static String[] split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.hogwarts.bulk;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+// File formats for bulk import and export, chosen by file extension
+public enum Format {
+    CSV,
+    JSON_LINES;
+
+    public static Format forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) return JSON_LINES;
+        throw new IllegalArgumentException("Unknown file type (expected .csv or .jsonl): " + file);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.hogwarts.bulk;
+
+/**
+ * Open-addressing map from positive file IDs to store IDs, held in two int arrays so millions of
+ * entries cost 8-16 bytes each instead of a boxed map entry. 0 marks an empty slot. Not thread-safe.
+ */
+final class IdMap {
+    private int[] keys = new int[1 << 10];
+    private int[] values = new int[1 << 10];
+    private int size;
+
+    // Store ID for {@code key}, or 0 when it is not mapped
+    int get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return values[slot];
+        }
+        return 0;
+    }
+
+    void put(int key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("IDs must be positive");
+        }
+        if (2 * (size + 1) > keys.length) grow();
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) size++;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9; // spreads sequential IDs over the table
+        return h ^ (h >>> 16);
+    }
+}
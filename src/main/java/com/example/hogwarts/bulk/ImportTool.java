@@ -0,0 +1,72 @@
+package com.example.hogwarts.bulk;
+
+import com.example.hogwarts.data.DataStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless bulk import into the data directory (see {@link BulkImport} for the file layout):
+ *
+ * <pre>java -cp target/classes com.example.hogwarts.bulk.ImportTool --wizards wizards.csv --artifacts artifacts.jsonl --transfers transfers.csv</pre>
+ *
+ * Every option is optional; files are loaded wizards first, then artifacts, then transfers. The
+ * store is snapshotted when the import finishes, so the next start does not replay its journal.
+ */
+public final class ImportTool {
+    private static final long PROGRESS_INTERVAL_NANOS = 2_000_000_000L;
+
+    private ImportTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, Path> files = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            String option = args[i];
+            if (!List.of("--wizards", "--artifacts", "--transfers").contains(option) || i + 1 == args.length) {
+                System.err.println("Usage: ImportTool [--wizards FILE] [--artifacts FILE] [--transfers FILE]");
+                System.err.println("Files are .csv with a header row or .jsonl with one object per line.");
+                System.exit(2);
+            }
+            files.put(option.substring(2), Path.of(args[i + 1]));
+        }
+
+        DataStore store = DataStore.openWithoutSampleData(); // an empty directory gets only what is imported
+        BulkImport importer = new BulkImport(store);
+        try {
+            if (files.containsKey("wizards")) report(importer, importer.importWizards(track(importer, "wizards", files)));
+            if (files.containsKey("artifacts")) report(importer, importer.importArtifacts(track(importer, "artifacts", files)));
+            if (files.containsKey("transfers")) report(importer, importer.importTransfers(track(importer, "transfers", files)));
+        } finally {
+            store.close(); // snapshots, so the next start maps the imported data instead of replaying it
+        }
+    }
+
+    // Prints the running rate every couple of seconds while {@code entity} loads
+    private static Path track(BulkImport importer, String entity, Map<String, Path> files) {
+        long start = System.nanoTime();
+        long[] lastPrinted = {start};
+        importer.setProgressListener(rows -> {
+            long now = System.nanoTime();
+            if (now - lastPrinted[0] < PROGRESS_INTERVAL_NANOS) return;
+            lastPrinted[0] = now;
+            System.out.printf("  %s: %,d rows (%,.0f rows/s)%n", entity, rows, rows * 1e9 / (now - start));
+        });
+        return files.get(entity);
+    }
+
+    private static void report(BulkImport importer, BulkImport.Result result) {
+        importer.setProgressListener(rows -> { });
+        System.out.printf("Imported %,d %s in %.1f s (%,.0f rows/s), %,d rejected%n", result.imported(), result.entity(),
+                result.elapsedNanos() / 1e9, result.rowsPerSecond(), result.rejected());
+        for (String error : result.errors()) {
+            System.out.println("  " + error);
+        }
+        if (result.rejected() > result.errors().size()) {
+            System.out.printf("  ... and %,d more%n", result.rejected() - result.errors().size());
+        }
+    }
+}
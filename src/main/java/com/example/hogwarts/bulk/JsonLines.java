@@ -0,0 +1,165 @@
+package com.example.hogwarts.bulk;
+
+import java.io.IOException;
+
+/**
+ * JSON lines: one flat JSON object per line. Values may be strings, numbers, booleans or null;
+ * nested objects and arrays are rejected. Numbers and booleans are returned as their source text.
+ * The HTTP API uses the same routines for its request bodies and response objects.
+ */
+public final class JsonLines {
+    private JsonLines() {
+    }
+
+    /**
+     * Values of {@code fields} in {@code line}, in the order of {@code fields}; a missing key or a
+     * JSON null gives null. Keys not asked for are skipped.
+     */
+    public static String[] parse(String line, String[] fields) {
+        String[] values = new String[fields.length];
+        Cursor in = new Cursor(line);
+        in.expect('{');
+        if (in.peek() == '}') {
+            in.next();
+        } else {
+            do {
+                String key = in.string();
+                in.expect(':');
+                String value = in.value();
+                for (int i = 0; i < fields.length; i++) {
+                    if (fields[i].equals(key)) values[i] = value;
+                }
+            } while (in.comma());
+            in.expect('}');
+        }
+        if (in.peek() != 0) {
+            throw new IllegalArgumentException("Unexpected text after the JSON object");
+        }
+        return values;
+    }
+
+    // Appends one object and a line break
+    static void write(Appendable out, String[] fields, Object... values) throws IOException {
+        object(out, fields, values);
+        out.append('\n');
+    }
+
+    // Appends one object; numbers and booleans are written bare, null as null, anything else as a string
+    public static void object(Appendable out, String[] fields, Object... values) throws IOException {
+        out.append('{');
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.append(',');
+            string(out, fields[i]);
+            out.append(':');
+            if (values[i] == null || values[i] instanceof Number || values[i] instanceof Boolean) {
+                out.append(String.valueOf(values[i]));
+            } else {
+                string(out, values[i].toString());
+            }
+        }
+        out.append('}');
+    }
+
+    private static void string(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Cursor {
+        private final String text;
+        private int position;
+
+        Cursor(String text) {
+            this.text = text;
+        }
+
+        // next non-blank character without consuming it, 0 at the end
+        char peek() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) position++;
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+
+        char next() {
+            char c = peek();
+            if (c == 0) throw new IllegalArgumentException("Unexpected end of line");
+            position++;
+            return c;
+        }
+
+        void expect(char expected) {
+            char c = next();
+            if (c != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' but found '" + c + "' at column " + position);
+            }
+        }
+
+        boolean comma() {
+            if (peek() != ',') return false;
+            position++;
+            return true;
+        }
+
+        String value() {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("Nested values are not supported (column " + (position + 1) + ")");
+            }
+            int start = position;
+            while (position < text.length() && ",}".indexOf(text.charAt(position)) < 0
+                    && !Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) throw new IllegalArgumentException("Missing value at column " + (start + 1));
+            return literal.equals("null") ? null : literal;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (true) {
+                if (position >= text.length()) throw new IllegalArgumentException("Unterminated string");
+                char c = text.charAt(position++);
+                if (c == '"') return out.toString();
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (position >= text.length()) throw new IllegalArgumentException("Unterminated string");
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> out.append(escaped);
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > text.length()) throw new IllegalArgumentException("Bad \\u escape");
+                        out.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        position += 4;
+                    }
+                    default -> throw new IllegalArgumentException("Bad escape \\" + escaped);
+                }
+            }
+        }
+    }
+}
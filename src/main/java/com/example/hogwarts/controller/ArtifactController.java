@@ -1,45 +1,160 @@
 package com.example.hogwarts.controller;
 
 import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.Page;
+import com.example.hogwarts.data.PagedDataProvider;
+import com.example.hogwarts.metrics.Metrics;
+import com.example.hogwarts.metrics.Timer;
 import com.example.hogwarts.model.Artifact;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 public class ArtifactController {
-    private final DataStore store = DataStore.getInstance();
+    private final DataStore store;
+    private static final Timer WEAR_ALL = Metrics.timer("ArtifactController.applyWearToAll");
+    private static final Timer REPAIR_WHERE = Metrics.timer("ArtifactController.repairWhere");
+
+    public ArtifactController() {
+        this(DataStore.getInstance());
+    }
+
+    public ArtifactController(DataStore store) {
+        this.store = store;
+    }
 
     public Collection<Artifact> findAllArtifacts() {
         return this.store.findAllArtifacts();
     }
 
+    public PagedDataProvider<Artifact> artifactPages() {
+        return this.store.artifactPages();
+    }
+
     public Artifact addArtifact(String name, String description) {
         Artifact artifact = new Artifact(name, description);
         return this.store.addArtifact(artifact);
     }
 
     public void updateArtifact(int id, String newName, String newDesc) {
-        Artifact artifact = this.store.findArtifactById(id);
-        if(artifact == null) {
+        updateArtifact(id, DataStore.ANY_VERSION, newName, newDesc);
+    }
+
+    // Fails with StaleVersionException when the artifact has moved past expectedVersion
+    public void updateArtifact(int id, long expectedVersion, String newName, String newDesc) {
+        if(!this.store.updateArtifact(id, expectedVersion, newName, newDesc)) {
             throw new NoSuchElementException("Artifact with ID " + id + " not found.");
         }
-        artifact.setName(newName);
-        artifact.setDescription(newDesc);
     }
 
     public void deleteArtifact(int id) {
         this.store.deleteArtifactById(id);
     }
+
+    // Bulk deletes; both return how many artifacts were deleted
+    public int deleteArtifacts(Collection<Integer> ids) {
+        return this.store.deleteArtifacts(ids);
+    }
+
+    public int deleteArtifactsWhere(Predicate<Artifact> filter) {
+        return this.store.deleteArtifactsWhere(filter);
+    }
     
     public void repairArtifact(int id, int repairAmount) {
-        Artifact artifact = this.store.findArtifactById(id);
-        if(artifact == null) {
+        repairArtifact(id, DataStore.ANY_VERSION, repairAmount);
+    }
+
+    public void repairArtifact(int id, long expectedVersion, int repairAmount) {
+        if(!this.store.repairArtifact(id, expectedVersion, repairAmount)) {
             throw new NoSuchElementException("Artifact with ID " + id + " not found.");
         }
-        artifact.repair(repairAmount);
+    }
+
+    // Bulk maintenance; both return how many artifacts changed condition
+    public int applyWearToAll(int amount) {
+        long start = Metrics.start();
+        try {
+            if (amount <= 0) {
+                throw new IllegalArgumentException("Wear amount must be positive.");
+            }
+            return this.store.applyWearToAll(amount);
+        } finally {
+            WEAR_ALL.record(start);
+        }
+    }
+
+    public int repairWhere(IntPredicate condition, int amount) {
+        long start = Metrics.start();
+        try {
+            if (amount <= 0) {
+                throw new IllegalArgumentException("Repair amount must be positive.");
+            }
+            return this.store.repairWhere(condition, amount);
+        } finally {
+            REPAIR_WHERE.record(start);
+        }
     }
 
     public Artifact findArtifactById(int id) {
         return this.store.findArtifactById(id);
     }
+
+    public List<Artifact> searchArtifacts(String query) {
+        return this.store.searchArtifacts(query);
+    }
+
+    // One page of matches, for callers that cannot hold every match at once
+    public Page<Artifact> searchArtifacts(String query, int offset, int limit) {
+        return this.store.searchArtifacts(query, offset, limit);
+    }
+
+    // Asynchronous variants: each runs on a virtual thread and completes on the FX thread
+
+    public CompletableFuture<Collection<Artifact>> findAllArtifactsAsync() {
+        return Async.supply(this::findAllArtifacts);
+    }
+
+    public CompletableFuture<Artifact> addArtifactAsync(String name, String description) {
+        return Async.supply(() -> addArtifact(name, description));
+    }
+
+    public CompletableFuture<Void> updateArtifactAsync(int id, long expectedVersion, String newName, String newDesc) {
+        return Async.run(() -> updateArtifact(id, expectedVersion, newName, newDesc));
+    }
+
+    public CompletableFuture<Void> deleteArtifactAsync(int id) {
+        return Async.run(() -> deleteArtifact(id));
+    }
+
+    public CompletableFuture<Integer> deleteArtifactsAsync(Collection<Integer> ids) {
+        return Async.supply(() -> deleteArtifacts(ids));
+    }
+
+    public CompletableFuture<Integer> deleteArtifactsWhereAsync(Predicate<Artifact> filter) {
+        return Async.supply(() -> deleteArtifactsWhere(filter));
+    }
+
+    public CompletableFuture<Void> repairArtifactAsync(int id, long expectedVersion, int repairAmount) {
+        return Async.run(() -> repairArtifact(id, expectedVersion, repairAmount));
+    }
+
+    public CompletableFuture<Integer> applyWearToAllAsync(int amount) {
+        return Async.supply(() -> applyWearToAll(amount));
+    }
+
+    public CompletableFuture<Integer> repairWhereAsync(IntPredicate condition, int amount) {
+        return Async.supply(() -> repairWhere(condition, amount));
+    }
+
+    public CompletableFuture<Artifact> findArtifactByIdAsync(int id) {
+        return Async.supply(() -> findArtifactById(id));
+    }
+
+    public CompletableFuture<List<Artifact>> searchArtifactsAsync(String query) {
+        return Async.supply(() -> searchArtifacts(query));
+    }
 }
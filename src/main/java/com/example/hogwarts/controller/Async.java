@@ -0,0 +1,42 @@
+package com.example.hogwarts.controller;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs controller calls for the *Async methods. Each call gets its own virtual thread, so a slow
+ * journal commit or a large query never holds up the FX thread, and the returned future is
+ * completed through Platform.runLater: callbacks a view chains onto it run on the FX thread and
+ * may update the scene graph directly.
+ */
+final class Async {
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("controller-", 0).factory());
+
+    private Async() {
+    }
+
+    static <T> CompletableFuture<T> supply(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                T value = work.get();
+                Platform.runLater(() -> result.complete(value));
+            } catch (Throwable error) {
+                Platform.runLater(() -> result.completeExceptionally(error));
+            }
+        });
+        return result;
+    }
+
+    static CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -18,6 +18,7 @@ public class DashboardController {
 
     public void handleLogout() {
         StackPane rootPane = (StackPane) this.dashboardView.getParent();
+        this.dashboardView.dispose(); // stop the tables listening for store changes
 
         // Clear the current user session
         DataStore.getInstance().setCurrentUser(null);
@@ -0,0 +1,65 @@
+package com.example.hogwarts.controller;
+
+import com.example.hogwarts.bulk.BulkExport;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.metrics.Metrics;
+import com.example.hogwarts.metrics.Timer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+
+public class ExportController {
+    private final DataStore store;
+    private static final Timer EXPORT = Metrics.timer("ExportController.export");
+
+    public ExportController() {
+        this(DataStore.getInstance());
+    }
+
+    public ExportController(DataStore store) {
+        this.store = store;
+    }
+
+    // A fresh exporter, so one export can be cancelled without affecting the next
+    public BulkExport newExport(LongConsumer progress) {
+        BulkExport export = new BulkExport(this.store);
+        export.setProgressListener(progress);
+        return export;
+    }
+
+    public BulkExport.Result export(BulkExport export, BulkExport.Entity entity, Path file, BulkExport.Filter filter)
+            throws IOException {
+        long start = Metrics.start();
+        try {
+            return export.export(entity, file, filter);
+        } finally {
+            EXPORT.record(start);
+        }
+    }
+
+    // Number of rows an unfiltered export of {@code entity} writes, for progress bars
+    public int count(BulkExport.Entity entity) {
+        return switch (entity) {
+            case WIZARDS -> this.store.wizardPages().count();
+            case ARTIFACTS -> this.store.artifactPages().count();
+            case TRANSFERS -> this.store.getTransferCount();
+        };
+    }
+
+    // Asynchronous variants: each runs on a virtual thread and completes on the FX thread
+
+    // Progress is still reported on the exporting thread
+    public CompletableFuture<BulkExport.Result> exportAsync(BulkExport export, BulkExport.Entity entity, Path file,
+                                                            BulkExport.Filter filter) {
+        return Async.supply(() -> {
+            try {
+                return export(export, entity, file, filter);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -4,9 +4,12 @@ import com.example.hogwarts.data.DataStore;
 import com.example.hogwarts.model.User;
 import com.example.hogwarts.view.DashboardView;
 import com.example.hogwarts.view.LoginView;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.util.concurrent.CompletableFuture;
+
 public class LoginController {
     private final LoginView loginView;
 
@@ -15,6 +18,21 @@ public class LoginController {
         this.loginView.setController(this);
     }
 
+    // Keeps login disabled until the data store has finished loading in the background
+    public void waitForData(CompletableFuture<?> loading) {
+        this.loginView.getLoginButton().setDisable(true);
+        this.loginView.getMessageLabel().setText("Loading data...");
+        loading.whenComplete((store, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                this.loginView.getMessageLabel().setText("Could not load data: " + cause.getMessage());
+            } else {
+                this.loginView.getLoginButton().setDisable(false);
+                this.loginView.getMessageLabel().setText("");
+            }
+        }));
+    }
+
     public void handleLogin(String username, String password) {
         User user = DataStore.getInstance().authenticate(username, password);
         if (user != null) { // User authenticated successfully
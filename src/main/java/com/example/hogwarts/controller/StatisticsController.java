@@ -0,0 +1,20 @@
+package com.example.hogwarts.controller;
+
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.Statistics;
+
+public class StatisticsController {
+    private final DataStore store;
+
+    public StatisticsController() {
+        this(DataStore.getInstance());
+    }
+
+    public StatisticsController(DataStore store) {
+        this.store = store;
+    }
+
+    public Statistics getStatistics() {
+        return this.store.getStatistics();
+    }
+}
@@ -1,23 +1,73 @@
 package com.example.hogwarts.controller;
 
 import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.Page;
 import com.example.hogwarts.model.Artifact;
 import com.example.hogwarts.model.Wizard;
 import com.example.hogwarts.model.Transfer;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class TransferController {
-    private final DataStore store = DataStore.getInstance();
+    private final DataStore store;
+
+    public TransferController() {
+        this(DataStore.getInstance());
+    }
+
+    public TransferController(DataStore store) {
+        this.store = store;
+    }
 
     public Collection<Transfer> findAllTransfersById(int id) {
-    	return this.store.findAllTransfersById(id);
+        return this.store.findAllTransfersById(id);
+    }
+
+    public Collection<Transfer> findTransfersByWizard(int wizardId) {
+        return this.store.findTransfersByWizard(wizardId);
+    }
+
+    // Null bounds are open; the range is [from, to)
+    public Page<Transfer> findTransfersBetween(Instant from, Instant to, int offset, int limit) {
+        return this.store.findTransfersBetween(from, to, offset, limit);
+    }
+
+    public Page<Transfer> findTransfersBetween(int artifactId, Instant from, Instant to, int offset, int limit) {
+        return this.store.findTransfersBetween(artifactId, from, to, offset, limit);
+    }
+
+    public Page<Transfer> findWizardTransfersBetween(int wizardId, Instant from, Instant to, int offset, int limit) {
+        return this.store.findWizardTransfersBetween(wizardId, from, to, offset, limit);
     }
 
     public Transfer addTransfer(String type, Artifact artifact, Wizard wizard) {
         Transfer transfer = new Transfer(type, artifact, wizard);
         return this.store.addTransfer(transfer);
     }
+
+    // Asynchronous variants: each runs on a virtual thread and completes on the FX thread
+
+    public CompletableFuture<Collection<Transfer>> findAllTransfersByIdAsync(int id) {
+        return Async.supply(() -> findAllTransfersById(id));
+    }
+
+    public CompletableFuture<Collection<Transfer>> findTransfersByWizardAsync(int wizardId) {
+        return Async.supply(() -> findTransfersByWizard(wizardId));
+    }
+
+    public CompletableFuture<Page<Transfer>> findTransfersBetweenAsync(Instant from, Instant to, int offset, int limit) {
+        return Async.supply(() -> findTransfersBetween(from, to, offset, limit));
+    }
+
+    public CompletableFuture<Page<Transfer>> findTransfersBetweenAsync(int artifactId, Instant from, Instant to, int offset, int limit) {
+        return Async.supply(() -> findTransfersBetween(artifactId, from, to, offset, limit));
+    }
+
+    public CompletableFuture<Transfer> addTransferAsync(String type, Artifact artifact, Wizard wizard) {
+        return Async.supply(() -> addTransfer(type, artifact, wizard));
+    }
 }
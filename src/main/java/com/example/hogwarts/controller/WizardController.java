@@ -1,70 +1,207 @@
 package com.example.hogwarts.controller;
 
 import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.Page;
+import com.example.hogwarts.data.PagedDataProvider;
+import com.example.hogwarts.metrics.Metrics;
+import com.example.hogwarts.metrics.Timer;
 import com.example.hogwarts.model.Artifact;
 import com.example.hogwarts.model.Wizard;
 import com.example.hogwarts.model.Transfer;
 
 import com.example.hogwarts.controller.TransferController;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class WizardController {
-    private final DataStore store = DataStore.getInstance();
-    private final TransferController transferController = new TransferController();
+    private final DataStore store;
+    private final TransferController transferController;
+    private static final Timer ASSIGN = Metrics.timer("WizardController.assignArtifactToWizard");
+    private static final Timer UNASSIGN = Metrics.timer("WizardController.unassignArtifactFromWizard");
+
+    // Outcome for one artifact of a bulk assign/unassign; error is null when it succeeded
+    public record AssignmentResult(Artifact artifact, String error) {
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+
+    public WizardController() {
+        this(DataStore.getInstance());
+    }
+
+    public WizardController(DataStore store) {
+        this.store = store;
+        this.transferController = new TransferController(store);
+    }
 
     public Collection<Wizard> findAllWizards() {
         return this.store.findAllWizards();
     }
 
+    public Wizard findWizardById(int id) {
+        return this.store.findWizardById(id);
+    }
+
+    public PagedDataProvider<Wizard> wizardPages() {
+        return this.store.wizardPages();
+    }
+
+    public List<Wizard> searchWizards(String query) {
+        return this.store.searchWizards(query);
+    }
+
+    // One page of matches, for callers that cannot hold every match at once
+    public Page<Wizard> searchWizards(String query, int offset, int limit) {
+        return this.store.searchWizards(query, offset, limit);
+    }
+
     public Wizard addWizard(String name) {
         Wizard wizard = new Wizard(name);
         return this.store.addWizard(wizard);
     }
 
     public void updateWizard(int id, String newName) {
-        Wizard wizard = this.store.findWizardById(id);
-        if(wizard == null) {
+        updateWizard(id, DataStore.ANY_VERSION, newName);
+    }
+
+    // Fails with StaleVersionException when the wizard has been renamed since expectedVersion was read
+    public void updateWizard(int id, long expectedVersion, String newName) {
+        if(!this.store.updateWizard(id, expectedVersion, newName)) {
             throw new IllegalArgumentException("Wizard with ID " + id + " not found.");
         }
-        wizard.setName(newName);
     }
 
     public void deleteWizard(int id) {
         this.store.deleteWizardById(id);
     }
 
+    // Deletes every listed wizard in one store operation; returns how many still existed
+    public int deleteWizards(Collection<Integer> ids) {
+        return this.store.deleteWizards(ids);
+    }
+
     public String assignArtifactToWizard(Artifact artifact, Wizard wizard) {
-        String blockReason = store.getAssignmentBlockReason(artifact.getId());
-        if (blockReason != null) {
-            return blockReason;
-        }
+        long start = Metrics.start();
+        try {
+            String blockReason = store.getAssignmentBlockReason(artifact.getId());
+            if (blockReason != null) {
+                return blockReason;
+            }
         
-        transferController.addTransfer("assign", artifact, wizard);
-        boolean success = store.assignArtifactToWizard(artifact.getId(), wizard.getId());
-        if (success) {
-            return null;
-        } else {
-            return "Assignment failed: Wizard or artifact not found.";
+            transferController.addTransfer("assign", artifact, wizard);
+            boolean success = store.assignArtifactToWizard(artifact.getId(), wizard.getId());
+            if (success) {
+                return null;
+            } else {
+                return "Assignment failed: Wizard or artifact not found.";
+            }
+        } finally {
+            ASSIGN.record(start);
         }
     }
     
     public boolean unassignArtifactFromWizard(Wizard wizard, Artifact artifact) {
-		transferController.addTransfer("unassign", artifact, wizard);
-    	return this.store.unassignArtifactFromWizard(wizard.getId(), artifact.getId());
+        long start = Metrics.start();
+        try {
+    		transferController.addTransfer("unassign", artifact, wizard);
+        	return this.store.unassignArtifactFromWizard(wizard.getId(), artifact.getId());
+        } finally {
+            UNASSIGN.record(start);
+        }
+    }
+
+    // Validates, records and applies every assignment in one pass with a single journal commit
+    public List<AssignmentResult> assignArtifactsToWizard(Collection<Artifact> artifacts, Wizard wizard) {
+        Map<Integer, String> failures = store.assignArtifactsToWizard(idsOf(artifacts), wizard.getId());
+        return toResults(artifacts, failures);
+    }
+
+    public List<AssignmentResult> unassignArtifacts(Collection<Artifact> artifacts, Wizard wizard) {
+        Map<Integer, String> failures = store.unassignArtifactsFromWizard(idsOf(artifacts), wizard.getId());
+        return toResults(artifacts, failures);
+    }
+
+    private static List<Integer> idsOf(Collection<Artifact> artifacts) {
+        List<Integer> ids = new ArrayList<>(artifacts.size());
+        for (Artifact artifact : artifacts) {
+            ids.add(artifact.getId());
+        }
+        return ids;
+    }
+
+    private static List<AssignmentResult> toResults(Collection<Artifact> artifacts, Map<Integer, String> failures) {
+        List<AssignmentResult> results = new ArrayList<>(artifacts.size());
+        for (Artifact artifact : artifacts) {
+            results.add(new AssignmentResult(artifact, failures.get(artifact.getId())));
+        }
+        return results;
     }
 
     public List<Artifact> getUnassignedArtifacts() {
-        return this.store.findAllArtifacts().stream()
-                .filter(a -> a.getOwner() == null)
-                .collect(Collectors.toList());
+        return this.store.findUnassignedArtifacts();
     }
     
+    public Page<Artifact> getUnassignedArtifacts(int offset, int limit) {
+        return this.store.findUnassignedArtifacts(offset, limit);
+    }
+
     public List<Artifact> getAssignedArtifacts(Wizard wizard) {
-    	return this.store.findAllArtifacts().stream()
-    			.filter(a -> a.getOwner() != null && a.getOwner().getId() == wizard.getId())
-    			.collect(Collectors.toList());
+        return this.store.findArtifactsByOwner(wizard.getId());
+    }
+
+    // Asynchronous variants: each runs on a virtual thread and completes on the FX thread
+
+    public CompletableFuture<Collection<Wizard>> findAllWizardsAsync() {
+        return Async.supply(this::findAllWizards);
+    }
+
+    public CompletableFuture<List<Wizard>> searchWizardsAsync(String query) {
+        return Async.supply(() -> searchWizards(query));
+    }
+
+    public CompletableFuture<Wizard> addWizardAsync(String name) {
+        return Async.supply(() -> addWizard(name));
+    }
+
+    public CompletableFuture<Void> updateWizardAsync(int id, long expectedVersion, String newName) {
+        return Async.run(() -> updateWizard(id, expectedVersion, newName));
+    }
+
+    public CompletableFuture<Void> deleteWizardAsync(int id) {
+        return Async.run(() -> deleteWizard(id));
+    }
+
+    public CompletableFuture<Integer> deleteWizardsAsync(Collection<Integer> ids) {
+        return Async.supply(() -> deleteWizards(ids));
+    }
+
+    // Completes with the reason the assignment was refused, or null when it succeeded
+    public CompletableFuture<String> assignArtifactToWizardAsync(Artifact artifact, Wizard wizard) {
+        return Async.supply(() -> assignArtifactToWizard(artifact, wizard));
+    }
+
+    public CompletableFuture<Boolean> unassignArtifactFromWizardAsync(Wizard wizard, Artifact artifact) {
+        return Async.supply(() -> unassignArtifactFromWizard(wizard, artifact));
+    }
+
+    public CompletableFuture<List<AssignmentResult>> assignArtifactsToWizardAsync(Collection<Artifact> artifacts, Wizard wizard) {
+        return Async.supply(() -> assignArtifactsToWizard(artifacts, wizard));
+    }
+
+    public CompletableFuture<List<AssignmentResult>> unassignArtifactsAsync(Collection<Artifact> artifacts, Wizard wizard) {
+        return Async.supply(() -> unassignArtifacts(artifacts, wizard));
+    }
+
+    public CompletableFuture<List<Artifact>> getUnassignedArtifactsAsync() {
+        return Async.supply(this::getUnassignedArtifacts);
+    }
+
+    public CompletableFuture<List<Artifact>> getAssignedArtifactsAsync(Wizard wizard) {
+        return Async.supply(() -> getAssignedArtifacts(wizard));
     }
 }
@@ -0,0 +1,14 @@
+package com.example.hogwarts.data;
+
+/**
+ * One change to the DataStore, published once the mutation has been applied. Views only get IDs and
+ * re-read the entity, so a burst of changes to one ID can be coalesced into a single row update.
+ */
+public record ChangeEvent(Entity entity, Kind kind, int id) {
+    // ID of an UPDATED event that covers every entity of its type, sent after bulk changes and imports
+    public static final int ALL = 0;
+
+    public enum Entity { WIZARD, ARTIFACT, TRANSFER }
+
+    public enum Kind { ADDED, UPDATED, REMOVED }
+}
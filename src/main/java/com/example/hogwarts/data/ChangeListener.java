@@ -0,0 +1,7 @@
+package com.example.hogwarts.data;
+
+// Called on the mutating thread, so implementations should hand the event off rather than block
+@FunctionalInterface
+public interface ChangeListener {
+    void changed(ChangeEvent event);
+}
@@ -0,0 +1,154 @@
+package com.example.hogwarts.data;
+
+import com.example.hogwarts.model.ConditionStorage;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Artifact conditions in one dense byte array indexed by artifact ID, so a maintenance pass over
+ * every artifact streams through a few megabytes instead of visiting millions of objects.
+ *
+ * Conditions only range over 0..100, so any bulk change is a 101-entry lookup table from old to new
+ * condition; {@link #remap} applies one to every slot, splitting large arrays across the common
+ * fork/join pool. Single updates take the read lock (two updates of one artifact are already
+ * serialised by the artifact), bulk passes and growth take the write lock. Reads take no lock.
+ *
+ * A count of artifacts per condition value is kept alongside, so the dashboard histogram never
+ * scans the array; a bulk pass moves whole counts through the same table.
+ */
+final class ConditionStore implements ConditionStorage {
+    static final int MAX_CONDITION = 100;
+    private static final byte ABSENT = -1;
+    private static final int PARALLEL_CHUNK = 1 << 16; // below this, a pass is faster on one thread
+
+    private volatile byte[] conditions = filled(new byte[1024]);
+    private final AtomicIntegerArray countByCondition = new AtomicIntegerArray(MAX_CONDITION + 1);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long epoch; // remap passes that changed something
+
+    // The table for a change applied to every condition, clamped to 0..100
+    static byte[] table(IntUnaryOperator change) {
+        byte[] table = new byte[MAX_CONDITION + 1];
+        for (int condition = 0; condition <= MAX_CONDITION; condition++) {
+            table[condition] = (byte) Math.max(0, Math.min(MAX_CONDITION, change.applyAsInt(condition)));
+        }
+        return table;
+    }
+
+    @Override
+    public int get(int id) {
+        byte[] values = conditions;
+        return id >= 0 && id < values.length ? values[id] : ABSENT;
+    }
+
+    @Override
+    public void update(int id, IntUnaryOperator update) {
+        lock.readLock().lock();
+        try {
+            byte[] values = conditions;
+            byte previous = values[id];
+            byte next = (byte) update.applyAsInt(previous);
+            values[id] = next;
+            if (previous != next) {
+                countByCondition.decrementAndGet(previous);
+                countByCondition.incrementAndGet(next);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(int id, int condition) {
+        lock.writeLock().lock();
+        try {
+            if (id >= conditions.length) {
+                int capacity = Math.max(conditions.length * 2, id + 1);
+                byte[] grown = Arrays.copyOf(conditions, capacity);
+                Arrays.fill(grown, conditions.length, capacity, ABSENT);
+                conditions = grown;
+            }
+            if (conditions[id] >= 0) countByCondition.decrementAndGet(conditions[id]);
+            conditions[id] = (byte) condition;
+            countByCondition.incrementAndGet(condition);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (id < conditions.length && conditions[id] >= 0) {
+                countByCondition.decrementAndGet(conditions[id]);
+                conditions[id] = ABSENT;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Maps every stored condition through {@code table}, moving to the next epoch if any changed; returns how many changed
+    int remap(byte[] table) {
+        lock.writeLock().lock();
+        try {
+            byte[] values = conditions;
+            int chunks = (values.length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+            int changed = chunks == 1 ? remap(values, table, 0, values.length)
+                    : IntStream.range(0, chunks).parallel()
+                            .map(chunk -> remap(values, table, chunk * PARALLEL_CHUNK,
+                                    Math.min(values.length, (chunk + 1) * PARALLEL_CHUNK)))
+                            .sum();
+
+            int[] counts = countByCondition();
+            for (int condition = 0; condition <= MAX_CONDITION; condition++) {
+                countByCondition.set(condition, 0);
+            }
+            for (int condition = 0; condition <= MAX_CONDITION; condition++) {
+                countByCondition.addAndGet(table[condition], counts[condition]);
+            }
+            if (changed > 0) epoch++;
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long epoch() {
+        return epoch;
+    }
+
+    // Number of stored artifacts at each condition 0..100
+    int[] countByCondition() {
+        int[] counts = new int[MAX_CONDITION + 1];
+        for (int condition = 0; condition <= MAX_CONDITION; condition++) {
+            counts[condition] = countByCondition.get(condition);
+        }
+        return counts;
+    }
+
+    private static int remap(byte[] values, byte[] table, int from, int to) {
+        int changed = 0;
+        for (int i = from; i < to; i++) {
+            byte current = values[i];
+            if (current < 0) continue;
+            byte next = table[current];
+            if (next != current) {
+                values[i] = next;
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private static byte[] filled(byte[] values) {
+        Arrays.fill(values, ABSENT);
+        return values;
+    }
+}
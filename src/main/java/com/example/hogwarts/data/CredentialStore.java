@@ -0,0 +1,94 @@
+package com.example.hogwarts.data;
+
+import com.example.hogwarts.model.Role;
+import com.example.hogwarts.model.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User accounts keyed by username, with salted {@link PasswordHash}es instead of plaintext.
+ *
+ * A successful login also records a verified session: an HMAC of the username and password under
+ * a key that never leaves this process. A repeat login within the session lifetime is checked
+ * against that HMAC, which costs microseconds instead of a full PBKDF2 derivation. Any mismatch
+ * falls back to the full check, and changing an account drops its session.
+ */
+final class CredentialStore {
+    private record Account(User user, PasswordHash hash) { }
+    private record Session(byte[] token, long expiresAt) { }
+
+    // Checked for unknown users so they take as long as wrong passwords; derived on the first one
+    private static final class Decoy {
+        static final PasswordHash HASH = PasswordHash.create("", PasswordHash.DEFAULT_ITERATIONS);
+    }
+
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long sessionNanos;
+    private final SecretKeySpec sessionKey;
+    private final ThreadLocal<Mac> macs;
+
+    CredentialStore(long sessionLifetime, TimeUnit unit) {
+        this.sessionNanos = unit.toNanos(sessionLifetime);
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.sessionKey = new SecretKeySpec(key, "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(this.sessionKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    // Adds or replaces an account
+    User put(String username, PasswordHash hash, Role role) {
+        User user = new User(username, role);
+        this.accounts.put(username, new Account(user, hash));
+        this.sessions.remove(username);
+        return user;
+    }
+
+    User authenticate(String username, String password) {
+        if (username == null || password == null) return null;
+        Account account = this.accounts.get(username);
+        if (account == null) {
+            Decoy.HASH.matches(password);
+            return null;
+        }
+
+        byte[] token = token(username, password);
+        Session session = this.sessions.get(username);
+        long now = System.nanoTime();
+        if (session != null && now - session.expiresAt() < 0 && MessageDigest.isEqual(session.token(), token)) {
+            return account.user();
+        }
+
+        if (!account.hash().matches(password)) return null;
+        this.sessions.put(username, new Session(token, now + this.sessionNanos));
+        if (this.accounts.get(username) != account) {
+            this.sessions.remove(username); // replaced while we were hashing; the old password must not stick
+        }
+        return account.user();
+    }
+
+    private byte[] token(String username, String password) {
+        Mac mac = this.macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,40 +1,255 @@
 package com.example.hogwarts.data;
 
+import com.example.hogwarts.metrics.Counter;
+import com.example.hogwarts.metrics.Metrics;
+import com.example.hogwarts.metrics.Timer;
 import com.example.hogwarts.model.Artifact;
+import com.example.hogwarts.model.OwnershipListener;
 import com.example.hogwarts.model.Wizard;
 import com.example.hogwarts.model.Role;
 import com.example.hogwarts.model.User;
 import com.example.hogwarts.model.Transfer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * TODO: Make this a thread-safe singleton
- * TODO: Use atomic integers for ID generation to avoid race conditions
+ * Thread-safe singleton holding all application data.
+ * Entities live in concurrent maps and IDs come from atomic counters. Ownership changes
+ * are guarded by a lock striped on the artifact ID, so assignments of different artifacts
+ * run in parallel instead of queueing behind one global lock.
+ *
+ * Every mutation is appended to a {@link Journal} before the call returns. A {@link Snapshot} is
+ * written periodically and on close; startup maps the latest snapshot and replays only the
+ * journal segments written after it. Sample data is only seeded when there is nothing to restore.
+ *
+ * Applied mutations are announced as {@link ChangeEvent}s, so views can update the affected rows
+ * instead of reloading every entity.
+ *
+ * Each applied mutation also replaces the {@link ReadSnapshot}, an immutable view of wizards,
+ * artifacts and ownership, in the same critical section. Readers that need a consistent picture
+ * of the whole catalogue (exports, reports) take that instead of iterating the live maps.
  */
 public class DataStore {
-    private static DataStore instance; // Singleton instance
+    // Expected version for an update that applies whatever the current version is
+    public static final long ANY_VERSION = -1;
 
-    private final List<User> users = new ArrayList<>();
-    private final Map<Integer, Wizard> wizards = new HashMap<>();
-    private final Map<Integer, Artifact> artifacts = new HashMap<>();
-    private final Map<Integer, Transfer> transfers = new HashMap<>();
+    private static final int LOCK_STRIPES = 64; // must be a power of two
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String LOCK_FILE = "lock";
+    private static final int STATISTICS_DAYS = 7; // transfers per day covers the last week
+    private static final int TRANSFER_SCAN_BATCH = 4096; // rows read per lock hold by iterateTransfers
+    private static final Pattern JOURNAL_SEGMENT = Pattern.compile("journal-(\\d+)\\.log");
+    private static final Timer SNAPSHOT = Metrics.timer("DataStore.snapshot");
+    private static final Timer AUTHENTICATE = Metrics.timer("DataStore.authenticate");
+    private static final Timer ADD_TRANSFER = Metrics.timer("DataStore.addTransfer");
+    private static final Timer FIND_ARTIFACT_TRANSFERS = Metrics.timer("DataStore.findAllTransfersById");
+    private static final Timer FIND_WIZARD_TRANSFERS = Metrics.timer("DataStore.findTransfersByWizard");
+    private static final Timer FIND_TRANSFERS_BETWEEN = Metrics.timer("DataStore.findTransfersBetween");
+    private static final Timer FIND_ARTIFACT_TRANSFERS_BETWEEN = Metrics.timer("DataStore.findTransfersBetween(artifact)");
+    private static final Timer FIND_WIZARD_TRANSFERS_BETWEEN = Metrics.timer("DataStore.findWizardTransfersBetween");
+    private static final Timer GET_STATISTICS = Metrics.timer("DataStore.getStatistics");
+    private static final Timer ADD_WIZARD = Metrics.timer("DataStore.addWizard");
+    private static final Timer UPDATE_WIZARD = Metrics.timer("DataStore.updateWizard");
+    private static final Timer DELETE_WIZARD = Metrics.timer("DataStore.deleteWizardById");
+    private static final Timer DELETE_WIZARDS = Metrics.timer("DataStore.deleteWizards");
+    private static final Timer SEARCH_WIZARDS = Metrics.timer("DataStore.searchWizards");
+    private static final Timer ADD_ARTIFACT = Metrics.timer("DataStore.addArtifact");
+    private static final Timer UPDATE_ARTIFACT = Metrics.timer("DataStore.updateArtifact");
+    private static final Timer REPAIR_ARTIFACT = Metrics.timer("DataStore.repairArtifact");
+    private static final Timer SET_CONDITION = Metrics.timer("DataStore.setArtifactCondition");
+    private static final Timer WEAR_ALL = Metrics.timer("DataStore.applyWearToAll");
+    private static final Timer REPAIR_WHERE = Metrics.timer("DataStore.repairWhere");
+    private static final Timer DELETE_ARTIFACT = Metrics.timer("DataStore.deleteArtifactById");
+    private static final Timer DELETE_ARTIFACTS = Metrics.timer("DataStore.deleteArtifacts");
+    private static final Timer NAME_CLEANUP = Metrics.timer("DataStore.nameIndexCleanup");
+    private static final Timer SEARCH_ARTIFACTS = Metrics.timer("DataStore.searchArtifacts");
+    private static final Timer FIND_UNASSIGNED = Metrics.timer("DataStore.findUnassignedArtifacts");
+    private static final Timer FIND_BY_OWNER = Metrics.timer("DataStore.findArtifactsByOwner");
+    private static final Timer ASSIGN = Metrics.timer("DataStore.assignArtifactToWizard");
+    private static final Timer ASSIGN_BATCH = Metrics.timer("DataStore.assignArtifactsToWizard");
+    private static final Timer UNASSIGN_BATCH = Metrics.timer("DataStore.unassignArtifactsFromWizard");
+    private static final Timer UNASSIGN = Metrics.timer("DataStore.unassignArtifactFromWizard");
+    private static final Timer IMPORT_WIZARDS = Metrics.timer("DataStore.importWizards");
+    private static final Timer IMPORT_ARTIFACTS = Metrics.timer("DataStore.importArtifacts");
+    private static final Timer IMPORT_TRANSFERS = Metrics.timer("DataStore.importTransfers");
+    private static final Timer JOURNAL_COMMIT = Metrics.timer("DataStore.journalCommit");
+    private static final Timer COPY_READ_SNAPSHOT = Metrics.timer("DataStore.copyReadSnapshot");
+    private static final Counter CHANGE_EVENTS = Metrics.counter("DataStore.changeEvents");
+    private static final Counter STALE_WRITES = Metrics.counter("DataStore.staleWrites");
 
-    private int wizardIdCounter = 1; // Wizard ID generator
-    private int artifactIdCounter = 1; // Artifact ID generator
-    private int transferIdCounter = 1;
+    private final CredentialStore credentials =
+            new CredentialStore(Long.getLong("hogwarts.auth.session.minutes", 15), TimeUnit.MINUTES);
+    private final Map<Integer, Wizard> wizards = new ConcurrentHashMap<>();
+    private final Map<Integer, Artifact> artifacts = new ConcurrentHashMap<>();
+    private final TransferLog transferLog = new TransferLog();
+    // deleted entities, kept so transfer history can still show them
+    private final Map<Integer, Wizard> retiredWizards = new ConcurrentHashMap<>();
+    private final Map<Integer, Artifact> retiredArtifacts = new ConcurrentHashMap<>();
+    // ownership index: unassigned artifacts and owner ID -> owned artifacts, both ordered by artifact ID
+    private final NavigableMap<Integer, Artifact> unassignedArtifacts = new ConcurrentSkipListMap<>();
+    private final AtomicInteger unassignedCount = new AtomicInteger(); // skip list size() is a full walk
+    private final Map<Integer, NavigableMap<Integer, Artifact>> artifactsByOwner = new ConcurrentHashMap<>();
+    private final OwnershipListener ownershipIndexer = this::onOwnerChanged;
+    // conditions of live artifacts, by artifact ID
+    private final ConditionStore conditions = new ConditionStore();
+    // the latest point-in-time view for readers; swapped by compare-and-set, so writers never wait for readers
+    private final AtomicReference<ReadSnapshot> readSnapshot = new AtomicReference<>(ReadSnapshot.EMPTY);
+    private boolean restoring; // the read snapshot is built once after loading instead of once per entity
 
-    private User currentUser; // Currently authenticated user
+    private final TrigramIndex wizardNames = new TrigramIndex();
+    private final TrigramIndex artifactNames = new TrigramIndex();
+    // live IDs in order, for views that page through the catalogue instead of loading it
+    private final EntityPages<Wizard> wizardPages = new EntityPages<>(wizards);
+    private final EntityPages<Artifact> artifactPages = new EntityPages<>(artifacts);
+    // drops bulk-deleted names from the name indexes after the delete has returned; one thread keeps them in order
+    private final ExecutorService nameCleanup = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("datastore-cleanup").factory());
+    private CompletableFuture<Void> pendingCleanup = CompletableFuture.completedFuture(null); // guarded by nameCleanup
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
-    private DataStore() {
-        // Hardcoded users
-        this.users.add(new User("admin", "123", Role.ADMIN));
-        this.users.add(new User("user", "123", Role.USER));
+    private final AtomicInteger wizardIdCounter = new AtomicInteger(1); // Wizard ID generator
+    private final AtomicInteger artifactIdCounter = new AtomicInteger(1); // Artifact ID generator
+    private final AtomicInteger transferIdCounter = new AtomicInteger(1);
 
+    private final Lock[] artifactLocks = new Lock[LOCK_STRIPES];
+    private final Lock[] wizardLocks = new Lock[LOCK_STRIPES];
+    // mutations hold the read side; snapshots take the write side to get a consistent cut
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+
+    private final Path dataDirectory; // null for in-memory stores
+    private final FileChannel directoryLock; // holds an exclusive lock on LOCK_FILE until close
+    private volatile Journal journal;
+    private long journalGeneration; // segment currently appended to; changes under the checkpoint write lock
+    private final AtomicLong entriesSinceSnapshot = new AtomicLong();
+    private final Object snapshotMonitor = new Object();
+    private final ScheduledExecutorService snapshotScheduler;
+    private int replayedEntries; // only touched while restoring
+
+    private volatile User currentUser; // Currently authenticated user
+
+    private DataStore(boolean seedIfEmpty) {
+        this(dataDirectory(), Journal.SyncMode.valueOf(System.getProperty("hogwarts.journal.sync", "GROUP")), seedIfEmpty);
+    }
+
+    private DataStore(Path dataDirectory, Journal.SyncMode syncMode, boolean seedIfEmpty) {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.artifactLocks[i] = new ReentrantLock();
+            this.wizardLocks[i] = new ReentrantLock();
+        }
+
+        this.dataDirectory = dataDirectory;
+        if (dataDirectory == null) {
+            this.directoryLock = null;
+            this.snapshotScheduler = null;
+            return;
+        }
+
+        // Hardcoded users; in-memory stores skip them, as each costs a full PBKDF2 derivation
+        addUser("admin", "123", Role.ADMIN);
+        addUser("user", "123", Role.USER);
+
+        this.directoryLock = lockDirectory(dataDirectory);
+        boolean restored;
+        this.restoring = true;
+        try {
+            restored = restore(syncMode);
+        } catch (IOException e) {
+            closeQuietly(this.directoryLock);
+            throw new UncheckedIOException("Cannot load data from " + dataDirectory, e);
+        } catch (RuntimeException e) {
+            closeQuietly(this.directoryLock);
+            throw e;
+        } finally {
+            this.restoring = false;
+        }
+        this.readSnapshot.set(buildReadSnapshot());
+        if (!restored && seedIfEmpty) {
+            seedSampleData();
+        }
+
+        long interval = Long.getLong("hogwarts.snapshot.interval.minutes", 5);
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("datastore-snapshot").factory());
+        this.snapshotScheduler.scheduleWithFixedDelay(this::snapshotIfChanged, interval, interval, TimeUnit.MINUTES);
+        if (Metrics.ENABLED) {
+            long dumpSeconds = Long.getLong("hogwarts.metrics.dump.seconds", 60);
+            this.snapshotScheduler.scheduleWithFixedDelay(this::dumpMetrics, dumpSeconds, dumpSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    static Path dataDirectory() {
+        return Path.of(System.getProperty("hogwarts.data.dir", "hogwarts-data"));
+    }
+
+    // Two processes replaying and appending to the same journal would corrupt it, so only one may open a directory
+    private static FileChannel lockDirectory(Path dataDirectory) {
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(dataDirectory);
+            channel = FileChannel.open(dataDirectory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.tryLock() == null) {
+                throw new IllegalStateException("Data directory is in use by another process: " + dataDirectory);
+            }
+            return channel;
+        } catch (OverlappingFileLockException e) {
+            closeQuietly(channel);
+            throw new IllegalStateException("Data directory is already open in this process: " + dataDirectory, e);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("Cannot lock data directory " + dataDirectory, e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close(); // also releases its lock
+        } catch (IOException e) {
+            // nothing left to release
+        }
+    }
+
+    private void seedSampleData() {
         // Sample data was AI generated
         Wizard w1 = new Wizard("Harry Potter");
         Wizard w2 = new Wizard("Hermione Granger");
@@ -70,16 +285,16 @@ public class DataStore {
         this.addArtifact(a9);
         this.addArtifact(a10);
 
-        a1.setCondition(100); // Perfect condition
-        a2.setCondition(85);  // Good condition
-        a3.setCondition(70);  // Fair condition
-        a4.setCondition(45);  // Poor condition
-        a5.setCondition(25);  // Very poor condition
-        a6.setCondition(90);  // Excellent condition
-        a7.setCondition(60);  // Fair condition
-        a8.setCondition(30);  // Poor condition
-        a9.setCondition(5);   // Critical condition (cannot be assigned)
-        a10.setCondition(8);  // Critical condition (cannot be assigned)
+        this.setArtifactCondition(a1.getId(), 100); // Perfect condition
+        this.setArtifactCondition(a2.getId(), 85);  // Good condition
+        this.setArtifactCondition(a3.getId(), 70);  // Fair condition
+        this.setArtifactCondition(a4.getId(), 45);  // Poor condition
+        this.setArtifactCondition(a5.getId(), 25);  // Very poor condition
+        this.setArtifactCondition(a6.getId(), 90);  // Excellent condition
+        this.setArtifactCondition(a7.getId(), 60);  // Fair condition
+        this.setArtifactCondition(a8.getId(), 30);  // Poor condition
+        this.setArtifactCondition(a9.getId(), 5);   // Critical condition (cannot be assigned)
+        this.setArtifactCondition(a10.getId(), 8);  // Critical condition (cannot be assigned)
 
         this.assignArtifactToWizard(a1.getId(), w1.getId()); // Harry gets Invisibility Cloak
         this.assignArtifactToWizard(a2.getId(), w2.getId()); // Hermione gets Time-Turner
@@ -89,55 +304,883 @@ public class DataStore {
         
         // Reset conditions after assignment to show proper initial state
         // (compensate for the -5 wear from assignment)
-        a1.setCondition(100);
-        a2.setCondition(85);
-        a4.setCondition(45);
-        a6.setCondition(90);
-        a7.setCondition(60);
+        this.setArtifactCondition(a1.getId(), 100);
+        this.setArtifactCondition(a2.getId(), 85);
+        this.setArtifactCondition(a4.getId(), 45);
+        this.setArtifactCondition(a6.getId(), 90);
+        this.setArtifactCondition(a7.getId(), 60);
+    }
+
+    // Lazy holder idiom: the JVM guarantees the instance is created exactly once
+    private static class Holder {
+        private static final DataStore INSTANCE = new DataStore(true);
     }
 
     public static DataStore getInstance() {
-        if (instance == null) {
-            instance = new DataStore();
+        return Holder.INSTANCE;
+    }
+
+    // Empty store without persistence, sample data or user accounts, for tools and benchmarks that need isolation
+    public static DataStore inMemory() {
+        return new DataStore(null, null, false);
+    }
+
+    /**
+     * A store on the configured data directory that, unlike {@link #getInstance()}, leaves an
+     * empty directory empty, for headless tools. Fails if another store has the directory open.
+     */
+    public static DataStore openWithoutSampleData() {
+        return new DataStore(false);
+    }
+
+    // Loads the store on a background thread so the UI can show while the snapshot is mapped
+    public static CompletableFuture<DataStore> preload() {
+        return CompletableFuture.supplyAsync(DataStore::getInstance);
+    }
+
+    private Lock lockFor(int artifactId) {
+        return this.artifactLocks[artifactId & (LOCK_STRIPES - 1)];
+    }
+
+    private Lock wizardLockFor(int wizardId) {
+        return this.wizardLocks[wizardId & (LOCK_STRIPES - 1)];
+    }
+
+    // Snapshots outstanding changes, then flushes and closes the journal; call once on application shutdown
+    public void close() {
+        if (this.journal == null) return; // in-memory
+        this.snapshotScheduler.shutdownNow();
+        snapshotIfChanged();
+        dumpMetrics();
+        try {
+            this.journal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close journal", e);
+        } finally {
+            closeQuietly(this.directoryLock);
+        }
+    }
+
+    /*
+     * Runs one mutation: applies it under the entity lock (if any) while holding off snapshots,
+     * appends its journal entry in the same critical section so file order matches apply order,
+     * then waits for durability after releasing the locks so concurrent writers share one fsync.
+     * Returns false, journaling nothing, when the mutation did not apply.
+     */
+    private boolean mutate(Lock entityLock, BooleanSupplier apply, Supplier<Journal.Entry> entry) {
+        return mutate(null, entityLock, apply, entry);
+    }
+
+    // Two entity locks, taken outer first: ownership changes lock the wizard's stripe, then the artifact's
+    private boolean mutate(Lock outerLock, Lock entityLock, BooleanSupplier apply, Supplier<Journal.Entry> entry) {
+        long sequence;
+        Lock checkpoint = this.checkpointLock.readLock();
+        checkpoint.lock();
+        try {
+            if (outerLock != null) outerLock.lock();
+            try {
+                if (entityLock != null) entityLock.lock();
+                try {
+                    if (!apply.getAsBoolean()) return false;
+                    sequence = log(entry.get());
+                } finally {
+                    if (entityLock != null) entityLock.unlock();
+                }
+            } finally {
+                if (outerLock != null) outerLock.unlock();
+            }
+        } finally {
+            checkpoint.unlock();
+        }
+        commit(sequence);
+        return true;
+    }
+
+    private long log(Journal.Entry entry) {
+        Journal current = this.journal;
+        if (current == null) return 0; // still restoring
+        this.entriesSinceSnapshot.incrementAndGet();
+        return current.append(entry);
+    }
+
+    private void commit(long sequence) {
+        long start = Metrics.start();
+        try {
+            if (sequence > 0) {
+                this.journal.awaitDurable(sequence);
+            }
+        } finally {
+            JOURNAL_COMMIT.record(start);
+        }
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        this.changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        this.changeListeners.remove(listener);
+    }
+
+    private void publish(ChangeEvent.Entity entity, ChangeEvent.Kind kind, int id) {
+        CHANGE_EVENTS.increment();
+        if (this.changeListeners.isEmpty()) return;
+        ChangeEvent event = new ChangeEvent(entity, kind, id);
+        for (ChangeListener listener : this.changeListeners) {
+            listener.changed(event);
+        }
+    }
+
+    /**
+     * The catalogue as of the last applied change: every live wizard and artifact, with conditions
+     * and ownership, frozen. Taking one is a single read and holds nothing up; it stays valid and
+     * unchanged for as long as the caller keeps it.
+     */
+    public ReadSnapshot readSnapshot() {
+        return this.readSnapshot.get();
+    }
+
+    /*
+     * The same view built by copying every live entity while all writers are paused: the
+     * stop-the-world approach readSnapshot() replaces. Kept to check the maintained view against
+     * and to compare the two in benchmarks; it costs time proportional to the catalogue.
+     */
+    public ReadSnapshot copyReadSnapshot() {
+        long start = Metrics.start();
+        Lock checkpoint = this.checkpointLock.writeLock();
+        checkpoint.lock();
+        try {
+            return buildReadSnapshot();
+        } finally {
+            checkpoint.unlock();
+            COPY_READ_SNAPSHOT.record(start);
+        }
+    }
+
+    // caller holds the checkpoint write lock or is still constructing the store
+    private ReadSnapshot buildReadSnapshot() {
+        ReadSnapshot.Editor view = ReadSnapshot.empty(this.conditions.epoch()).edit();
+        for (Wizard wizard : this.wizards.values()) {
+            view.putWizard(wizard.getId(), wizard.getName(), wizard.getVersion());
+        }
+        for (Artifact artifact : this.artifacts.values()) {
+            Wizard owner = artifact.getOwner();
+            view.putArtifact(artifact.getId(), artifact.getName(), artifact.getDescription(), artifact.getCondition(),
+                    owner == null ? 0 : owner.getId(), artifact.getVersion());
+        }
+        return view.build();
+    }
+
+    /*
+     * Bring the read snapshot up to date with one entity. Callers hold that entity's stripe lock
+     * (or every artifact stripe), so changes to one entity reach the snapshot in the order they
+     * were applied; changes to different entities commute and just retry the compare-and-set.
+     */
+    private void publishWizard(Wizard wizard) {
+        if (this.restoring) return;
+        int id = wizard.getId();
+        String name = wizard.getName();
+        long version = wizard.getVersion();
+        this.readSnapshot.updateAndGet(view -> view.withWizard(id, name, version));
+    }
+
+    private void publishArtifact(Artifact artifact) {
+        if (this.restoring) return;
+        int id = artifact.getId();
+        String name = artifact.getName();
+        String description = artifact.getDescription();
+        int condition = artifact.getCondition();
+        Wizard owner = artifact.getOwner();
+        int ownerId = owner == null ? 0 : owner.getId();
+        long version = artifact.getVersion();
+        this.readSnapshot.updateAndGet(view -> view.withArtifact(id, name, description, condition, ownerId, version));
+    }
+
+    private void retractArtifact(int id) {
+        if (this.restoring) return;
+        this.readSnapshot.updateAndGet(view -> view.withoutArtifact(id));
+    }
+
+    private static void advancePast(AtomicInteger counter, int id) {
+        counter.accumulateAndGet(id + 1, Math::max);
+    }
+
+    // Persistence
+
+    private Path journalFile(long generation) {
+        return this.dataDirectory.resolve(String.format("journal-%08d.log", generation));
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (var files = Files.list(this.dataDirectory)) {
+            files.forEach(file -> {
+                Matcher matcher = JOURNAL_SEGMENT.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    // Maps the latest snapshot, replays the journal segments written after it and opens the newest
+    // segment for appending. Returns false when there was nothing to restore.
+    private boolean restore(Journal.SyncMode syncMode) throws IOException {
+        Files.createDirectories(this.dataDirectory);
+        Path snapshotFile = this.dataDirectory.resolve(SNAPSHOT_FILE);
+        boolean hasSnapshot = Files.exists(snapshotFile);
+        long active;
+        this.transferLog.startLoading(); // history is indexed once at the end, not row by row
+        try {
+            if (hasSnapshot) {
+                Snapshot.read(snapshotFile, new SnapshotLoader());
+            }
+
+            active = this.journalGeneration;
+            for (long generation : journalGenerations()) {
+                if (generation < this.journalGeneration) {
+                    Files.deleteIfExists(journalFile(generation)); // left over from a crash after the snapshot was written
+                } else if (generation > active) {
+                    if (Files.exists(journalFile(active))) {
+                        Journal.replay(journalFile(active), this::replay);
+                    }
+                    active = generation;
+                }
+            }
+            this.journal = Journal.open(journalFile(active), syncMode, this::replay);
+        } finally {
+            this.transferLog.finishLoading();
+        }
+        this.journalGeneration = active;
+        this.entriesSinceSnapshot.set(this.replayedEntries);
+        return hasSnapshot || this.replayedEntries > 0;
+    }
+
+    // Rewrites metrics.txt in the data directory; a failed dump is retried on the next tick
+    private void dumpMetrics() {
+        if (!Metrics.ENABLED) return;
+        try {
+            Metrics.writeReport(this.dataDirectory.resolve("metrics.txt"));
+        } catch (IOException e) {
+            // metrics are best-effort and must never take the store down
+        }
+    }
+
+    private void snapshotIfChanged() {
+        if (this.entriesSinceSnapshot.get() > 0) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Writes a snapshot and deletes the journal segments it covers. Writers are paused only while
+     * the cut is taken and the journal rolls over to a new segment, not while the rows are written.
+     */
+    public void snapshot() {
+        long start = Metrics.start();
+        try {
+            if (this.journal == null) return; // in-memory
+            synchronized (this.snapshotMonitor) {
+                SnapshotCut cut;
+                Lock checkpoint = this.checkpointLock.writeLock();
+                checkpoint.lock();
+                try {
+                    long next = this.journalGeneration + 1;
+                    cut = captureCut(next);
+                    this.journal = this.journal.rollOver(journalFile(next));
+                    this.journalGeneration = next;
+                    this.entriesSinceSnapshot.set(0);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot roll over journal", e);
+                } finally {
+                    checkpoint.unlock();
+                }
+
+                try {
+                    Snapshot.write(this.dataDirectory.resolve(SNAPSHOT_FILE), contentsOf(cut));
+                    for (long generation : journalGenerations()) {
+                        if (generation < cut.generation()) {
+                            Files.deleteIfExists(journalFile(generation));
+                        }
+                    }
+                } catch (IOException e) {
+                    // the older segments are kept, so a restart still replays everything
+                    throw new UncheckedIOException("Cannot write snapshot", e);
+                }
+            }
+        } finally {
+            SNAPSHOT.record(start);
+        }
+    }
+
+    // What a snapshot covers, fixed while writers are paused; its rows are read afterwards
+    private record SnapshotCut(long generation, int nextWizardId, int nextArtifactId, int nextTransferId,
+                               int transferCount, ReadSnapshot view, List<Wizard> retiredWizards,
+                               List<Artifact> retiredArtifacts) { }
+
+    /*
+     * Caller holds the checkpoint write lock. Only references are taken: the frozen read view
+     * already holds every live entity, and transfer slots below the ID counter are never
+     * rewritten, so no rows need copying before writers resume.
+     */
+    private SnapshotCut captureCut(long generation) {
+        return new SnapshotCut(generation, this.wizardIdCounter.get(), this.artifactIdCounter.get(),
+                this.transferIdCounter.get(), this.transferLog.size(), this.readSnapshot.get(),
+                new ArrayList<>(this.retiredWizards.values()), new ArrayList<>(this.retiredArtifacts.values()));
+    }
+
+    // Rows of a cut, produced as the snapshot file is written
+    private Snapshot.Contents contentsOf(SnapshotCut cut) {
+        // deleted entities are only worth keeping while history still refers to them
+        List<Snapshot.WizardRow> retiredWizardRows = new ArrayList<>();
+        for (Wizard wizard : cut.retiredWizards()) {
+            if (this.transferLog.referencesWizard(wizard.getId())) {
+                retiredWizardRows.add(new Snapshot.WizardRow(wizard.getId(), false, wizard.getName()));
+            }
+        }
+        List<Snapshot.ArtifactRow> retiredArtifactRows = new ArrayList<>();
+        for (Artifact artifact : cut.retiredArtifacts()) {
+            if (this.transferLog.referencesArtifact(artifact.getId())) {
+                retiredArtifactRows.add(new Snapshot.ArtifactRow(artifact.getId(), false, artifact.getCondition(), 0,
+                        artifact.getName(), artifact.getDescription()));
+            }
+        }
+
+        ReadSnapshot view = cut.view();
+        Iterable<Snapshot.WizardRow> wizardRows = () -> Stream.concat(
+                StreamSupport.stream(view.wizards().spliterator(), false)
+                        .map(wizard -> new Snapshot.WizardRow(wizard.id(), true, wizard.name())),
+                retiredWizardRows.stream()).iterator();
+        Iterable<Snapshot.ArtifactRow> artifactRows = () -> Stream.concat(
+                StreamSupport.stream(view.artifacts().spliterator(), false)
+                        .map(artifact -> new Snapshot.ArtifactRow(artifact.id(), true, artifact.condition(),
+                                artifact.ownerId(), artifact.name(), artifact.description())),
+                retiredArtifactRows.stream()).iterator();
+        Iterable<Snapshot.TransferRow> transferRows = () -> StreamSupport
+                .stream(this.transferLog.rowsBefore(cut.nextTransferId()).spliterator(), false)
+                .map(row -> new Snapshot.TransferRow(row.id(), row.type(), row.artifactId(), row.wizardId(), row.time()))
+                .iterator();
+
+        return new Snapshot.Contents(cut.generation(), cut.nextWizardId(), cut.nextArtifactId(), cut.nextTransferId(),
+                view.getWizardCount() + retiredWizardRows.size(), wizardRows,
+                view.getArtifactCount() + retiredArtifactRows.size(), artifactRows,
+                cut.transferCount(), transferRows);
+    }
+
+    // Rebuilds entities straight from the mapped snapshot
+    private final class SnapshotLoader implements Snapshot.Loader {
+        @Override
+        public void header(long generation, int nextWizardId, int nextArtifactId, int nextTransferId) {
+            journalGeneration = generation;
+            wizardIdCounter.set(nextWizardId);
+            artifactIdCounter.set(nextArtifactId);
+            transferIdCounter.set(nextTransferId);
+        }
+
+        @Override
+        public void wizard(int id, boolean live, String name) {
+            Wizard wizard = new Wizard(name);
+            wizard.setId(id);
+            if (live) {
+                putWizard(wizard);
+            } else {
+                retiredWizards.put(id, wizard);
+            }
+        }
+
+        @Override
+        public void artifact(int id, boolean live, int condition, int ownerId, String name, String description) {
+            Artifact artifact = new Artifact(name, description);
+            artifact.setId(id);
+            artifact.setCondition(condition);
+            if (!live) {
+                retiredArtifacts.put(id, artifact);
+                return;
+            }
+            putArtifact(artifact);
+            Wizard owner = ownerId == 0 ? null : wizards.get(ownerId);
+            if (owner != null) {
+                owner.addArtifact(artifact);
+            }
+        }
+
+        @Override
+        public void transfer(int id, String type, int artifactId, int wizardId, long epochMicros) {
+            transferLog.put(id, type, artifactId, wizardId, epochMicros);
+        }
+    }
+
+    // Re-applies one journaled mutation during startup (journal is still null, so nothing is re-logged)
+    private void replay(Journal.Entry entry) {
+        this.replayedEntries++;
+        switch (entry.op()) {
+            case ADD_WIZARD -> {
+                Wizard wizard = new Wizard(entry.name());
+                wizard.setId(entry.id());
+                putWizard(wizard);
+                advancePast(this.wizardIdCounter, entry.id());
+            }
+            case UPDATE_WIZARD -> applyWizardUpdate(entry.id(), ANY_VERSION, entry.name());
+            case DELETE_WIZARD -> removeWizard(entry.id());
+            case DELETE_WIZARDS -> removeWizards(entry.ids());
+            case ADD_ARTIFACT -> {
+                Artifact artifact = new Artifact(entry.name(), entry.text());
+                artifact.setId(entry.id());
+                putArtifact(artifact);
+                advancePast(this.artifactIdCounter, entry.id());
+            }
+            case UPDATE_ARTIFACT -> applyArtifactUpdate(entry.id(), ANY_VERSION, entry.name(), entry.text());
+            case DELETE_ARTIFACT -> removeArtifact(entry.id());
+            case DELETE_ARTIFACTS -> removeArtifacts(entry.ids());
+            case ASSIGN -> applyAssign(entry.id(), entry.ref());
+            case UNASSIGN -> applyUnassign(entry.ref(), entry.id());
+            case REPAIR -> applyRepair(entry.id(), ANY_VERSION, entry.value());
+            case SET_CONDITION -> applyCondition(entry.id(), entry.value());
+            case REMAP_CONDITIONS -> this.conditions.remap(entry.conditionTable());
+            case TRANSFER -> {
+                // skip history of entities that never existed, as the live path cannot record it either
+                if (artifactById(entry.ref()) != null && wizardById(entry.value()) != null) {
+                    this.transferLog.put(entry.id(), entry.name(), entry.ref(), entry.value(), entry.time());
+                }
+                advancePast(this.transferIdCounter, entry.id());
+            }
         }
-        return instance;
     }
 
     // User authentication
+    // Returns the user, or null when the username is unknown or the password is wrong
     public User authenticate(String username, String password) {
-        return users.stream()
-                .filter(u -> u.getUsername().equals(username) && u.getPassword().equals(password))
-                .findFirst()
-                .orElse(null);
+        long start = Metrics.start();
+        try {
+            return this.credentials.authenticate(username, password);
+        } finally {
+            AUTHENTICATE.record(start);
+        }
+    }
+
+    // Adds or replaces an account, hashing the password with the configured work factor
+    public User addUser(String username, String password, Role role) {
+        return addUser(username, PasswordHash.create(password), role);
+    }
+
+    public User addUser(String username, PasswordHash passwordHash, Role role) {
+        return this.credentials.put(username, passwordHash, role);
     }
     
     // Transfers
     public Transfer addTransfer(Transfer transfer) {
-    	transfer.setId(transferIdCounter++);
-    	this.transfers.put(transfer.getId(), transfer);
-    	return transfer;
+        long start = Metrics.start();
+        try {
+        	int artifactId = transfer.getArtifact() == null ? 0 : transfer.getArtifact().getId();
+        	int wizardId = transfer.getWizard() == null ? 0 : transfer.getWizard().getId();
+        	long time = TransferLog.toMicros(transfer.getTimestamp());
+        	mutate(null, () -> {
+        	    transfer.setId(transferIdCounter.getAndIncrement());
+        	    this.transferLog.put(transfer.getId(), transfer.getType(), artifactId, wizardId, time);
+        	    return true;
+        	}, () -> Journal.Entry.transfer(transfer.getId(), transfer.getType(), artifactId, wizardId, time));
+        	publish(ChangeEvent.Entity.TRANSFER, ChangeEvent.Kind.ADDED, transfer.getId());
+        	return transfer;
+        } finally {
+            ADD_TRANSFER.record(start);
+        }
+    }
+
+    // Builds Transfer objects for log rows; they are snapshots, not live records
+    private List<Transfer> materialise(List<TransferLog.Row> rows) {
+        List<Transfer> result = new ArrayList<>(rows.size());
+        for (TransferLog.Row row : rows) {
+            Transfer transfer = new Transfer(row.type(), artifactById(row.artifactId()), wizardById(row.wizardId()),
+                    TransferLog.toInstant(row.time()));
+            transfer.setId(row.id());
+            result.add(transfer);
+        }
+        return result;
+    }
+
+    // Live or deleted entity, as transfer history may refer to either
+    private Artifact artifactById(int id) {
+        Artifact artifact = this.artifacts.get(id);
+        return artifact != null ? artifact : this.retiredArtifacts.get(id);
+    }
+
+    private Wizard wizardById(int id) {
+        Wizard wizard = this.wizards.get(id);
+        return wizard != null ? wizard : this.retiredWizards.get(id);
     }
     
+    // Transfers of one artifact, oldest first
     public Collection<Transfer> findAllTransfersById(int id) {
-		return this.transfers.values().stream()
-        	.filter(transfer -> transfer.getArtifact().getId() == id)
-        	.collect(Collectors.toList());
+        long start = Metrics.start();
+        try {
+            return materialise(this.transferLog.findByArtifact(id));
+        } finally {
+            FIND_ARTIFACT_TRANSFERS.record(start);
+        }
+    }
+
+    // Transfers involving one wizard, oldest first
+    public Collection<Transfer> findTransfersByWizard(int wizardId) {
+        long start = Metrics.start();
+        try {
+            return materialise(this.transferLog.findByWizard(wizardId));
+        } finally {
+            FIND_WIZARD_TRANSFERS.record(start);
+        }
+    }
+
+    /**
+     * Transfers recorded in {@code [from, to)}, oldest first, as a page of at most {@code limit}
+     * starting at {@code offset}. A null bound leaves that end of the range open. Runs in
+     * O(log n + limit) regardless of how much history the range covers.
+     */
+    public Page<Transfer> findTransfersBetween(Instant from, Instant to, int offset, int limit) {
+        long start = Metrics.start();
+        try {
+            return page(this.transferLog.findBetween(lowerBound(from), upperBound(to), offset, limit), offset);
+        } finally {
+            FIND_TRANSFERS_BETWEEN.record(start);
+        }
+    }
+
+    // As above, for the history of one artifact
+    public Page<Transfer> findTransfersBetween(int artifactId, Instant from, Instant to, int offset, int limit) {
+        long start = Metrics.start();
+        try {
+            return page(this.transferLog.findBetweenForArtifact(artifactId, lowerBound(from), upperBound(to), offset, limit), offset);
+        } finally {
+            FIND_ARTIFACT_TRANSFERS_BETWEEN.record(start);
+        }
+    }
+
+    // As above, for the transfers involving one wizard
+    public Page<Transfer> findWizardTransfersBetween(int wizardId, Instant from, Instant to, int offset, int limit) {
+        long start = Metrics.start();
+        try {
+            return page(this.transferLog.findBetweenForWizard(wizardId, lowerBound(from), upperBound(to), offset, limit), offset);
+        } finally {
+            FIND_WIZARD_TRANSFERS_BETWEEN.record(start);
+        }
+    }
+
+    /**
+     * Transfers in {@code [from, to)}, oldest first, optionally restricted to one artifact and/or
+     * one wizard (0 means any). The history is read {@value #TRANSFER_SCAN_BATCH} rows at a time
+     * under a short read lock, so a walk over millions of transfers neither copies them into one
+     * list nor holds up writers; transfers recorded during the walk may or may not be included.
+     */
+    public Iterator<Transfer> iterateTransfers(int artifactId, int wizardId, Instant from, Instant to) {
+        long lower = lowerBound(from);
+        long upper = upperBound(to);
+        return new Iterator<>() {
+            private Iterator<Transfer> batch = Collections.emptyIterator();
+            private long afterTime = Long.MIN_VALUE;
+            private int afterId = 0; // transfer IDs start at 1, so the cursor starts before every row
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!batch.hasNext() && !exhausted) {
+                    List<TransferLog.Row> rows = transferLog.scan(artifactId, wizardId, lower, upper, afterTime, afterId,
+                            TRANSFER_SCAN_BATCH);
+                    exhausted = rows.size() < TRANSFER_SCAN_BATCH;
+                    if (!rows.isEmpty()) {
+                        TransferLog.Row last = rows.get(rows.size() - 1);
+                        afterTime = last.time();
+                        afterId = last.id();
+                    }
+                    batch = materialise(rows).iterator();
+                }
+                return batch.hasNext();
+            }
+
+            @Override
+            public Transfer next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return batch.next();
+            }
+        };
+    }
+
+    private Page<Transfer> page(TransferLog.Slice slice, int offset) {
+        return new Page<>(materialise(slice.rows()), offset, slice.total());
+    }
+
+    private static long lowerBound(Instant from) {
+        return from == null ? Long.MIN_VALUE : TransferLog.toMicros(from);
+    }
+
+    private static long upperBound(Instant to) {
+        return to == null ? Long.MAX_VALUE : TransferLog.toMicros(to);
+    }
+
+    public int getTransferCount() {
+        return this.transferLog.size();
+    }
+
+    /**
+     * Dashboard aggregates. Every figure comes from a counter maintained as the data changes, so
+     * this is O(1) in the number of artifacts, wizards and transfers.
+     */
+    public Statistics getStatistics() {
+        long start = Metrics.start();
+        try {
+            int artifactCount = this.artifactPages.count();
+            int unassigned = Math.min(artifactCount, this.unassignedCount.get());
+
+            int[] byCondition = this.conditions.countByCondition();
+            Integer[] buckets = new Integer[10];
+            Arrays.fill(buckets, 0);
+            int blocked = 0;
+            for (int condition = 0; condition < byCondition.length; condition++) {
+                buckets[Math.min(9, condition / 10)] += byCondition[condition];
+                if (condition < 10) blocked += byCondition[condition]; // the threshold of Artifact.canBeAssigned
+            }
+
+            LocalDate first = LocalDate.now().minusDays(STATISTICS_DAYS - 1);
+            int[] perDay = this.transferLog.countPerDay(first, STATISTICS_DAYS);
+            Map<LocalDate, Integer> transfersPerDay = new LinkedHashMap<>();
+            for (int i = 0; i < perDay.length; i++) {
+                transfersPerDay.put(first.plusDays(i), perDay[i]);
+            }
+
+            return new Statistics(artifactCount, artifactCount - unassigned, unassigned, this.wizardPages.count(),
+                    Arrays.asList(buckets), blocked, this.transferLog.size(), transfersPerDay);
+        } finally {
+            GET_STATISTICS.record(start);
+        }
+    }
+
+    // Approximate heap used by transfer history, for footprint reports
+    public long getTransferHistoryBytes() {
+        return this.transferLog.footprintBytes();
     }
 
     // Wizards
     public Wizard addWizard(Wizard wizard) {
-        wizard.setId(wizardIdCounter++);
+        long start = Metrics.start();
+        try {
+            mutate(null, () -> {
+                wizard.setId(wizardIdCounter.getAndIncrement());
+                Lock lock = wizardLockFor(wizard.getId());
+                lock.lock();
+                try {
+                    putWizard(wizard);
+                } finally {
+                    lock.unlock();
+                }
+                return true;
+            }, () -> Journal.Entry.addWizard(wizard.getId(), wizard.getName()));
+            publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.ADDED, wizard.getId());
+            return wizard;
+        } finally {
+            ADD_WIZARD.record(start);
+        }
+    }
+
+    private void putWizard(Wizard wizard) {
         this.wizards.put(wizard.getId(), wizard);
-        return wizard;
+        this.wizardNames.put(wizard.getId(), wizard.getName());
+        this.wizardPages.add(wizard.getId());
+        publishWizard(wizard);
+    }
+
+    public boolean updateWizard(int id, String newName) {
+        return updateWizard(id, ANY_VERSION, newName);
+    }
+
+    /**
+     * Renames the wizard if it is still at {@code expectedVersion}, the version the caller read
+     * before the edit began. Returns false if there is no such wizard and throws
+     * StaleVersionException, changing nothing, if another change got in first.
+     */
+    public boolean updateWizard(int id, long expectedVersion, String newName) {
+        long start = Metrics.start();
+        try {
+            if (!mutate(wizardLockFor(id), () -> applyWizardUpdate(id, expectedVersion, newName),
+                    () -> Journal.Entry.updateWizard(id, newName))) {
+                return false;
+            }
+            publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.UPDATED, id);
+            // owned artifacts show the owner's name
+            for (Artifact artifact : findArtifactsByOwner(id)) {
+                publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.UPDATED, artifact.getId());
+            }
+            return true;
+        } finally {
+            UPDATE_WIZARD.record(start);
+        }
+    }
+
+    private boolean applyWizardUpdate(int id, long expectedVersion, String newName) {
+        Wizard wizard = this.wizards.get(id);
+        if (wizard == null) return false;
+        if (!wizard.advanceVersion(expectedVersion)) throw staleVersion("Wizard", id);
+        wizard.setName(newName);
+        this.wizardNames.put(id, newName);
+        publishWizard(wizard);
+        return true;
     }
 
     public void deleteWizardById(int id) {
+        long start = Metrics.start();
+        try {
+            if (mutate(wizardLockFor(id), () -> removeWizard(id), () -> Journal.Entry.deleteWizard(id))) {
+                publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.REMOVED, id);
+            }
+        } finally {
+            DELETE_WIZARD.record(start);
+        }
+    }
+
+    private boolean removeWizard(int id) {
+        if (!retireWizard(id, false)) return false;
+        this.wizardNames.remove(id);
+        this.wizardPages.remove(id);
+        return true;
+    }
+
+    /*
+     * Takes the wizard out of the live map and the read snapshot and detaches its artifacts; the
+     * name and page indexes are left to the caller, who holds the wizard's stripe. The stripes of
+     * all its artifacts are held while they are detached, so the wizard and every detached artifact
+     * reach the read snapshot in one compare-and-set and readers never see it half removed. A bulk
+     * delete passes quiet, so the artifacts are detached without one change event each.
+     */
+    private boolean retireWizard(int id, boolean quiet) {
         Wizard wizard = this.wizards.remove(id);
-        if (wizard != null) {
-            wizard.removeAllArtifacts();
+        if (wizard == null) return false;
+        this.retiredWizards.put(id, wizard);
+
+        // the wizard's stripe keeps new artifacts out; ones moved to another owner meanwhile just need no detaching
+        Lock[] locks = stripesOf(wizard.getArtifacts());
+        for (Lock lock : locks) lock.lock();
+        try {
+            List<Artifact> detached = new ArrayList<>();
+            for (Artifact artifact : wizard.getArtifacts()) {
+                if (quiet ? detachQuietly(wizard, artifact) : wizard.removeArtifact(artifact)) detached.add(artifact);
+            }
+            if (!this.restoring) {
+                this.readSnapshot.updateAndGet(view -> {
+                    ReadSnapshot.Editor editor = view.edit();
+                    for (Artifact artifact : detached) {
+                        editor.putArtifact(artifact.getId(), artifact.getName(), artifact.getDescription(),
+                                artifact.getCondition(), 0, artifact.getVersion());
+                    }
+                    return editor.removeWizard(id).build();
+                });
+            }
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) locks[i].unlock();
+        }
+        this.artifactsByOwner.remove(id);
+        return true;
+    }
+
+    // Each stripe these artifacts use once, in stripe order, as remapConditions takes them all
+    private Lock[] stripesOf(Collection<Artifact> artifacts) {
+        boolean[] used = new boolean[LOCK_STRIPES];
+        for (Artifact artifact : artifacts) {
+            used[artifact.getId() & (LOCK_STRIPES - 1)] = true;
+        }
+        List<Lock> locks = new ArrayList<>();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            if (used[i]) locks.add(this.artifactLocks[i]);
         }
+        return locks.toArray(new Lock[0]);
     }
 
+    /*
+     * Bulk delete. Every wizard leaves the live map, the ownership index and the read snapshot
+     * straight away, under one hold of the checkpoint lock and one journal record, and the page
+     * index drops them all in one compaction. Their names leave the search index on a background
+     * thread afterwards: searches already skip IDs that no longer resolve, and IDs are never
+     * reused, so a stale entry can only cost a lookup. Transfer history is kept, as for single
+     * deletes. Their artifacts are detached without per-artifact events, and listeners get one ALL
+     * event per entity type once the locks are released. Returns how many wizards were deleted.
+     */
+    public int deleteWizards(Collection<Integer> ids) {
+        long start = Metrics.start();
+        try {
+            int[] requested = ids.stream().mapToInt(Integer::intValue).toArray();
+            int[] deleted;
+            long last = 0;
+            Lock checkpoint = this.checkpointLock.readLock();
+            checkpoint.lock();
+            try {
+                deleted = removeWizards(requested);
+                if (deleted.length > 0) last = log(Journal.Entry.deleteWizards(deleted));
+            } finally {
+                checkpoint.unlock();
+            }
+            if (deleted.length == 0) return 0;
+            commit(last);
+            publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL);
+            publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL); // detached artifacts
+            return deleted.length;
+        } finally {
+            DELETE_WIZARDS.record(start);
+        }
+    }
+
+    public int deleteWizardsWhere(Predicate<Wizard> filter) {
+        List<Integer> ids = new ArrayList<>();
+        for (Wizard wizard : this.wizards.values()) {
+            if (filter.test(wizard)) ids.add(wizard.getId());
+        }
+        return deleteWizards(ids);
+    }
+
+    // caller holds the checkpoint read lock (or is replaying); returns the IDs that were live, ascending
+    private int[] removeWizards(int[] ids) {
+        int[] deleted = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            Lock lock = wizardLockFor(id);
+            lock.lock();
+            try {
+                if (retireWizard(id, true)) deleted[count++] = id;
+            } finally {
+                lock.unlock();
+            }
+        }
+        deleted = Arrays.copyOf(deleted, count);
+        Arrays.sort(deleted);
+        this.wizardPages.removeAll(deleted); // retireWizard has already taken each out of the read snapshot
+        forgetNames(this.wizardNames, deleted);
+        return deleted;
+    }
+
+    // Removes deleted IDs from a name index: in place while restoring, otherwise on the cleanup thread
+    private void forgetNames(TrigramIndex index, int[] sortedIds) {
+        if (sortedIds.length == 0) return;
+        if (this.restoring) {
+            index.removeAll(sortedIds);
+            return;
+        }
+        synchronized (this.nameCleanup) {
+            // the executor runs tasks in submission order, so the latest one finishing means all have
+            this.pendingCleanup = CompletableFuture.runAsync(() -> {
+                long start = Metrics.start();
+                try {
+                    index.removeAll(sortedIds);
+                } finally {
+                    NAME_CLEANUP.record(start);
+                }
+            }, this.nameCleanup);
+        }
+    }
+
+    // Completes once the name index cleanup queued by bulk deletes so far has run
+    public CompletableFuture<Void> nameIndexCleanup() {
+        synchronized (this.nameCleanup) {
+            return this.pendingCleanup;
+        }
+    }
+
+    // Live view; use readSnapshot() to walk the whole catalogue as of one moment
     public Collection<Wizard> findAllWizards() {
         return this.wizards.values();
     }
@@ -146,20 +1189,335 @@ public class DataStore {
         return this.wizards.get(id);
     }
 
+    // Wizards by ascending ID, one page at a time
+    public PagedDataProvider<Wizard> wizardPages() {
+        return this.wizardPages;
+    }
+
+    // Wizards whose name contains the query, ignoring case, by ascending ID
+    public List<Wizard> searchWizards(String query) {
+        long start = Metrics.start();
+        try {
+            return resolve(this.wizardNames.search(query), this.wizards);
+        } finally {
+            SEARCH_WIZARDS.record(start);
+        }
+    }
+
+    // IDs can go stale between the index lookup and the map read, so deleted entities are skipped
+    // One page of searchWizards; only the wizards on the page are looked up
+    public Page<Wizard> searchWizards(String query, int offset, int limit) {
+        long start = Metrics.start();
+        try {
+            return resolvePage(this.wizardNames.search(query), this.wizards, offset, limit);
+        } finally {
+            SEARCH_WIZARDS.record(start);
+        }
+    }
+
+    // Drops IDs deleted since they were indexed first, so the total only counts live matches
+    private static <T> Page<T> resolvePage(List<Integer> ids, Map<Integer, T> entities, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        ids.removeIf(id -> !entities.containsKey(id));
+        int from = Math.min(offset, ids.size());
+        int to = (int) Math.min(ids.size(), (long) from + limit);
+        return new Page<>(resolve(ids.subList(from, to), entities), offset, ids.size());
+    }
+
+    private static <T> List<T> resolve(List<Integer> ids, Map<Integer, T> entities) {
+        List<T> result = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            T entity = entities.get(id);
+            if (entity != null) result.add(entity);
+        }
+        return result;
+    }
+
     // Artifacts
     public Artifact addArtifact(Artifact artifact) {
-        artifact.setId(artifactIdCounter++);
+        long start = Metrics.start();
+        try {
+            mutate(null, () -> {
+                artifact.setId(artifactIdCounter.getAndIncrement());
+                Lock lock = lockFor(artifact.getId()); // the new ID is already visible to other writers
+                lock.lock();
+                try {
+                    putArtifact(artifact);
+                    publishArtifact(artifact);
+                } finally {
+                    lock.unlock();
+                }
+                return true;
+            }, () -> Journal.Entry.addArtifact(artifact.getId(), artifact.getName(), artifact.getDescription()));
+            publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.ADDED, artifact.getId());
+            return artifact;
+        } finally {
+            ADD_ARTIFACT.record(start);
+        }
+    }
+
+    private void putArtifact(Artifact artifact) {
         this.artifacts.put(artifact.getId(), artifact);
-        return artifact;
+        this.artifactNames.put(artifact.getId(), artifact.getName());
+        this.artifactPages.add(artifact.getId());
+        artifact.setOwnershipListener(this.ownershipIndexer);
+        artifact.setConditionStorage(this.conditions);
+        if (artifact.getOwner() == null) {
+            listUnassigned(artifact);
+        }
+    }
+
+    public boolean updateArtifact(int id, String newName, String newDesc) {
+        return updateArtifact(id, ANY_VERSION, newName, newDesc);
+    }
+
+    /**
+     * Updates the artifact if it is still at {@code expectedVersion}, the version the caller read
+     * before the edit began. Returns false if there is no such artifact and throws
+     * StaleVersionException, changing nothing, if another change got in first. The check is a
+     * compare-and-set on the artifact's own version, so edits of other artifacts are not held up.
+     */
+    public boolean updateArtifact(int id, long expectedVersion, String newName, String newDesc) {
+        long start = Metrics.start();
+        try {
+            return artifactUpdated(id, mutate(lockFor(id), () -> applyArtifactUpdate(id, expectedVersion, newName, newDesc),
+                    () -> Journal.Entry.updateArtifact(id, newName, newDesc)));
+        } finally {
+            UPDATE_ARTIFACT.record(start);
+        }
+    }
+
+    // Nothing was applied, so nothing was journaled; the caller should re-read and retry
+    private static StaleVersionException staleVersion(String entity, int id) {
+        STALE_WRITES.increment();
+        return new StaleVersionException(entity + " with ID " + id + " was changed by someone else since it was read. Reload it and try again.");
+    }
+
+    private boolean artifactUpdated(int id, boolean applied) {
+        if (applied) {
+            publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.UPDATED, id);
+        }
+        return applied;
+    }
+
+    private boolean applyArtifactUpdate(int id, long expectedVersion, String newName, String newDesc) {
+        Artifact artifact = this.artifacts.get(id);
+        if (artifact == null) return false;
+        if (!artifact.advanceVersion(expectedVersion)) throw staleVersion("Artifact", id);
+        artifact.setName(newName);
+        artifact.setDescription(newDesc);
+        this.artifactNames.put(id, newName);
+        publishArtifact(artifact);
+        return true;
+    }
+
+    public boolean repairArtifact(int id, int repairAmount) {
+        return repairArtifact(id, ANY_VERSION, repairAmount);
+    }
+
+    // As updateArtifact with a version: a repair chosen from a stale reading of the condition is rejected
+    public boolean repairArtifact(int id, long expectedVersion, int repairAmount) {
+        long start = Metrics.start();
+        try {
+            return artifactUpdated(id, mutate(lockFor(id), () -> applyRepair(id, expectedVersion, repairAmount),
+                    () -> Journal.Entry.repair(id, repairAmount)));
+        } finally {
+            REPAIR_ARTIFACT.record(start);
+        }
+    }
+
+    private boolean applyRepair(int id, long expectedVersion, int repairAmount) {
+        Artifact artifact = this.artifacts.get(id);
+        if (artifact == null) return false;
+        if (!artifact.advanceVersion(expectedVersion)) throw staleVersion("Artifact", id);
+        artifact.repair(repairAmount);
+        publishArtifact(artifact);
+        return true;
+    }
+
+    public boolean setArtifactCondition(int id, int condition) {
+        long start = Metrics.start();
+        try {
+            return artifactUpdated(id, mutate(lockFor(id), () -> applyCondition(id, condition), () -> Journal.Entry.setCondition(id, condition)));
+        } finally {
+            SET_CONDITION.record(start);
+        }
+    }
+
+    private boolean applyCondition(int id, int condition) {
+        Artifact artifact = this.artifacts.get(id);
+        if (artifact == null) return false;
+        artifact.advanceVersion(ANY_VERSION);
+        artifact.setCondition(condition);
+        publishArtifact(artifact);
+        return true;
+    }
+
+    /**
+     * Wears every artifact by {@code amount}, as the nightly maintenance run does. Returns how many
+     * conditions changed. The pass works on the dense condition array and is journaled as one entry.
+     * It moves every artifact's version through the condition epoch, so a versioned edit or repair
+     * read before it is rejected.
+     */
+    public int applyWearToAll(int amount) {
+        long start = Metrics.start();
+        try {
+            return remapConditions(condition -> condition - amount);
+        } finally {
+            WEAR_ALL.record(start);
+        }
+    }
+
+    // Repairs by {@code amount} every artifact whose current condition matches; returns how many changed
+    public int repairWhere(IntPredicate condition, int amount) {
+        long start = Metrics.start();
+        try {
+            return remapConditions(current -> condition.test(current) ? current + amount : current);
+        } finally {
+            REPAIR_WHERE.record(start);
+        }
+    }
+
+    /*
+     * Holds every artifact stripe, so no single-artifact change can apply before the pass but reach
+     * the journal after it. Views get one ALL event instead of one per artifact.
+     */
+    private int remapConditions(IntUnaryOperator change) {
+        byte[] table = ConditionStore.table(change);
+        int changed;
+        long sequence = 0;
+        Lock checkpoint = this.checkpointLock.readLock();
+        checkpoint.lock();
+        try {
+            for (Lock lock : this.artifactLocks) lock.lock();
+            try {
+                changed = this.conditions.remap(table);
+                if (changed > 0) {
+                    if (!this.restoring) this.readSnapshot.updateAndGet(view -> view.withConditionsRemapped(table));
+                    sequence = log(Journal.Entry.remapConditions(table));
+                }
+            } finally {
+                for (Lock lock : this.artifactLocks) lock.unlock();
+            }
+        } finally {
+            checkpoint.unlock();
+        }
+        commit(sequence);
+        if (changed > 0) {
+            publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL);
+        }
+        return changed;
     }
 
     public void deleteArtifactById(int id) {
+        long start = Metrics.start();
+        try {
+            if (mutate(lockFor(id), () -> removeArtifact(id), () -> Journal.Entry.deleteArtifact(id))) {
+                publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.REMOVED, id);
+            }
+        } finally {
+            DELETE_ARTIFACT.record(start);
+        }
+    }
+
+    // caller holds the artifact's stripe lock (or is replaying)
+    private boolean removeArtifact(int id) {
+        boolean removed = retireArtifact(id, false);
+        this.artifactNames.remove(id);
+        this.artifactPages.remove(id);
+        if (removed) retractArtifact(id);
+        return removed;
+    }
+
+    /*
+     * Takes the artifact out of the live map and away from its owner; the name and page indexes
+     * are left to the caller. A bulk delete passes quiet, so the owner is left without one change
+     * event per artifact.
+     */
+    private boolean retireArtifact(int id, boolean quiet) {
         Artifact artifact = this.artifacts.remove(id);
-        if (artifact != null && artifact.getOwner() != null) {
-            artifact.getOwner().removeArtifact(artifact);
+        if (artifact != null) {
+            artifact.setConditionStorage(null); // retired artifacts keep their last condition
+            this.retiredArtifacts.put(id, artifact);
+        }
+        Wizard owner = artifact == null ? null : artifact.getOwner();
+        if (owner != null) {
+            if (quiet) {
+                detachQuietly(owner, artifact);
+            } else {
+                owner.removeArtifact(artifact);
+            }
+        }
+        unlistUnassigned(id);
+        return artifact != null;
+    }
+
+    /*
+     * Bulk delete, as deleteWizards: the artifacts are gone from every lookup, their owners and the
+     * read snapshot when this returns, and their names leave the search index in the background.
+     * Owners are updated without per-artifact events; listeners get one ALL event for artifacts
+     * and one for wizards. Returns how many artifacts were deleted.
+     */
+    public int deleteArtifacts(Collection<Integer> ids) {
+        long start = Metrics.start();
+        try {
+            int[] requested = ids.stream().mapToInt(Integer::intValue).toArray();
+            int[] deleted;
+            long last = 0;
+            Lock checkpoint = this.checkpointLock.readLock();
+            checkpoint.lock();
+            try {
+                deleted = removeArtifacts(requested);
+                if (deleted.length > 0) last = log(Journal.Entry.deleteArtifacts(deleted));
+            } finally {
+                checkpoint.unlock();
+            }
+            if (deleted.length == 0) return 0;
+            commit(last);
+            publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL);
+            publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL); // artifact counts
+            return deleted.length;
+        } finally {
+            DELETE_ARTIFACTS.record(start);
+        }
+    }
+
+    public int deleteArtifactsWhere(Predicate<Artifact> filter) {
+        List<Integer> ids = new ArrayList<>();
+        for (Artifact artifact : this.artifacts.values()) {
+            if (filter.test(artifact)) ids.add(artifact.getId());
+        }
+        return deleteArtifacts(ids);
+    }
+
+    // caller holds the checkpoint read lock (or is replaying); returns the IDs that were live, ascending
+    private int[] removeArtifacts(int[] ids) {
+        int[] deleted = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            Lock lock = lockFor(id);
+            lock.lock();
+            try {
+                if (retireArtifact(id, true)) deleted[count++] = id;
+            } finally {
+                lock.unlock();
+            }
         }
+        deleted = Arrays.copyOf(deleted, count);
+        Arrays.sort(deleted);
+        this.artifactPages.removeAll(deleted);
+        if (!this.restoring) {
+            // a retired artifact is never published again, so removing them all in one step cannot reorder its changes
+            int[] gone = deleted;
+            this.readSnapshot.updateAndGet(view -> view.withoutArtifacts(gone));
+        }
+        forgetNames(this.artifactNames, deleted);
+        return deleted;
     }
 
+    // Live view; use readSnapshot() to walk the whole catalogue as of one moment
     public Collection<Artifact> findAllArtifacts() {
         return this.artifacts.values();
     }
@@ -168,7 +1526,152 @@ public class DataStore {
         return this.artifacts.get(id);
     }
 
+    // Artifacts by ascending ID, one page at a time
+    public PagedDataProvider<Artifact> artifactPages() {
+        return this.artifactPages;
+    }
+
+    // Artifacts whose name contains the query, ignoring case, by ascending ID
+    public List<Artifact> searchArtifacts(String query) {
+        long start = Metrics.start();
+        try {
+            return resolve(this.artifactNames.search(query), this.artifacts);
+        } finally {
+            SEARCH_ARTIFACTS.record(start);
+        }
+    }
+
+    public Page<Artifact> searchArtifacts(String query, int offset, int limit) {
+        long start = Metrics.start();
+        try {
+            return resolvePage(this.artifactNames.search(query), this.artifacts, offset, limit);
+        } finally {
+            SEARCH_ARTIFACTS.record(start);
+        }
+    }
+
+    public List<Artifact> findUnassignedArtifacts() {
+        long start = Metrics.start();
+        try {
+            return new ArrayList<>(this.unassignedArtifacts.values());
+        } finally {
+            FIND_UNASSIGNED.record(start);
+        }
+    }
+
+    // One page in ID order; the index has no positions, so the walk steps past the first offset entries
+    public Page<Artifact> findUnassignedArtifacts(int offset, int limit) {
+        long start = Metrics.start();
+        try {
+            if (offset < 0 || limit < 0) {
+                throw new IllegalArgumentException("Offset and limit must not be negative");
+            }
+            Iterator<Artifact> unassigned = this.unassignedArtifacts.values().iterator();
+            for (int skipped = 0; skipped < offset && unassigned.hasNext(); skipped++) {
+                unassigned.next();
+            }
+            List<Artifact> items = new ArrayList<>(Math.min(limit, 1024));
+            while (items.size() < limit && unassigned.hasNext()) {
+                items.add(unassigned.next());
+            }
+            return new Page<>(items, offset, this.unassignedCount.get());
+        } finally {
+            FIND_UNASSIGNED.record(start);
+        }
+    }
+
+    public List<Artifact> findArtifactsByOwner(int wizardId) {
+        long start = Metrics.start();
+        try {
+            NavigableMap<Integer, Artifact> owned = this.artifactsByOwner.get(wizardId);
+            return owned == null ? new ArrayList<>() : new ArrayList<>(owned.values());
+        } finally {
+            FIND_BY_OWNER.record(start);
+        }
+    }
+
+    /*
+     * Keeps the ownership index in sync with Wizard.addArtifact/removeArtifact/removeAllArtifacts,
+     * and tells views that the artifact's owner and both wizards' artifact counts changed. This is
+     * the one place every ownership change (single, batch or cascading from a delete) passes through.
+     */
+    private void onOwnerChanged(Artifact artifact, Wizard previousOwner, Wizard newOwner) {
+        int artifactId = artifact.getId();
+        artifact.advanceVersion(ANY_VERSION); // an edit read before the move is stale
+        if (previousOwner != null) {
+            NavigableMap<Integer, Artifact> owned = this.artifactsByOwner.get(previousOwner.getId());
+            if (owned != null) {
+                owned.remove(artifactId);
+            }
+        } else {
+            unlistUnassigned(artifactId);
+        }
+
+        if (newOwner != null) {
+            this.artifactsByOwner.computeIfAbsent(newOwner.getId(), k -> new ConcurrentSkipListMap<>()).put(artifactId, artifact);
+        } else if (this.artifacts.containsKey(artifactId)) { // deleted artifacts are not re-listed as unassigned
+            listUnassigned(artifact);
+        }
+
+        publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.UPDATED, artifactId);
+        if (previousOwner != null) {
+            publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.UPDATED, previousOwner.getId());
+        }
+        if (newOwner != null) {
+            publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.UPDATED, newOwner.getId());
+        }
+    }
+
+    /*
+     * The index updates of onOwnerChanged for an artifact leaving its owner, without its change
+     * events: bulk operations publish one ALL event per entity type after releasing their locks.
+     */
+    private boolean detachQuietly(Wizard owner, Artifact artifact) {
+        if (!owner.detachArtifact(artifact)) return false;
+        int artifactId = artifact.getId();
+        artifact.advanceVersion(ANY_VERSION);
+        NavigableMap<Integer, Artifact> owned = this.artifactsByOwner.get(owner.getId());
+        if (owned != null) {
+            owned.remove(artifactId);
+        }
+        if (this.artifacts.containsKey(artifactId)) {
+            listUnassigned(artifact);
+        }
+        return true;
+    }
+
+    // As onOwnerChanged for an artifact gaining its first owner, without its change events
+    private void attachQuietly(Wizard owner, Artifact artifact) {
+        owner.attachArtifact(artifact);
+        artifact.advanceVersion(ANY_VERSION);
+        unlistUnassigned(artifact.getId());
+        this.artifactsByOwner.computeIfAbsent(owner.getId(), k -> new ConcurrentSkipListMap<>()).put(artifact.getId(), artifact);
+    }
+
+    private void listUnassigned(Artifact artifact) {
+        if (this.unassignedArtifacts.put(artifact.getId(), artifact) == null) {
+            this.unassignedCount.incrementAndGet();
+        }
+    }
+
+    private void unlistUnassigned(int artifactId) {
+        if (this.unassignedArtifacts.remove(artifactId) != null) {
+            this.unassignedCount.decrementAndGet();
+        }
+    }
+
     public boolean assignArtifactToWizard(int artifactId, int wizardId) {
+        long start = Metrics.start();
+        try {
+            return mutate(wizardLockFor(wizardId), lockFor(artifactId), () -> applyAssign(artifactId, wizardId),
+                    () -> Journal.Entry.assign(artifactId, wizardId));
+        } finally {
+            ASSIGN.record(start);
+        }
+    }
+
+    // caller holds the wizard's stripe lock, then the artifact's, so a concurrent delete cannot retire the wizard mid-assign
+    private boolean applyAssign(int artifactId, int wizardId) {
         Artifact artifact = this.artifacts.get(artifactId);
         Wizard wizard = this.wizards.get(wizardId);
         if (artifact == null || wizard == null) return false;
@@ -178,8 +1681,9 @@ public class DataStore {
         }
 
         artifact.applyWear(5);
-        
+
         wizard.addArtifact(artifact);
+        publishArtifact(artifact);
         return true;
     }
     
@@ -193,14 +1697,226 @@ public class DataStore {
         
         return null;
     }
+
+    /**
+     * Assigns many artifacts in one pass. Each artifact is validated, worn and recorded as an
+     * "assign" transfer under its own stripe lock; the whole batch then waits for a single journal
+     * commit. Returns the reason for every artifact that could not be assigned, keyed by artifact ID.
+     */
+    public Map<Integer, String> assignArtifactsToWizard(Collection<Integer> artifactIds, int wizardId) {
+        long start = Metrics.start();
+        try {
+            return applyBatch(artifactIds, wizardId, "assign", artifactId -> {
+                String blockReason = getAssignmentBlockReason(artifactId);
+                if (blockReason != null) return blockReason;
+                return applyAssign(artifactId, wizardId) ? null : "Assignment failed: Wizard or artifact not found.";
+            }, artifactId -> Journal.Entry.assign(artifactId, wizardId));
+        } finally {
+            ASSIGN_BATCH.record(start);
+        }
+    }
+
+    // Unassigns many artifacts from one wizard with a single journal commit; returns failures by artifact ID
+    public Map<Integer, String> unassignArtifactsFromWizard(Collection<Integer> artifactIds, int wizardId) {
+        long start = Metrics.start();
+        try {
+            return applyBatch(artifactIds, wizardId, "unassign", artifactId -> {
+                Artifact artifact = this.artifacts.get(artifactId);
+                if (artifact == null) return "Artifact not found";
+                if (artifact.getOwner() == null || artifact.getOwner().getId() != wizardId) {
+                    return "Artifact is not assigned to this wizard.";
+                }
+                return applyUnassign(wizardId, artifactId) ? null : "Unassignment failed: Wizard or artifact not found.";
+            }, artifactId -> Journal.Entry.unassign(artifactId, wizardId));
+        } finally {
+            UNASSIGN_BATCH.record(start);
+        }
+    }
+
+    // apply returns null on success or the failure reason
+    private Map<Integer, String> applyBatch(Collection<Integer> artifactIds, int wizardId, String transferType,
+                                            IntFunction<String> apply, IntFunction<Journal.Entry> entry) {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        Wizard wizard = this.wizards.get(wizardId);
+        if (wizard == null) {
+            for (int artifactId : artifactIds) {
+                failures.put(artifactId, "Wizard not found");
+            }
+            return failures;
+        }
+
+        long last = 0;
+        List<Integer> transferIds = new ArrayList<>();
+        Lock checkpoint = this.checkpointLock.readLock();
+        checkpoint.lock();
+        try {
+            Lock wizardLock = wizardLockFor(wizardId); // held for the batch, so the wizard cannot be deleted halfway
+            wizardLock.lock();
+            try {
+                for (int artifactId : new LinkedHashSet<>(artifactIds)) { // a duplicate must not be worn twice
+                    Lock lock = lockFor(artifactId);
+                    lock.lock();
+                    try {
+                        String failure = apply.apply(artifactId);
+                        if (failure != null) {
+                            failures.put(artifactId, failure);
+                            continue;
+                        }
+                        int transferId = this.transferIdCounter.getAndIncrement();
+                        long time = TransferLog.toMicros(Instant.now());
+                        this.transferLog.put(transferId, transferType, artifactId, wizardId, time);
+                        transferIds.add(transferId);
+                        log(Journal.Entry.transfer(transferId, transferType, artifactId, wizardId, time));
+                        last = log(entry.apply(artifactId));
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            } finally {
+                wizardLock.unlock();
+            }
+        } finally {
+            checkpoint.unlock();
+        }
+        commit(last);
+        for (int transferId : transferIds) {
+            publish(ChangeEvent.Entity.TRANSFER, ChangeEvent.Kind.ADDED, transferId);
+        }
+        return failures;
+    }
     
     public boolean unassignArtifactFromWizard(int wizardId, int artifactId) {
-    	Artifact artifact = this.artifacts.get(artifactId);
-    	Wizard wizard = this.wizards.get(wizardId);
-    	if (artifact == null || wizard == null) return false;
-    	
-    	wizard.removeArtifact(artifact);
-    	return true;
+        long start = Metrics.start();
+        try {
+            return mutate(wizardLockFor(wizardId), lockFor(artifactId), () -> applyUnassign(wizardId, artifactId),
+                    () -> Journal.Entry.unassign(artifactId, wizardId));
+        } finally {
+            UNASSIGN.record(start);
+        }
+    }
+
+    private boolean applyUnassign(int wizardId, int artifactId) {
+        Artifact artifact = this.artifacts.get(artifactId);
+        Wizard wizard = this.wizards.get(wizardId);
+        if (artifact == null || wizard == null) return false;
+
+        if (wizard.removeArtifact(artifact)) publishArtifact(artifact);
+        return true;
+    }
+
+    /*
+     * Bulk import. Each call applies a whole batch under one hold of the checkpoint lock, commits the
+     * journal once and sends a single ALL event, so views refresh once per batch rather than per row.
+     */
+    public List<Wizard> importWizards(List<Wizard> batch) {
+        long start = Metrics.start();
+        try {
+            long last = 0;
+            Lock checkpoint = this.checkpointLock.readLock();
+            checkpoint.lock();
+            try {
+                for (Wizard wizard : batch) {
+                    wizard.setId(wizardIdCounter.getAndIncrement());
+                    Lock lock = wizardLockFor(wizard.getId()); // a rename of the now visible wizard must not publish first
+                    lock.lock();
+                    try {
+                        putWizard(wizard);
+                    } finally {
+                        lock.unlock();
+                    }
+                    last = log(Journal.Entry.addWizard(wizard.getId(), wizard.getName()));
+                }
+            } finally {
+                checkpoint.unlock();
+            }
+            commit(last);
+            publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL);
+            return batch;
+        } finally {
+            IMPORT_WIZARDS.record(start);
+        }
+    }
+
+    /**
+     * Adds artifacts with the condition they already carry. {@code ownerIds[i]} is the stored wizard
+     * that owns {@code batch.get(i)}, or 0; an owner that does not exist leaves the artifact
+     * unassigned. Importing an owner does not wear the artifact or record a transfer.
+     */
+    public List<Artifact> importArtifacts(List<Artifact> batch, int[] ownerIds) {
+        long start = Metrics.start();
+        try {
+            if (ownerIds.length != batch.size()) {
+                throw new IllegalArgumentException("One owner ID is needed per artifact");
+            }
+            long last = 0;
+            Lock checkpoint = this.checkpointLock.readLock();
+            checkpoint.lock();
+            try {
+                for (int i = 0; i < ownerIds.length; i++) {
+                    Artifact artifact = batch.get(i);
+                    int condition = artifact.getCondition();
+                    artifact.setId(artifactIdCounter.getAndIncrement());
+                    Lock ownerLock = ownerIds[i] == 0 ? null : wizardLockFor(ownerIds[i]); // wizard before artifact, as for assign
+                    if (ownerLock != null) ownerLock.lock();
+                    Lock lock = lockFor(artifact.getId());
+                    lock.lock();
+                    try {
+                        putArtifact(artifact);
+                        last = log(Journal.Entry.addArtifact(artifact.getId(), artifact.getName(), artifact.getDescription()));
+                        Wizard owner = ownerIds[i] == 0 ? null : this.wizards.get(ownerIds[i]);
+                        if (owner != null) {
+                            attachQuietly(owner, artifact);
+                            last = log(Journal.Entry.assign(artifact.getId(), owner.getId())); // replay wears it ...
+                        }
+                        if (owner != null || condition != 100) {
+                            last = log(Journal.Entry.setCondition(artifact.getId(), condition)); // ... which this undoes
+                        }
+                        publishArtifact(artifact);
+                    } finally {
+                        lock.unlock();
+                        if (ownerLock != null) ownerLock.unlock();
+                    }
+                }
+            } finally {
+                checkpoint.unlock();
+            }
+            commit(last);
+            publish(ChangeEvent.Entity.ARTIFACT, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL);
+            publish(ChangeEvent.Entity.WIZARD, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL); // artifact counts
+            return batch;
+        } finally {
+            IMPORT_ARTIFACTS.record(start);
+        }
+    }
+
+    // Records historical transfers with the timestamps they carry; both ends must be stored entities
+    public List<Transfer> importTransfers(List<Transfer> batch) {
+        long start = Metrics.start();
+        try {
+            long last = 0;
+            List<TransferLog.Row> rows = new ArrayList<>(batch.size());
+            Lock checkpoint = this.checkpointLock.readLock();
+            checkpoint.lock();
+            try {
+                for (Transfer transfer : batch) {
+                    transfer.setId(transferIdCounter.getAndIncrement());
+                    rows.add(new TransferLog.Row(transfer.getId(), transfer.getType(), transfer.getArtifact().getId(),
+                            transfer.getWizard().getId(), TransferLog.toMicros(transfer.getTimestamp())));
+                }
+                // old history lands all over the time index, so merge it in one pass; a batch it rejects is never journaled
+                this.transferLog.putAll(rows);
+                for (TransferLog.Row row : rows) {
+                    last = log(Journal.Entry.transfer(row.id(), row.type(), row.artifactId(), row.wizardId(), row.time()));
+                }
+            } finally {
+                checkpoint.unlock();
+            }
+            commit(last);
+            publish(ChangeEvent.Entity.TRANSFER, ChangeEvent.Kind.UPDATED, ChangeEvent.ALL);
+            return batch;
+        } finally {
+            IMPORT_TRANSFERS.record(start);
+        }
     }
 
     public User getCurrentUser() {
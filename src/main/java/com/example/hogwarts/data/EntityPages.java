@@ -0,0 +1,98 @@
+package com.example.hogwarts.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The live IDs of one entity type in a sorted primitive array, so a page is an array slice plus
+ * one map lookup per row and the total count is a field read. Adds are appends because IDs are
+ * issued in ascending order; a remove shifts the tail of the array, and a bulk remove compacts it once.
+ */
+final class EntityPages<T> implements PagedDataProvider<T> {
+    private final Map<Integer, T> entities;
+    private final SortedIntSet ids = new SortedIntSet();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    EntityPages(Map<Integer, T> entities) {
+        this.entities = entities;
+    }
+
+    void add(int id) {
+        lock.writeLock().lock();
+        try {
+            ids.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            ids.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // {@code sortedIds} ascending
+    void removeAll(int[] sortedIds) {
+        if (sortedIds.length == 0) return;
+        lock.writeLock().lock();
+        try {
+            ids.removeAll(sortedIds, sortedIds.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<T> fetch(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        int[] slice;
+        int total;
+        lock.readLock().lock();
+        try {
+            total = ids.size();
+            int start = Math.min(offset, total);
+            slice = new int[(int) Math.min(total - start, (long) limit)];
+            for (int i = 0; i < slice.length; i++) {
+                slice[i] = ids.get(start + i);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // an entity removed since the slice was taken is skipped, leaving the page one short
+        List<T> items = new ArrayList<>(slice.length);
+        for (int id : slice) {
+            T entity = entities.get(id);
+            if (entity != null) items.add(entity);
+        }
+        return new Page<>(items, offset, total);
+    }
+
+    @Override
+    public int positionOf(int id) {
+        lock.readLock().lock();
+        try {
+            return ids.indexOf(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
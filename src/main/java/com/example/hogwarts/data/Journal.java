@@ -0,0 +1,412 @@
+package com.example.hogwarts.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of DataStore mutations.
+ *
+ * Each record is framed as [payload length][CRC32C][payload]. Appends only copy the record into
+ * an in-memory buffer; {@link #awaitDurable(long)} writes and fsyncs it. In GROUP mode the first
+ * waiting thread becomes the leader and flushes every record appended so far with a single
+ * fsync, while later arrivals wait for that flush or lead the next one.
+ *
+ * The first failed write or fsync fails the journal: the file is cut back to the last record
+ * written whole, and every later append or wait throws, so no record after a lost one is ever
+ * reported durable. The store has to be reopened to continue.
+ */
+public final class Journal implements Closeable {
+    public enum SyncMode {
+        PER_OPERATION, // write and fsync once per committed operation, never sharing an fsync
+        GROUP,         // one fsync covers every record appended while the previous fsync ran
+        NONE           // write on commit but leave flushing to the OS
+    }
+
+    public enum Op {
+        ADD_WIZARD, UPDATE_WIZARD, DELETE_WIZARD,
+        ADD_ARTIFACT, UPDATE_ARTIFACT, DELETE_ARTIFACT,
+        ASSIGN, UNASSIGN, REPAIR, SET_CONDITION,
+        TRANSFER,         // time = microseconds since the epoch
+        REMAP_CONDITIONS, // text = new condition for each old condition 0..100, one char each
+        DELETE_WIZARDS,   // text = the deleted IDs, comma separated
+        DELETE_ARTIFACTS
+    }
+
+    /**
+     * One journaled mutation. Field meaning depends on the op; use the static factories.
+     */
+    public record Entry(Op op, int id, int ref, int value, long time, String name, String text) {
+        public static Entry addWizard(int id, String name) { return new Entry(Op.ADD_WIZARD, id, 0, 0, 0, name, null); }
+        public static Entry updateWizard(int id, String name) { return new Entry(Op.UPDATE_WIZARD, id, 0, 0, 0, name, null); }
+        public static Entry deleteWizard(int id) { return new Entry(Op.DELETE_WIZARD, id, 0, 0, 0, null, null); }
+        public static Entry addArtifact(int id, String name, String description) { return new Entry(Op.ADD_ARTIFACT, id, 0, 0, 0, name, description); }
+        public static Entry updateArtifact(int id, String name, String description) { return new Entry(Op.UPDATE_ARTIFACT, id, 0, 0, 0, name, description); }
+        public static Entry deleteArtifact(int id) { return new Entry(Op.DELETE_ARTIFACT, id, 0, 0, 0, null, null); }
+        public static Entry assign(int artifactId, int wizardId) { return new Entry(Op.ASSIGN, artifactId, wizardId, 0, 0, null, null); }
+        public static Entry unassign(int artifactId, int wizardId) { return new Entry(Op.UNASSIGN, artifactId, wizardId, 0, 0, null, null); }
+        public static Entry repair(int artifactId, int amount) { return new Entry(Op.REPAIR, artifactId, 0, amount, 0, null, null); }
+        public static Entry setCondition(int artifactId, int condition) { return new Entry(Op.SET_CONDITION, artifactId, 0, condition, 0, null, null); }
+        // one entry for a bulk wear or repair pass over every artifact
+        public static Entry remapConditions(byte[] table) {
+            char[] chars = new char[table.length];
+            for (int i = 0; i < table.length; i++) chars[i] = (char) table[i];
+            return new Entry(Op.REMAP_CONDITIONS, 0, 0, 0, 0, null, new String(chars));
+        }
+        // one entry for a bulk delete
+        public static Entry deleteWizards(int[] ids) { return new Entry(Op.DELETE_WIZARDS, 0, 0, 0, 0, null, joinIds(ids)); }
+        public static Entry deleteArtifacts(int[] ids) { return new Entry(Op.DELETE_ARTIFACTS, 0, 0, 0, 0, null, joinIds(ids)); }
+        // ref = artifact ID, value = wizard ID, time = microseconds since the epoch
+        public static Entry transfer(int id, String type, int artifactId, int wizardId, long epochMicros) {
+            return new Entry(Op.TRANSFER, id, artifactId, wizardId, epochMicros, type, null);
+        }
+
+        public byte[] conditionTable() {
+            byte[] table = new byte[text.length()];
+            for (int i = 0; i < table.length; i++) table[i] = (byte) text.charAt(i);
+            return table;
+        }
+
+        public int[] ids() {
+            if (text.isEmpty()) return new int[0];
+            String[] parts = text.split(",");
+            int[] ids = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) ids[i] = Integer.parseInt(parts[i]);
+            return ids;
+        }
+
+        private static String joinIds(int[] ids) {
+            StringBuilder text = new StringBuilder(ids.length * 7);
+            for (int id : ids) {
+                if (!text.isEmpty()) text.append(',');
+                text.append(id);
+            }
+            return text.toString();
+        }
+    }
+
+    private static final int HEADER_BYTES = 8; // length + checksum
+    private static final int FLUSH_THRESHOLD = 1 << 20; // bound the pending buffer during long bursts
+
+    private final FileChannel channel;
+    private final SyncMode syncMode;
+    private final Object lock = new Object();
+    private final CRC32C crc = new CRC32C(); // guarded by lock
+
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024); // guarded by lock
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);   // guarded by lock
+    private long appended;  // sequence number of the last appended record
+    private long durable;   // sequence number of the last record known to be written (and synced)
+    private boolean flushing;
+    private long writtenBytes;   // file length covering every record written so far
+    private IOException failure; // the first failed write; nothing is accepted after it
+    private boolean closed;      // everything appended is durable and the file is closed or closing
+
+    private Journal(FileChannel channel, SyncMode syncMode) {
+        this.channel = channel;
+        this.syncMode = syncMode;
+    }
+
+    /**
+     * Opens (or creates) the journal at {@code file}, feeding every intact record to {@code replayer}
+     * first. A torn record at the tail, left by a crash mid-write, is truncated away.
+     */
+    public static Journal open(Path file, SyncMode syncMode, Consumer<Entry> replayer) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long validLength = replay(channel, replayer);
+            if (validLength < channel.size()) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+            channel.position(validLength);
+            Journal journal = new Journal(channel, syncMode);
+            journal.writtenBytes = validLength;
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Feeds every intact record of a closed journal segment to {@code replayer}.
+     */
+    public static void replay(Path file, Consumer<Entry> replayer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            replay(channel, replayer);
+        }
+    }
+
+    private static long replay(FileChannel channel, Consumer<Entry> replayer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256 * 1024);
+        CRC32C checksum = new CRC32C();
+        long position = 0;
+        long size = channel.size();
+        channel.position(0);
+        buffer.limit(0);
+
+        while (position < size) {
+            if (!fill(channel, buffer, HEADER_BYTES)) break;
+            int length = buffer.getInt();
+            int expected = buffer.getInt();
+            if (length <= 0) break;
+            if (buffer.capacity() < length) {
+                ByteBuffer larger = ByteBuffer.allocate(length);
+                larger.put(buffer).flip();
+                buffer = larger;
+            }
+            if (!fill(channel, buffer, length)) break;
+
+            checksum.reset();
+            checksum.update(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+            if ((int) checksum.getValue() != expected) break;
+
+            int end = buffer.position() + length;
+            Entry entry = decode(buffer);
+            buffer.position(end);
+            replayer.accept(entry);
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    // Ensures at least {@code needed} readable bytes, compacting and refilling from the channel
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() >= needed) return true;
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * Buffers the entry and returns its sequence number. The record is not durable until
+     * {@link #awaitDurable(long)} returns for that sequence (or a later one).
+     */
+    public long append(Entry entry) {
+        synchronized (lock) {
+            checkNotFailed();
+            encode(entry);
+            long sequence = ++appended;
+            if (!flushing && pending.position() >= FLUSH_THRESHOLD) {
+                writePending(); // no leader is writing, so file order still matches sequence order
+            }
+            return sequence;
+        }
+    }
+
+    /**
+     * Blocks until every record up to {@code sequence} has been written (and fsynced unless the
+     * mode is NONE). Callers invoke it after releasing their locks, so no lock is held across an
+     * fsync. Throws if the journal has failed before the record was written.
+     */
+    public void awaitDurable(long sequence) {
+        ByteBuffer batch;
+        long target;
+        boolean ownSync = syncMode == SyncMode.PER_OPERATION; // never let another caller's fsync cover this one
+        synchronized (lock) {
+            while (flushing && failure == null && (durable < sequence || ownSync)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for journal flush", e);
+                }
+            }
+            if (durable >= sequence && (!ownSync || failure != null || closed)) return;
+            checkNotFailed();
+
+            // become the leader for everything appended so far
+            flushing = true;
+            batch = pending;
+            target = appended;
+            pending = spare;
+            spare = null;
+        }
+
+        IOException error = null;
+        int bytes = 0;
+        try {
+            batch.flip();
+            bytes = batch.remaining();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (syncMode != SyncMode.NONE) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+
+        synchronized (lock) {
+            batch.clear();
+            spare = batch;
+            flushing = false;
+            if (error == null) {
+                writtenBytes += bytes;
+                durable = Math.max(durable, target);
+            } else {
+                fail(error);
+            }
+            lock.notifyAll();
+            checkNotFailed();
+        }
+    }
+
+    /**
+     * Closes this segment and continues in a fresh file. Sequence numbers carry on, so callers
+     * waiting on records of this segment return immediately from the new journal.
+     */
+    public Journal rollOver(Path nextFile) throws IOException {
+        close();
+        FileChannel channel = FileChannel.open(nextFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        Journal next = new Journal(channel, syncMode);
+        synchronized (lock) {
+            next.appended = this.appended;
+            next.durable = this.appended;
+        }
+        return next;
+    }
+
+    public SyncMode getSyncMode() {
+        return syncMode;
+    }
+
+    @Override
+    public void close() throws IOException {
+        long last;
+        synchronized (lock) {
+            last = appended;
+        }
+        try {
+            awaitDurable(last);
+            synchronized (lock) {
+                while (flushing) {
+                    lock.wait(); // a PER_OPERATION caller may still be syncing its own record
+                }
+                closed = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the journal", e);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // caller holds lock; writes without syncing, so durable does not move
+    private void writePending() {
+        try {
+            pending.flip();
+            int bytes = pending.remaining();
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            pending.clear();
+            writtenBytes += bytes;
+        } catch (IOException e) {
+            fail(e);
+            checkNotFailed();
+        }
+    }
+
+    // caller holds lock; drops everything not yet written and cuts off any partly written record
+    private void fail(IOException error) {
+        if (failure != null) return;
+        failure = error;
+        pending.clear();
+        try {
+            channel.truncate(writtenBytes);
+        } catch (IOException e) {
+            error.addSuppressed(e); // replay still stops at the torn record's checksum
+        }
+    }
+
+    // caller holds lock
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed; reopen the store to continue", failure);
+        }
+    }
+
+    // caller holds lock
+    private void encode(Entry entry) {
+        byte[] name = entry.name() == null ? null : entry.name().getBytes(StandardCharsets.UTF_8);
+        byte[] text = entry.text() == null ? null : entry.text().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 4 + 4 + 4 + 8 + stringBytes(name) + stringBytes(text);
+
+        ensureCapacity(HEADER_BYTES + length);
+        int start = pending.position();
+        pending.position(start + HEADER_BYTES);
+        pending.put((byte) entry.op().ordinal());
+        pending.putInt(entry.id());
+        pending.putInt(entry.ref());
+        pending.putInt(entry.value());
+        pending.putLong(entry.time());
+        putString(name);
+        putString(text);
+
+        crc.reset();
+        crc.update(pending.array(), pending.arrayOffset() + start + HEADER_BYTES, length);
+        pending.putInt(start, length);
+        pending.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private static Entry decode(ByteBuffer buffer) {
+        Op op = Op.values()[buffer.get()];
+        int id = buffer.getInt();
+        int ref = buffer.getInt();
+        int value = buffer.getInt();
+        long time = buffer.getLong();
+        String name = getString(buffer);
+        String text = getString(buffer);
+        return new Entry(op, id, ref, value, time, name, text);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (pending.remaining() >= bytes) return;
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+        pending.flip();
+        larger.put(pending);
+        pending = larger;
+    }
+
+    private static int stringBytes(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private void putString(byte[] bytes) {
+        if (bytes == null) {
+            pending.putInt(-1);
+        } else {
+            pending.putInt(bytes.length);
+            pending.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.hogwarts.data;
+
+import java.util.List;
+
+/**
+ * One page of a larger result: {@code items} start at position {@code offset} of a result that
+ * has {@code total} entries in all.
+ */
+public record Page<T>(List<T> items, int offset, int total) {
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    public boolean hasNext() {
+        return offset + items.size() < total;
+    }
+}
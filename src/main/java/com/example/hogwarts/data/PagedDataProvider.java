@@ -0,0 +1,23 @@
+package com.example.hogwarts.data;
+
+/**
+ * Positional, read-only access to one entity type in ascending ID order, for views that show only
+ * a window of a large catalogue. Positions shift as entities are added and removed; callers that
+ * need a stable cursor page by key with {@link #fetchAfter}.
+ */
+public interface PagedDataProvider<T> {
+    // Number of entities; positions run from 0 to count() - 1
+    int count();
+
+    // At most {@code limit} entities starting at position {@code offset}
+    Page<T> fetch(int offset, int limit);
+
+    // Position of the entity with this ID, or -(insertion point) - 1 when there is none
+    int positionOf(int id);
+
+    // At most {@code limit} entities whose ID is greater than {@code afterId}
+    default Page<T> fetchAfter(int afterId, int limit) {
+        int position = positionOf(afterId);
+        return fetch(position >= 0 ? position + 1 : -position - 1, limit);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.hogwarts.data;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 password hash. The iteration count is stored with the hash, so raising
+ * the work factor only affects passwords hashed afterwards.
+ *
+ * The encoded form is {@code pbkdf2-sha256$<iterations>$<base64 salt>$<base64 hash>}, which lets
+ * imports carry pre-hashed passwords instead of plaintext.
+ */
+public record PasswordHash(int iterations, byte[] salt, byte[] hash) {
+    // Work factor for new hashes; override with -Dhogwarts.auth.iterations
+    public static final int DEFAULT_ITERATIONS = Integer.getInteger("hogwarts.auth.iterations", 310_000);
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public PasswordHash {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        salt = salt.clone();
+        hash = hash.clone();
+    }
+
+    public static PasswordHash create(String password) {
+        return create(password, DEFAULT_ITERATIONS);
+    }
+
+    public static PasswordHash create(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return new PasswordHash(iterations, salt, derive(password, salt, iterations));
+    }
+
+    // Constant-time comparison against a freshly derived hash
+    public boolean matches(String password) {
+        return MessageDigest.isEqual(this.hash, derive(password, this.salt, this.iterations));
+    }
+
+    public String encode() {
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    public static PasswordHash parse(String encoded) {
+        String[] parts = encoded.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(PREFIX)) {
+            throw new IllegalArgumentException("Not a " + PREFIX + " hash");
+        }
+        Base64.Decoder base64 = Base64.getDecoder();
+        return new PasswordHash(Integer.parseInt(parts[1]), base64.decode(parts[2]), base64.decode(parts[3]));
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.hogwarts.data;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable map from non-negative int keys to values: a 32-way radix trie over the key bits, so
+ * the dense, ascending entity IDs of the store give a shallow, almost full tree (four levels for a
+ * million keys). An update copies only the nodes on the path to its key and shares the rest with
+ * the map it came from, so earlier versions stay valid and readers never need a lock.
+ *
+ * Bulk changes go through an {@link Editor}, which updates nodes it has already copied in place
+ * and only hands out an immutable map from {@link Editor#build()}. Values iterate in key order.
+ */
+final class PersistentIntMap<V> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0, 0);
+
+    // Receives each entry in key order
+    @FunctionalInterface
+    interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    // Nodes are Object[WIDTH + 1]: child nodes (or values at the bottom level), then the token of the editor that owns them
+    private final Object[] root; // null when empty
+    private final int shift; // the root covers keys below 1 << (shift + BITS)
+    private final int size;
+
+    private PersistentIntMap(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    V get(int key) {
+        return lookup(root, shift, key);
+    }
+
+    PersistentIntMap<V> with(int key, V value) {
+        return edit().put(key, value).build();
+    }
+
+    PersistentIntMap<V> without(int key) {
+        return get(key) == null ? this : edit().remove(key).build();
+    }
+
+    Editor<V> edit() {
+        return new Editor<>(this);
+    }
+
+    void forEach(EntryConsumer<? super V> action) {
+        if (root != null) forEach(root, shift, 0, action);
+    }
+
+    // Values with keys of at least {@code fromKey}, in key order
+    Iterator<V> iterator(int fromKey) {
+        return new Iterator<>() {
+            private int next = ceiling(Math.max(0, fromKey));
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public V next() {
+                if (next < 0) throw new NoSuchElementException();
+                V value = get(next);
+                next = next == Integer.MAX_VALUE ? -1 : ceiling(next + 1);
+                return value;
+            }
+        };
+    }
+
+    /*
+     * A map with the same keys and every value passed through {@code change}, which must not
+     * return null. Node structure is rebuilt in one pass rather than path by path.
+     */
+    PersistentIntMap<V> mapValues(UnaryOperator<V> change) {
+        return root == null ? this : new PersistentIntMap<>(mapValues(root, shift, change), shift, size);
+    }
+
+    // Smallest key >= from that is present, or -1
+    private int ceiling(int from) {
+        if (root == null || (from >>> shift) >>> BITS != 0) return -1;
+        return ceiling(root, shift, 0, from);
+    }
+
+    private static int ceiling(Object[] node, int level, int prefix, int from) {
+        int start = from <= prefix ? 0 : (from >>> level) & MASK;
+        for (int i = start; i < WIDTH; i++) {
+            Object slot = node[i];
+            if (slot == null) continue;
+            int slotPrefix = prefix | (i << level);
+            if (level == 0) return slotPrefix;
+            int found = ceiling((Object[]) slot, level - BITS, slotPrefix, i == start ? from : slotPrefix);
+            if (found >= 0) return found;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V lookup(Object[] root, int shift, int key) {
+        if (root == null || key < 0 || (key >>> shift) >>> BITS != 0) return null;
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(key >>> level) & MASK];
+            if (node == null) return null;
+        }
+        return (V) node[key & MASK];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEach(Object[] node, int level, int prefix, EntryConsumer<? super V> action) {
+        for (int i = 0; i < WIDTH; i++) {
+            Object slot = node[i];
+            if (slot == null) continue;
+            if (level == 0) {
+                action.accept(prefix | i, (V) slot);
+            } else {
+                forEach((Object[]) slot, level - BITS, prefix | (i << level), action);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Object[] mapValues(Object[] node, int level, UnaryOperator<V> change) {
+        Object[] copy = new Object[WIDTH + 1];
+        for (int i = 0; i < WIDTH; i++) {
+            Object slot = node[i];
+            if (slot == null) continue;
+            copy[i] = level == 0 ? change.apply((V) slot) : mapValues((Object[]) slot, level - BITS, change);
+        }
+        return copy;
+    }
+
+    /**
+     * Builds a new map from an existing one. Each node is copied the first time the editor writes
+     * below it and written in place afterwards, so a batch of changes costs one copy per touched
+     * node rather than one per change. The editor cannot be used once it has built its map.
+     */
+    static final class Editor<V> {
+        private Object token = new Object(); // marks the nodes this editor copied and may still write
+        private Object[] root;
+        private int shift;
+        private int size;
+        private boolean changed;
+        private final PersistentIntMap<V> base;
+
+        private Editor(PersistentIntMap<V> base) {
+            this.base = base;
+            this.root = base.root;
+            this.shift = base.shift;
+            this.size = base.size;
+        }
+
+        V get(int key) {
+            return lookup(root, shift, key);
+        }
+
+        int size() {
+            return size;
+        }
+
+        Editor<V> put(int key, V value) {
+            if (key < 0) throw new IllegalArgumentException("Keys must not be negative: " + key);
+            if (value == null) throw new IllegalArgumentException("Values must not be null");
+            ensureOpen();
+            if (root == null) {
+                root = node();
+                shift = 0;
+            }
+            while ((key >>> shift) >>> BITS != 0) { // grow upwards until the root covers the key
+                Object[] grown = node();
+                grown[0] = root;
+                root = grown;
+                shift += BITS;
+            }
+            root = owned(root);
+            Object[] node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                int index = (key >>> level) & MASK;
+                Object[] child = (Object[]) node[index];
+                child = child == null ? node() : owned(child);
+                node[index] = child;
+                node = child;
+            }
+            if (node[key & MASK] == null) size++;
+            node[key & MASK] = value;
+            changed = true;
+            return this;
+        }
+
+        Editor<V> remove(int key) {
+            ensureOpen();
+            if (get(key) == null) return this;
+            root = remove(root, shift, key);
+            size--;
+            changed = true;
+            if (root == null) shift = 0;
+            return this;
+        }
+
+        // Empty nodes are dropped on the way back up, so deleted ID ranges do not leave dead branches
+        private Object[] remove(Object[] node, int level, int key) {
+            Object[] copy = owned(node);
+            int index = (key >>> level) & MASK;
+            copy[index] = level == 0 ? null : remove((Object[]) copy[index], level - BITS, key);
+            for (int i = 0; i < WIDTH; i++) {
+                if (copy[i] != null) return copy;
+            }
+            return null;
+        }
+
+        PersistentIntMap<V> build() {
+            ensureOpen();
+            token = null;
+            return changed ? new PersistentIntMap<>(root, shift, size) : base;
+        }
+
+        private Object[] owned(Object[] node) {
+            if (node[WIDTH] == token) return node;
+            Object[] copy = node.clone();
+            copy[WIDTH] = token;
+            return copy;
+        }
+
+        private Object[] node() {
+            Object[] node = new Object[WIDTH + 1];
+            node[WIDTH] = token;
+            return node;
+        }
+
+        private void ensureOpen() {
+            if (token == null) throw new IllegalStateException("The editor has already built its map");
+        }
+    }
+}
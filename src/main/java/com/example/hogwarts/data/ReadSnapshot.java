@@ -0,0 +1,288 @@
+package com.example.hogwarts.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, point-in-time view of every live wizard and artifact and of who owns what, from
+ * {@link DataStore#readSnapshot()}. Readers can iterate it for as long as they like while the
+ * store keeps changing: nothing in it is ever written again, and it matches the store as it was
+ * between two applied changes, never halfway through one.
+ *
+ * The store keeps the latest view behind one atomic reference and replaces it after every applied
+ * change with a copy that shares everything but the changed paths of its {@link PersistentIntMap}s,
+ * so taking a view is a single read and writers never wait for readers. Conditions are kept
+ * 64 artifacts to a chunk, so the nightly wear pass remaps chunks instead of rebuilding rows.
+ */
+public final class ReadSnapshot {
+    private static final int CHUNK_BITS = 6;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final byte ABSENT = -1;
+
+    static final ReadSnapshot EMPTY = empty(0);
+
+    public record WizardState(int id, String name, long version) { }
+
+    // ownerId is 0 for an unassigned artifact
+    public record ArtifactState(int id, String name, String description, int condition, int ownerId, long version) {
+        public boolean isAssigned() {
+            return ownerId != 0;
+        }
+    }
+
+    // version leaves out the condition epoch, so a bulk pass need not touch every row
+    private record ArtifactRow(int id, String name, String description, int ownerId, long version) { }
+
+    private final PersistentIntMap<WizardState> wizards;
+    private final PersistentIntMap<ArtifactRow> artifacts;
+    private final PersistentIntMap<PersistentIntMap<Boolean>> owned; // wizard ID -> IDs of the artifacts it owns
+    private final PersistentIntMap<byte[]> conditions; // artifact ID >> CHUNK_BITS -> chunk; chunks are never written once built
+    private final int assignedCount;
+    private final long conditionEpoch; // bulk condition passes so far, added to every artifact version
+
+    private ReadSnapshot(PersistentIntMap<WizardState> wizards, PersistentIntMap<ArtifactRow> artifacts,
+                         PersistentIntMap<PersistentIntMap<Boolean>> owned, PersistentIntMap<byte[]> conditions,
+                         int assignedCount, long conditionEpoch) {
+        this.wizards = wizards;
+        this.artifacts = artifacts;
+        this.owned = owned;
+        this.conditions = conditions;
+        this.assignedCount = assignedCount;
+        this.conditionEpoch = conditionEpoch;
+    }
+
+    // An empty view whose artifact versions start from the store's current condition epoch
+    static ReadSnapshot empty(long conditionEpoch) {
+        return new ReadSnapshot(PersistentIntMap.empty(), PersistentIntMap.empty(), PersistentIntMap.empty(),
+                PersistentIntMap.empty(), 0, conditionEpoch);
+    }
+
+    public int getWizardCount() {
+        return wizards.size();
+    }
+
+    public int getArtifactCount() {
+        return artifacts.size();
+    }
+
+    public int getUnassignedCount() {
+        return artifacts.size() - assignedCount;
+    }
+
+    // null if there was no such wizard when the snapshot was taken
+    public WizardState findWizardById(int id) {
+        return wizards.get(id);
+    }
+
+    public ArtifactState findArtifactById(int id) {
+        return state(artifacts.get(id));
+    }
+
+    // Wizards by ascending ID
+    public Iterable<WizardState> wizards() {
+        return () -> wizards.iterator(0);
+    }
+
+    // Artifacts by ascending ID
+    public Iterable<ArtifactState> artifacts() {
+        return () -> {
+            Iterator<ArtifactRow> rows = artifacts.iterator(0);
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public ArtifactState next() {
+                    return state(rows.next());
+                }
+            };
+        };
+    }
+
+    // The wizard's artifacts by ascending ID
+    public List<ArtifactState> findArtifactsByOwner(int wizardId) {
+        PersistentIntMap<Boolean> ids = owned.get(wizardId);
+        if (ids == null) return new ArrayList<>();
+        List<ArtifactState> result = new ArrayList<>(ids.size());
+        ids.forEach((id, present) -> result.add(findArtifactById(id)));
+        return result;
+    }
+
+    public int getArtifactCount(int wizardId) {
+        PersistentIntMap<Boolean> ids = owned.get(wizardId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    // A scan of every artifact, as the snapshot keeps no separate index of unowned ones
+    public List<ArtifactState> findUnassignedArtifacts() {
+        List<ArtifactState> result = new ArrayList<>(getUnassignedCount());
+        artifacts.forEach((id, row) -> {
+            if (row.ownerId() == 0) result.add(state(row));
+        });
+        return result;
+    }
+
+    private ArtifactState state(ArtifactRow row) {
+        if (row == null) return null;
+        return new ArtifactState(row.id(), row.name(), row.description(), conditionOf(row.id()), row.ownerId(),
+                row.version() + conditionEpoch);
+    }
+
+    private int conditionOf(int id) {
+        byte[] chunk = conditions.get(id >>> CHUNK_BITS);
+        return chunk == null ? ABSENT : chunk[id & (CHUNK - 1)];
+    }
+
+    // Single changes, as the store applies them
+
+    ReadSnapshot withWizard(int id, String name, long version) {
+        return new ReadSnapshot(wizards.with(id, new WizardState(id, name, version)), artifacts, owned, conditions,
+                assignedCount, conditionEpoch);
+    }
+
+    ReadSnapshot withArtifact(int id, String name, String description, int condition, int ownerId, long version) {
+        return edit().putArtifact(id, name, description, condition, ownerId, version).build();
+    }
+
+    ReadSnapshot withoutArtifact(int id) {
+        return edit().removeArtifact(id).build();
+    }
+
+    ReadSnapshot withoutArtifacts(int[] ids) {
+        Editor editor = edit();
+        for (int id : ids) editor.removeArtifact(id);
+        return editor.build();
+    }
+
+    // Every condition mapped through a 101-entry table, as ConditionStore.remap does to the live ones,
+    // moving to the next condition epoch as the store does when the pass changed something
+    ReadSnapshot withConditionsRemapped(byte[] table) {
+        return new ReadSnapshot(wizards, artifacts, owned, conditions.mapValues(chunk -> {
+            byte[] remapped = chunk.clone();
+            for (int i = 0; i < remapped.length; i++) {
+                if (remapped[i] >= 0) remapped[i] = table[remapped[i]];
+            }
+            return remapped;
+        }), assignedCount, conditionEpoch + 1);
+    }
+
+    Editor edit() {
+        return new Editor(this);
+    }
+
+    // Applies many changes with one copy of each touched node, for rebuilding the whole view
+    static final class Editor {
+        private final PersistentIntMap.Editor<WizardState> wizards;
+        private final PersistentIntMap.Editor<ArtifactRow> artifacts;
+        private final PersistentIntMap.Editor<PersistentIntMap<Boolean>> owned;
+        private final PersistentIntMap.Editor<byte[]> conditions;
+        private final Map<Integer, PersistentIntMap.Editor<Boolean>> ownedEdits = new HashMap<>(); // sets changed so far
+        private final PersistentIntMap<byte[]> sharedConditions; // chunks found here must be copied before writing
+        private int assignedCount;
+        private final long conditionEpoch;
+
+        private Editor(ReadSnapshot base) {
+            this.wizards = base.wizards.edit();
+            this.artifacts = base.artifacts.edit();
+            this.owned = base.owned.edit();
+            this.conditions = base.conditions.edit();
+            this.sharedConditions = base.conditions;
+            this.assignedCount = base.assignedCount;
+            this.conditionEpoch = base.conditionEpoch;
+        }
+
+        Editor putWizard(int id, String name, long version) {
+            wizards.put(id, new WizardState(id, name, version));
+            return this;
+        }
+
+        // The artifacts it owned keep pointing at it until they are detached, as the live ones do
+        Editor removeWizard(int id) {
+            wizards.remove(id);
+            owned.remove(id);
+            ownedEdits.remove(id);
+            return this;
+        }
+
+        Editor putArtifact(int id, String name, String description, int condition, int ownerId, long version) {
+            ArtifactRow previous = artifacts.get(id);
+            int previousOwner = previous == null ? 0 : previous.ownerId();
+            if (previousOwner != ownerId) {
+                disown(previousOwner, id);
+                if (ownerId != 0) {
+                    ownedBy(ownerId).put(id, Boolean.TRUE);
+                    assignedCount++;
+                }
+            }
+            artifacts.put(id, new ArtifactRow(id, name, description, ownerId, version - conditionEpoch));
+            setCondition(id, (byte) condition);
+            return this;
+        }
+
+        Editor removeArtifact(int id) {
+            ArtifactRow previous = artifacts.get(id);
+            if (previous == null) return this;
+            disown(previous.ownerId(), id);
+            artifacts.remove(id);
+            setCondition(id, ABSENT);
+            return this;
+        }
+
+        ReadSnapshot build() {
+            ownedEdits.forEach((ownerId, edit) -> {
+                PersistentIntMap<Boolean> ids = edit.build();
+                if (ids.isEmpty()) {
+                    owned.remove(ownerId);
+                } else {
+                    owned.put(ownerId, ids);
+                }
+            });
+            return new ReadSnapshot(wizards.build(), artifacts.build(), owned.build(), conditions.build(), assignedCount,
+                    conditionEpoch);
+        }
+
+        private PersistentIntMap.Editor<Boolean> ownedBy(int ownerId) {
+            return ownedEdits.computeIfAbsent(ownerId, id -> {
+                PersistentIntMap<Boolean> ids = owned.get(id);
+                return (ids == null ? PersistentIntMap.<Boolean>empty() : ids).edit();
+            });
+        }
+
+        private void disown(int ownerId, int artifactId) {
+            if (ownerId == 0) return;
+            assignedCount--;
+            ownedBy(ownerId).remove(artifactId);
+        }
+
+        private void setCondition(int id, byte condition) {
+            int key = id >>> CHUNK_BITS;
+            byte[] chunk = conditions.get(key);
+            if (chunk == null) {
+                if (condition == ABSENT) return;
+                chunk = new byte[CHUNK];
+                Arrays.fill(chunk, ABSENT);
+            } else if (chunk == sharedConditions.get(key)) {
+                chunk = chunk.clone();
+            }
+            chunk[id & (CHUNK - 1)] = condition;
+            if (condition == ABSENT && isVacant(chunk)) {
+                conditions.remove(key);
+            } else {
+                conditions.put(key, chunk);
+            }
+        }
+
+        private static boolean isVacant(byte[] chunk) {
+            for (byte condition : chunk) {
+                if (condition != ABSENT) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.hogwarts.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary image of the DataStore, read back through memory-mapped windows.
+ *
+ * Layout (big-endian): a fixed header with the journal generation the snapshot covers and the
+ * ID counters, then wizards, artifacts and transfers as fixed-width fields followed by
+ * length-prefixed UTF-8 strings. Entities that were deleted but are still referenced by
+ * transfers are written with {@code live = false} so the history can be rebuilt.
+ */
+final class Snapshot {
+    private static final int MAGIC = 0x48475331; // "HGS1"
+    private static final long WINDOW = 1L << 30; // remap every 1 GiB so huge snapshots still load
+
+    record WizardRow(int id, boolean live, String name) { }
+    record ArtifactRow(int id, boolean live, int condition, int ownerId, String name, String description) { }
+    record TransferRow(int id, String type, int artifactId, int wizardId, long epochMicros) { }
+
+    // The rows are produced while the file is written, so each count must match what its rows yield
+    record Contents(long generation, int nextWizardId, int nextArtifactId, int nextTransferId,
+                    int wizardCount, Iterable<WizardRow> wizards, int artifactCount, Iterable<ArtifactRow> artifacts,
+                    int transferCount, Iterable<TransferRow> transfers) { }
+
+    // Receives rows while a snapshot is read, so loading never materialises an intermediate copy
+    interface Loader {
+        void header(long generation, int nextWizardId, int nextArtifactId, int nextTransferId);
+        void wizard(int id, boolean live, String name);
+        void artifact(int id, boolean live, int condition, int ownerId, String name, String description);
+        void transfer(int id, String type, int artifactId, int wizardId, long epochMicros);
+    }
+
+    private Snapshot() {
+    }
+
+    // Writes to a temporary file, syncs it and atomically replaces {@code file}
+    static void write(Path file, Contents contents) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeLong(contents.generation());
+            out.writeInt(contents.nextWizardId());
+            out.writeInt(contents.nextArtifactId());
+            out.writeInt(contents.nextTransferId());
+            out.writeInt(contents.wizardCount());
+            out.writeInt(contents.artifactCount());
+            out.writeInt(contents.transferCount());
+
+            int written = 0;
+            for (WizardRow row : contents.wizards()) {
+                out.writeInt(row.id());
+                out.writeBoolean(row.live());
+                writeString(out, row.name());
+                written++;
+            }
+            checkCount("wizard", contents.wizardCount(), written);
+            written = 0;
+            for (ArtifactRow row : contents.artifacts()) {
+                out.writeInt(row.id());
+                out.writeBoolean(row.live());
+                out.writeByte(row.condition());
+                out.writeInt(row.ownerId());
+                writeString(out, row.name());
+                writeString(out, row.description());
+                written++;
+            }
+            checkCount("artifact", contents.artifactCount(), written);
+            written = 0;
+            for (TransferRow row : contents.transfers()) {
+                out.writeInt(row.id());
+                out.writeInt(row.artifactId());
+                out.writeInt(row.wizardId());
+                out.writeLong(row.epochMicros());
+                writeString(out, row.type());
+                written++;
+            }
+            checkCount("transfer", contents.transferCount(), written);
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // A mismatch would make the file unreadable, so it is never moved into place
+    private static void checkCount(String kind, int expected, int written) throws IOException {
+        if (expected != written) {
+            throw new IOException("Expected " + expected + " " + kind + " rows but wrote " + written);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static void read(Path file, Loader loader) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedInput in = new MappedInput(channel);
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            loader.header(in.getLong(), in.getInt(), in.getInt(), in.getInt());
+            int wizardCount = in.getInt();
+            int artifactCount = in.getInt();
+            int transferCount = in.getInt();
+
+            for (int i = 0; i < wizardCount; i++) {
+                int id = in.getInt();
+                boolean live = in.get() != 0;
+                loader.wizard(id, live, in.getString());
+            }
+            for (int i = 0; i < artifactCount; i++) {
+                int id = in.getInt();
+                boolean live = in.get() != 0;
+                int condition = in.get();
+                int ownerId = in.getInt();
+                String name = in.getString();
+                loader.artifact(id, live, condition, ownerId, name, in.getString());
+            }
+            Map<String, String> types = new HashMap<>(); // only a handful of distinct transfer types
+            for (int i = 0; i < transferCount; i++) {
+                int id = in.getInt();
+                int artifactId = in.getInt();
+                int wizardId = in.getInt();
+                long time = in.getLong();
+                String type = types.computeIfAbsent(in.getString(), t -> t);
+                loader.transfer(id, type, artifactId, wizardId, time);
+            }
+        }
+    }
+
+    // Sequential reader over a file mapped in windows of at most WINDOW bytes
+    private static final class MappedInput {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        MappedInput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0);
+        }
+
+        private void map(long position) throws IOException {
+            this.windowStart = position;
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, size - position));
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return;
+            long position = windowStart + buffer.position();
+            if (size - position < bytes) {
+                throw new IOException("Snapshot is truncated");
+            }
+            map(position);
+        }
+
+        byte get() throws IOException {
+            ensure(1);
+            return buffer.get();
+        }
+
+        int getInt() throws IOException {
+            ensure(4);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(8);
+            return buffer.getLong();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            ensure(length);
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.hogwarts.data;
+
+import java.util.Arrays;
+
+/**
+ * Growable sorted set of ints in a single array, for ID lists that would otherwise be boxed.
+ * IDs are issued in ascending order, so adds are almost always appends. Not thread-safe; owners
+ * guard it with their own lock.
+ */
+final class SortedIntSet {
+    private int[] values = new int[4];
+    private int size;
+
+    boolean add(int value) {
+        if (size == 0 || values[size - 1] < value) {
+            grow();
+            values[size++] = value;
+            return true;
+        }
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) return false;
+        int insertAt = -index - 1;
+        grow();
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) return false;
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    // Removes every value of {@code sorted} (ascending) in one pass over the array; returns how many were present
+    int removeAll(int[] sorted, int length) {
+        int kept = 0;
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            int value = values[i];
+            while (next < length && sorted[next] < value) next++;
+            if (next < length && sorted[next] == value) continue;
+            values[kept++] = value;
+        }
+        int removed = size - kept;
+        size = kept;
+        return removed;
+    }
+
+    int removeAll(SortedIntSet other) {
+        return removeAll(other.values, other.size);
+    }
+
+    boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    // Position of {@code value}, or -(insertion point) - 1 when absent
+    int indexOf(int value) {
+        return Arrays.binarySearch(values, 0, size, value);
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Bytes held by the backing array, including unused capacity
+    long capacityBytes() {
+        return 16 + 4L * values.length;
+    }
+
+    private void grow() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+    }
+}
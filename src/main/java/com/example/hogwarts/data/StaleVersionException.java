@@ -0,0 +1,11 @@
+package com.example.hogwarts.data;
+
+/**
+ * Thrown by a conditional update when the entity has moved past the version the caller read.
+ * Nothing was applied; the caller should re-read the entity and try again.
+ */
+public class StaleVersionException extends IllegalStateException {
+    public StaleVersionException(String message) {
+        super(message);
+    }
+}
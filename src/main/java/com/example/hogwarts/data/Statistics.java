@@ -0,0 +1,25 @@
+package com.example.hogwarts.data;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard aggregates, read from counters the DataStore keeps up to date on every mutation, so
+ * taking one costs the same at any catalogue size. Counters are read one after another while
+ * other threads may be changing them, so totals can briefly disagree by the changes in flight.
+ *
+ * @param conditionHistogram artifacts per 10% condition bucket: 0-9%, 10-19%, ..., 90-100%
+ * @param blockedCount artifacts whose condition is too low to be assigned
+ * @param transfersPerDay transfers recorded on each of the last few local dates, oldest first
+ */
+public record Statistics(int artifactCount, int assignedCount, int unassignedCount, int wizardCount,
+                         List<Integer> conditionHistogram, int blockedCount, int transferCount,
+                         Map<LocalDate, Integer> transfersPerDay) {
+    public Statistics {
+        conditionHistogram = List.copyOf(conditionHistogram);
+        transfersPerDay = Collections.unmodifiableMap(new LinkedHashMap<>(transfersPerDay));
+    }
+}
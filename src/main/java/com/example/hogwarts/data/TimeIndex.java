@@ -0,0 +1,184 @@
+package com.example.hogwarts.data;
+
+import java.util.Arrays;
+
+/**
+ * Transfer IDs ordered by (timestamp, ID), held in two parallel primitive arrays. Transfers are
+ * recorded almost in time order, so adds are appends or land a few slots from the end. Range
+ * bounds are found by binary search, which makes a range query O(log n + k). Not thread-safe;
+ * the owning TransferLog guards it.
+ */
+final class TimeIndex {
+    private long[] times = new long[4];
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(long time, int id) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int insertAt = size;
+        while (insertAt > 0 && compare(time, id, insertAt - 1) < 0) {
+            insertAt--; // only walks back over the few entries recorded out of order
+        }
+        if (insertAt < size) {
+            System.arraycopy(times, insertAt, times, insertAt + 1, size - insertAt);
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        }
+        times[insertAt] = time;
+        ids[insertAt] = id;
+        size++;
+    }
+
+    // Adds at the end whatever the order; the index is only usable again after sort()
+    void append(long time, int id) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        times[size] = time;
+        ids[size] = id;
+        size++;
+    }
+
+    // Restores (time, ID) order after appends: one pass when already in order, else a merge sort
+    void sort() {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = compare(times[i - 1], ids[i - 1], times[i], ids[i]) <= 0;
+        }
+        if (sorted) return;
+
+        long[] fromTimes = times;
+        int[] fromIds = ids;
+        long[] toTimes = new long[times.length];
+        int[] toIds = new int[ids.length];
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size; low += 2 * width) {
+                int middle = Math.min(low + width, size);
+                int high = Math.min(low + 2 * width, size);
+                int left = low;
+                int right = middle;
+                for (int target = low; target < high; target++) {
+                    if (right >= high || (left < middle
+                            && compare(fromTimes[left], fromIds[left], fromTimes[right], fromIds[right]) <= 0)) {
+                        toTimes[target] = fromTimes[left];
+                        toIds[target] = fromIds[left++];
+                    } else {
+                        toTimes[target] = fromTimes[right];
+                        toIds[target] = fromIds[right++];
+                    }
+                }
+            }
+            long[] swapTimes = fromTimes;
+            fromTimes = toTimes;
+            toTimes = swapTimes;
+            int[] swapIds = fromIds;
+            fromIds = toIds;
+            toIds = swapIds;
+        }
+        times = fromTimes;
+        ids = fromIds;
+    }
+
+    /**
+     * Adds every entry of {@code batch} at once. The batch is sorted and then merged in from the
+     * back, so a batch of old history costs one pass over the index rather than a shift for every entry.
+     */
+    void addAll(TimeIndex batch) {
+        batch.sort();
+        int count = batch.size;
+        if (size + count > times.length) {
+            int capacity = Math.max(times.length * 2, size + count);
+            times = Arrays.copyOf(times, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        int existing = size - 1;
+        for (int next = count - 1, target = size + count - 1; next >= 0; target--) {
+            if (existing >= 0 && compare(batch.times[next], batch.ids[next], existing) < 0) {
+                times[target] = times[existing];
+                ids[target] = ids[existing];
+                existing--;
+            } else {
+                times[target] = batch.times[next];
+                ids[target] = batch.ids[next];
+                next--;
+            }
+        }
+        size += count;
+    }
+
+    void clear() {
+        times = new long[4];
+        ids = new int[4];
+        size = 0;
+    }
+
+    boolean remove(long time, int id) {
+        int index = lowerBound(time);
+        while (index < size && times[index] == time && ids[index] != id) {
+            index++;
+        }
+        if (index >= size || times[index] != time) return false;
+        System.arraycopy(times, index + 1, times, index, size - index - 1);
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    // First position whose time is >= {@code time}
+    int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position whose entry comes after ({@code time}, {@code id}); a cursor for resuming a walk
+    int positionAfter(long time, int id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(time, id, mid) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    long timeAt(int index) {
+        return times[index];
+    }
+
+    int idAt(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long capacityBytes() {
+        return 32 + 12L * times.length;
+    }
+
+    private int compare(long time, int id, int index) {
+        return compare(time, id, times[index], ids[index]);
+    }
+
+    private static int compare(long time, int id, long otherTime, int otherId) {
+        int byTime = Long.compare(time, otherTime);
+        return byTime != 0 ? byTime : Integer.compare(id, otherId);
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.hogwarts.data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Transfer history stored column by column in primitive arrays.
+ *
+ * A transfer's ID is its slot: the artifact ID, wizard ID, type code and timestamp of transfer
+ * {@code id} live at index {@code id - 1} of four parallel columns, which grow in fixed-size
+ * chunks so appends never copy existing history. Type strings are interned into a one-byte code
+ * (0 marks an unused slot) and timestamps are microseconds since the epoch. A global index and
+ * one per artifact and per wizard keep transfer IDs in time order for range queries, and a count
+ * per local date feeds the dashboard.
+ * Callers get short-lived {@link Row}s and build whatever view objects they need from them.
+ */
+final class TransferLog {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS; // 64k transfers per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int SCAN_BATCH = 4096; // slots read per lock acquisition by rowsBefore
+
+    record Row(int id, String type, int artifactId, int wizardId, long time) { }
+
+    // One page of a range query plus the size of the whole range
+    record Slice(List<Row> rows, int total) { }
+
+    private int[][] artifactIds = new int[16][];
+    private int[][] wizardIds = new int[16][];
+    private byte[][] typeCodes = new byte[16][];
+    private long[][] times = new long[16][];
+    private int chunks;
+
+    private final List<String> typeNames = new ArrayList<>(List.of("")); // index = code
+    private final Map<String, Byte> codesByName = new HashMap<>();
+    private final TimeIndex byTime = new TimeIndex();
+    private final Map<Integer, TimeIndex> byArtifact = new HashMap<>();
+    private final Map<Integer, TimeIndex> byWizard = new HashMap<>();
+    private final Map<Long, Integer> countByDay = new HashMap<>(); // local epoch day -> transfers
+    private final ZoneId zone = ZoneId.systemDefault();
+    private int size;
+    private boolean loading; // while restoring, rows only fill the columns and finishLoading builds the indexes
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void put(int id, String type, int artifactId, int wizardId, long time) {
+        if (id < 1) {
+            throw new IllegalArgumentException("Transfer IDs start at 1");
+        }
+        lock.writeLock().lock();
+        try {
+            store(id, codeFor(type), artifactId, wizardId, time);
+            if (loading) return;
+            byTime.add(time, id);
+            if (artifactId != 0) byArtifact.computeIfAbsent(artifactId, k -> new TimeIndex()).add(time, id);
+            if (wizardId != 0) byWizard.computeIfAbsent(wizardId, k -> new TimeIndex()).add(time, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * As put for every row, for imports of old history. The rows are grouped by index, and each
+     * group is sorted once and merged into its index in one pass, instead of every row walking
+     * back from the end of the global, artifact and wizard index it lands in. Every type is
+     * resolved before the first row is stored, so a batch that would overflow the type codes
+     * changes nothing.
+     */
+    void putAll(List<Row> rows) {
+        for (Row row : rows) {
+            if (row.id() < 1) {
+                throw new IllegalArgumentException("Transfer IDs start at 1");
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            TimeIndex timeBatch = new TimeIndex();
+            Map<Integer, TimeIndex> artifactBatches = new HashMap<>();
+            Map<Integer, TimeIndex> wizardBatches = new HashMap<>();
+            byte[] codes = codesFor(rows);
+            for (int i = 0; i < codes.length; i++) {
+                Row row = rows.get(i);
+                store(row.id(), codes[i], row.artifactId(), row.wizardId(), row.time());
+                timeBatch.append(row.time(), row.id());
+                if (row.artifactId() != 0) artifactBatches.computeIfAbsent(row.artifactId(), k -> new TimeIndex()).append(row.time(), row.id());
+                if (row.wizardId() != 0) wizardBatches.computeIfAbsent(row.wizardId(), k -> new TimeIndex()).append(row.time(), row.id());
+            }
+            if (loading) return;
+            byTime.addAll(timeBatch);
+            mergeInto(byArtifact, artifactBatches);
+            mergeInto(byWizard, wizardBatches);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void mergeInto(Map<Integer, TimeIndex> indexes, Map<Integer, TimeIndex> batches) {
+        batches.forEach((key, batch) -> indexes.computeIfAbsent(key, k -> new TimeIndex()).addAll(batch));
+    }
+
+    // Restoring a snapshot and replaying journals: rows fill the columns only until finishLoading
+    void startLoading() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Builds every index from the columns in one scan, then sorts each index once
+    void finishLoading() {
+        lock.writeLock().lock();
+        try {
+            if (!loading) return;
+            loading = false;
+            byTime.clear();
+            byArtifact.clear();
+            byWizard.clear();
+            int slots = chunks << CHUNK_BITS;
+            for (int slot = 0; slot < slots; slot++) {
+                int chunk = slot >>> CHUNK_BITS;
+                int offset = slot & CHUNK_MASK;
+                if (typeCodes[chunk][offset] == 0) continue;
+                int id = slot + 1;
+                long time = times[chunk][offset];
+                byTime.append(time, id);
+                int artifactId = artifactIds[chunk][offset];
+                int wizardId = wizardIds[chunk][offset];
+                if (artifactId != 0) byArtifact.computeIfAbsent(artifactId, k -> new TimeIndex()).append(time, id);
+                if (wizardId != 0) byWizard.computeIfAbsent(wizardId, k -> new TimeIndex()).append(time, id);
+            }
+            byTime.sort();
+            byArtifact.values().forEach(TimeIndex::sort);
+            byWizard.values().forEach(TimeIndex::sort);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Writes the columns and the per-day counts, unindexing a row it replaces; caller holds the write lock
+    private void store(int id, byte typeCode, int artifactId, int wizardId, long time) {
+        int slot = id - 1;
+        int chunk = slot >>> CHUNK_BITS;
+        int offset = slot & CHUNK_MASK;
+        ensureChunk(chunk);
+        if (typeCodes[chunk][offset] == 0) {
+            size++;
+        } else {
+            unindex(id, artifactIds[chunk][offset], wizardIds[chunk][offset], times[chunk][offset]);
+        }
+        artifactIds[chunk][offset] = artifactId;
+        wizardIds[chunk][offset] = wizardId;
+        typeCodes[chunk][offset] = typeCode;
+        times[chunk][offset] = time;
+        countByDay.merge(dayOf(time), 1, Integer::sum);
+    }
+
+    // Transfers of one artifact, oldest first
+    List<Row> findByArtifact(int artifactId) {
+        return findBetween(byArtifact, artifactId, Long.MIN_VALUE, Long.MAX_VALUE, 0, Integer.MAX_VALUE).rows();
+    }
+
+    // Transfers involving one wizard, oldest first
+    List<Row> findByWizard(int wizardId) {
+        return findBetween(byWizard, wizardId, Long.MIN_VALUE, Long.MAX_VALUE, 0, Integer.MAX_VALUE).rows();
+    }
+
+    /**
+     * Transfers with {@code from <= time < to}, oldest first, skipping {@code offset} and returning
+     * at most {@code limit}. Both bounds are binary searches, so the cost is O(log n + limit).
+     */
+    Slice findBetween(long from, long to, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return slice(byTime, from, to, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // As above, restricted to one artifact
+    Slice findBetweenForArtifact(int artifactId, long from, long to, int offset, int limit) {
+        return findBetween(byArtifact, artifactId, from, to, offset, limit);
+    }
+
+    // As above, restricted to one wizard
+    Slice findBetweenForWizard(int wizardId, long from, long to, int offset, int limit) {
+        return findBetween(byWizard, wizardId, from, to, offset, limit);
+    }
+
+    /**
+     * Up to {@code limit} transfers with {@code from <= time < to} that come after the cursor
+     * ({@code afterTime}, {@code afterId}) in time order, restricted to one artifact and/or one
+     * wizard when those are non-zero. Resuming from the last row returned walks a range in batches
+     * without holding the lock in between; rows added behind the cursor meanwhile are not seen.
+     */
+    List<Row> scan(int artifactId, int wizardId, long from, long to, long afterTime, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            TimeIndex index = artifactId != 0 ? byArtifact.get(artifactId)
+                    : wizardId != 0 ? byWizard.get(wizardId) : byTime;
+            List<Row> rows = new ArrayList<>(Math.min(limit, 1024));
+            if (index == null) return rows;
+            int position = Math.max(index.lowerBound(from), index.positionAfter(afterTime, afterId));
+            for (; position < index.size() && index.timeAt(position) < to && rows.size() < limit; position++) {
+                Row row = row(index.idAt(position));
+                if (artifactId != 0 && wizardId != 0 && row.wizardId() != wizardId) continue;
+                rows.add(row);
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean referencesArtifact(int artifactId) {
+        lock.readLock().lock();
+        try {
+            return byArtifact.containsKey(artifactId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean referencesWizard(int wizardId) {
+        lock.readLock().lock();
+        try {
+            return byWizard.containsKey(wizardId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Transfers recorded on each of {@code days} consecutive local dates starting at {@code first}
+    int[] countPerDay(LocalDate first, int days) {
+        int[] counts = new int[days];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < days; i++) {
+                counts[i] = countByDay.getOrDefault(first.toEpochDay() + i, 0);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    /*
+     * Every transfer with an ID below {@code endId}, in ID order. The slots are read SCAN_BATCH at
+     * a time, each batch under its own read lock, so a long walk never holds up writers. The store
+     * never rewrites a slot below an ID it has handed out, so the walk sees exactly the rows that
+     * existed when endId was read.
+     */
+    Iterable<Row> rowsBefore(int endId) {
+        return () -> new Iterator<>() {
+            private List<Row> batch = List.of();
+            private int position;
+            private int nextId = 1;
+
+            @Override
+            public boolean hasNext() {
+                while (position == batch.size() && nextId < endId) {
+                    batch = rowsBetween(nextId, endId);
+                    position = 0;
+                    nextId = (int) Math.min(endId, (long) nextId + SCAN_BATCH);
+                }
+                return position < batch.size();
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return batch.get(position++);
+            }
+        };
+    }
+
+    // The rows in at most SCAN_BATCH slots from fromId, stopping before endId
+    private List<Row> rowsBetween(int fromId, int endId) {
+        lock.readLock().lock();
+        try {
+            int to = (int) Math.min(endId, (long) fromId + SCAN_BATCH);
+            List<Row> rows = new ArrayList<>();
+            for (int id = fromId; id < to; id++) {
+                Row row = row(id);
+                if (row != null) rows.add(row);
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap held by the columns and indexes, including unused capacity in the last
+     * chunk and in the index arrays; boxed index keys and map entries are estimated at 48 bytes.
+     */
+    long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) chunks * CHUNK_SIZE * (4 + 4 + 1 + 8) + byTime.capacityBytes();
+            for (TimeIndex ids : byArtifact.values()) bytes += 48 + ids.capacityBytes();
+            for (TimeIndex ids : byWizard.values()) bytes += 48 + ids.capacityBytes();
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // caller holds the lock
+    private Row row(int id) {
+        int slot = id - 1;
+        int chunk = slot >>> CHUNK_BITS;
+        if (slot < 0 || chunk >= chunks) return null;
+        int offset = slot & CHUNK_MASK;
+        byte code = typeCodes[chunk][offset];
+        if (code == 0) return null;
+        return new Row(id, typeNames.get(code & 0xFF), artifactIds[chunk][offset], wizardIds[chunk][offset], times[chunk][offset]);
+    }
+
+    private Slice findBetween(Map<Integer, TimeIndex> indexes, int key, long from, long to, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            TimeIndex index = indexes.get(key);
+            return index == null ? new Slice(new ArrayList<>(), 0) : slice(index, from, to, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // caller holds the lock
+    private Slice slice(TimeIndex index, long from, long to, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        int low = index.lowerBound(from);
+        int high = Math.max(low, index.lowerBound(to));
+        int start = (int) Math.min(high, (long) low + offset);
+        int end = (int) Math.min(high, (long) start + limit);
+        List<Row> rows = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            rows.add(row(index.idAt(i)));
+        }
+        return new Slice(rows, high - low);
+    }
+
+    private void unindex(int id, int artifactId, int wizardId, long time) {
+        countByDay.computeIfPresent(dayOf(time), (day, count) -> count > 1 ? count - 1 : null);
+        if (loading) return; // the indexes are rebuilt from the columns
+        byTime.remove(time, id);
+        TimeIndex ids = byArtifact.get(artifactId);
+        if (ids != null && ids.remove(time, id) && ids.size() == 0) byArtifact.remove(artifactId);
+        ids = byWizard.get(wizardId);
+        if (ids != null && ids.remove(time, id) && ids.size() == 0) byWizard.remove(wizardId);
+    }
+
+    private long dayOf(long micros) {
+        return toInstant(micros).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    static Instant toInstant(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    // Codes for every row's type, interning new ones only if they all fit; caller holds the write lock
+    private byte[] codesFor(List<Row> rows) {
+        Set<String> added = new HashSet<>();
+        for (Row row : rows) {
+            if (!codesByName.containsKey(row.type())) added.add(row.type());
+        }
+        if (typeNames.size() + added.size() > 256) {
+            throw new IllegalStateException("Too many distinct transfer types");
+        }
+        byte[] codes = new byte[rows.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = codeFor(rows.get(i).type());
+        }
+        return codes;
+    }
+
+    private byte codeFor(String type) {
+        Byte code = codesByName.get(type);
+        if (code != null) return code;
+        if (typeNames.size() > 255) {
+            throw new IllegalStateException("Too many distinct transfer types");
+        }
+        code = (byte) typeNames.size();
+        typeNames.add(type);
+        codesByName.put(type, code);
+        return code;
+    }
+
+    // Allocates chunks up to and including {@code chunk}; IDs can arrive out of order
+    private void ensureChunk(int chunk) {
+        if (chunk < chunks) return;
+        if (chunk >= artifactIds.length) {
+            int capacity = Math.max(artifactIds.length * 2, chunk + 1);
+            artifactIds = Arrays.copyOf(artifactIds, capacity);
+            wizardIds = Arrays.copyOf(wizardIds, capacity);
+            typeCodes = Arrays.copyOf(typeCodes, capacity);
+            times = Arrays.copyOf(times, capacity);
+        }
+        for (; chunks <= chunk; chunks++) {
+            artifactIds[chunks] = new int[CHUNK_SIZE];
+            wizardIds[chunks] = new int[CHUNK_SIZE];
+            typeCodes[chunks] = new byte[CHUNK_SIZE];
+            times[chunks] = new long[CHUNK_SIZE];
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.hogwarts.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive substring index over entity names.
+ *
+ * Every name is lowercased once and split into its three-character windows; each trigram maps to a
+ * sorted array of the IDs whose name contains it. A query of three or more characters intersects
+ * the postings of its trigrams, starting from the rarest, and confirms the few survivors against
+ * the stored lowercase name. Shorter queries scan the stored names, which still avoids the
+ * per-row lowercase copy a plain predicate would make.
+ */
+final class TrigramIndex {
+    private final Map<Integer, String> names = new HashMap<>(); // lowercase, by ID
+    private final Map<Long, SortedIntSet> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Indexes or re-indexes the name of one entity
+    void put(int id, String name) {
+        String lower = normalise(name);
+        lock.writeLock().lock();
+        try {
+            String previous = names.put(id, lower);
+            if (previous != null) {
+                for (long trigram : trigrams(previous)) {
+                    SortedIntSet ids = postings.get(trigram);
+                    if (ids != null && ids.remove(id) && ids.size() == 0) {
+                        postings.remove(trigram);
+                    }
+                }
+            }
+            for (long trigram : trigrams(lower)) {
+                postings.computeIfAbsent(trigram, t -> new SortedIntSet()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(id);
+            if (previous == null) return;
+            for (long trigram : trigrams(previous)) {
+                SortedIntSet ids = postings.get(trigram);
+                if (ids != null && ids.remove(id) && ids.size() == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Removes many IDs under one hold of the lock, compacting each affected posting list once
+     * instead of shifting it once per ID. {@code sortedIds} ascending.
+     */
+    void removeAll(int[] sortedIds) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, SortedIntSet> doomed = new HashMap<>();
+            for (int id : sortedIds) {
+                String previous = names.remove(id);
+                if (previous == null) continue;
+                for (long trigram : trigrams(previous)) {
+                    doomed.computeIfAbsent(trigram, t -> new SortedIntSet()).add(id); // ascending, so appends
+                }
+            }
+            doomed.forEach((trigram, removed) -> {
+                SortedIntSet ids = postings.get(trigram);
+                if (ids != null && ids.removeAll(removed) > 0 && ids.size() == 0) {
+                    postings.remove(trigram);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs whose name contains {@code query} (ignoring case), in ascending order.
+     * An empty query matches nothing; callers show the unfiltered list instead.
+     */
+    List<Integer> search(String query) {
+        String lower = normalise(query);
+        List<Integer> result = new ArrayList<>();
+        if (lower.isEmpty()) return result;
+
+        lock.readLock().lock();
+        try {
+            if (lower.length() < 3) {
+                names.forEach((id, name) -> {
+                    if (name.contains(lower)) result.add(id);
+                });
+                result.sort(null);
+                return result;
+            }
+
+            long[] keys = trigrams(lower);
+            SortedIntSet[] lists = new SortedIntSet[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lists[i] = postings.get(keys[i]);
+                if (lists[i] == null) return result; // some trigram occurs in no name
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+            SortedIntSet rarest = lists[0];
+            candidates:
+            for (int i = 0; i < rarest.size(); i++) {
+                int id = rarest.get(i);
+                for (int j = 1; j < lists.length; j++) {
+                    if (!lists[j].contains(id)) continue candidates;
+                }
+                // every trigram is present, but not necessarily adjacent
+                if (names.get(id).contains(lower)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalise(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct trigrams of a lowercase string, each packed as three UTF-16 units in one long
+    private static long[] trigrams(String text) {
+        int count = Math.max(0, text.length() - 2);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+}
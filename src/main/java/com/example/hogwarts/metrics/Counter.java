@@ -0,0 +1,29 @@
+package com.example.hogwarts.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// A monotonically increasing count, striped so concurrent increments do not contend
+public final class Counter {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        if (Metrics.ENABLED) count.increment();
+    }
+
+    public void add(long amount) {
+        if (Metrics.ENABLED) count.add(amount);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+}
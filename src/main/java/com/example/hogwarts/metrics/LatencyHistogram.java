@@ -0,0 +1,79 @@
+package com.example.hogwarts.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations in nanoseconds, in the style of HdrHistogram.
+ *
+ * Values below 16 get a bucket each; above that, every power of two is split into 16 equal
+ * sub-buckets, so a recorded value is known to within 1/16 (about 6%) at any magnitude from
+ * nanoseconds to hours. All 960 buckets are allocated up front and recording only does atomic
+ * adds, so it never allocates.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        totalNanos.add(value);
+        long max;
+        while (value > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, value)) {
+            // lost a race with another maximum; retry against it
+        }
+    }
+
+    /*
+     * Reads every bucket once. Concurrent recordings may or may not be included, so the figures
+     * are consistent to within the calls in flight.
+     */
+    Summary summarise() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long max = maxNanos.get();
+        return new Summary(count, count == 0 ? 0 : totalNanos.sum() / count,
+                valueAt(snapshot, count, 0.50, max), valueAt(snapshot, count, 0.90, max),
+                valueAt(snapshot, count, 0.99, max), valueAt(snapshot, count, 0.999, max), max);
+    }
+
+    record Summary(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos,
+                   long maxNanos) { }
+
+    // Upper edge of the bucket holding the value at {@code quantile}, capped by the true maximum
+    private static long valueAt(long[] counts, long total, double quantile, long max) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueAt(i), max);
+        }
+        return max;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.hogwarts.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Process-wide registry of operation timers and counters.
+ *
+ * Instruments are looked up once, usually into static final fields, and recording into them is
+ * allocation-free: a clock read and a few atomic adds. {@code -Dhogwarts.metrics=false} turns
+ * recording into a constant-folded no-op, which is how the benchmarks measure the overhead.
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("hogwarts.metrics", "true"));
+
+    // sorted by name, so reports list related operations together
+    private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    // Start time to pass to Timer.record; skips the clock read when metrics are off
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    // Every timer that has recorded at least one call
+    public static List<TimerSnapshot> timers() {
+        List<TimerSnapshot> snapshots = new ArrayList<>();
+        for (Timer timer : TIMERS.values()) {
+            TimerSnapshot snapshot = timer.snapshot();
+            if (snapshot.count() > 0) snapshots.add(snapshot);
+        }
+        return snapshots;
+    }
+
+    public static Map<String, Long> counters() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Counter counter : COUNTERS.values()) {
+            values.put(counter.getName(), counter.get());
+        }
+        return values;
+    }
+
+    // Plain-text table of every timer and counter, in microseconds
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append("# metrics at ").append(Instant.now()).append('\n');
+        out.append(String.format("%-44s %10s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "calls", "mean us", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+        for (TimerSnapshot timer : timers()) {
+            out.append(String.format("%-44s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    timer.name(), timer.count(), micros(timer.meanNanos()), micros(timer.p50Nanos()),
+                    micros(timer.p90Nanos()), micros(timer.p99Nanos()), micros(timer.p999Nanos()),
+                    micros(timer.maxNanos())));
+        }
+        for (Map.Entry<String, Long> counter : counters().entrySet()) {
+            out.append(String.format("%-44s %10d%n", counter.getKey(), counter.getValue()));
+        }
+        return out.toString();
+    }
+
+    // Replaces {@code file} with the current report, so readers never see a half-written one
+    public static void writeReport(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(report());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
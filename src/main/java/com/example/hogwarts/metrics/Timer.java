@@ -0,0 +1,30 @@
+package com.example.hogwarts.metrics;
+
+/**
+ * Call count and latency histogram of one operation. Instrumented code reads the clock with
+ * {@link Metrics#start()} and hands the result to {@link #record(long)} in a finally block.
+ */
+public final class Timer {
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long startNanos) {
+        if (Metrics.ENABLED) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public TimerSnapshot snapshot() {
+        LatencyHistogram.Summary summary = histogram.summarise();
+        return new TimerSnapshot(name, summary.count(), summary.meanNanos(), summary.p50Nanos(),
+                summary.p90Nanos(), summary.p99Nanos(), summary.p999Nanos(), summary.maxNanos());
+    }
+}
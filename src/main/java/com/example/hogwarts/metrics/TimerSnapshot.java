@@ -0,0 +1,5 @@
+package com.example.hogwarts.metrics;
+
+// One operation's figures at the moment they were read; times are in nanoseconds
+public record TimerSnapshot(String name, long count, long meanNanos, long p50Nanos, long p90Nanos,
+                            long p99Nanos, long p999Nanos, long maxNanos) { }
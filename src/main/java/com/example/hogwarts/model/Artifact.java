@@ -1,6 +1,8 @@
 package com.example.hogwarts.model;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -10,9 +12,12 @@ public class Artifact {
     private int id;
     private String name;
     private String description;
-    private Wizard owner; // can be null
+    private volatile Wizard owner; // can be null
     private final List<Transfer> transfers = new ArrayList<>();
-    private int condition;
+    private volatile int condition; // only used while no store holds the artifact
+    private volatile ConditionStorage conditionStorage; // can be null
+    private OwnershipListener ownershipListener; // can be null
+    private final AtomicLong version = new AtomicLong();
 
     public Artifact(String name, String description) {
         this.name = Objects.requireNonNullElse(name, "name must not be null");
@@ -25,7 +30,12 @@ public class Artifact {
     public String getName() { return name; }
     public String getDescription() { return description; }
     public Wizard getOwner() { return owner; }
-    public int getCondition() { return condition; }
+    public int getCondition() {
+        ConditionStorage storage = conditionStorage;
+        if (storage == null) return condition;
+        int stored = storage.get(id);
+        return stored >= 0 ? stored : condition; // detached while we read
+    }
 
     public void setId(int id) { this.id = id; }
     public void setName(String name) {
@@ -34,18 +44,71 @@ public class Artifact {
     public void setDescription(String description) {
         this.description = Objects.requireNonNullElse(description, "description must not be null");
     }
-    void setOwner(Wizard owner) { this.owner = owner; } // package-private to restrict access
-    public void setCondition(int condition) {
-        this.condition = Math.max(0, Math.min(100, condition));
+    void setOwnerQuietly(Wizard owner) { // package-private; skips the listener, see Wizard.attachArtifact
+        this.owner = owner;
+    }
+    void setOwner(Wizard owner) { // package-private to restrict access
+        Wizard previous = this.owner;
+        this.owner = owner;
+        if (ownershipListener != null && previous != owner) {
+            ownershipListener.ownerChanged(this, previous, owner);
+        }
+    }
+    /*
+     * Version stamp for optimistic concurrency. The store advances it on every change to this one
+     * artifact (edits, repairs, condition and owner changes); the bulk wear and repair runs move
+     * the condition storage's epoch instead, which is added in. An edit based on an earlier read
+     * names the version it saw and is rejected if another change got in first. Versions are not
+     * persisted and restart from 0 on every load.
+     */
+    public long getVersion() { return version.get() + conditionEpoch(); }
+    // Moves to the next version if the current one is {@code expected} (any version if negative); false if stale
+    public boolean advanceVersion(long expected) {
+        if (expected < 0) {
+            version.incrementAndGet();
+            return true;
+        }
+        long epoch = conditionEpoch(); // bulk passes hold every artifact's lock, so it cannot move under a caller holding this one's
+        return version.compareAndSet(expected - epoch, expected - epoch + 1);
+    }
+    private long conditionEpoch() {
+        ConditionStorage storage = conditionStorage;
+        return storage == null ? 0 : storage.epoch();
+    }
+    public void setOwnershipListener(OwnershipListener listener) { this.ownershipListener = listener; }
+    // Moves the condition into {@code storage}, or back into this object when it is null
+    public synchronized void setConditionStorage(ConditionStorage storage) {
+        if (conditionStorage != null) {
+            this.condition = getCondition();
+            this.version.addAndGet(conditionStorage.epoch()); // keeps the version it had in the storage
+            conditionStorage.remove(id);
+        }
+        if (storage != null) {
+            storage.put(id, this.condition);
+        }
+        this.conditionStorage = storage;
+    }
+    // condition updates are read-modify-write, so they are synchronized per artifact
+    public synchronized void setCondition(int condition) {
+        changeCondition(current -> condition);
+    }
+    public synchronized void repair(int amount) {
+        changeCondition(current -> current + amount);
     }
-    public void repair(int amount) {
-        this.condition = Math.max(0, Math.min(100, this.condition + amount));
+    public synchronized void applyWear(int amount) {
+        changeCondition(current -> current - amount);
     }
-    public void applyWear(int amount) {
-        this.condition = Math.max(0, this.condition - amount);
+    private void changeCondition(IntUnaryOperator change) {
+        IntUnaryOperator clamped = current -> Math.max(0, Math.min(100, change.applyAsInt(current)));
+        ConditionStorage storage = conditionStorage;
+        if (storage == null) {
+            this.condition = clamped.applyAsInt(this.condition);
+        } else {
+            storage.update(id, clamped);
+        }
     }
     public boolean canBeAssigned() {
-        return this.condition >= 10;
+        return getCondition() >= 10;
     }
 
     @Override
@@ -0,0 +1,21 @@
+package com.example.hogwarts.model;
+
+import java.util.function.IntUnaryOperator;
+
+// Holds artifact conditions outside the objects while a store owns them; see Artifact.setConditionStorage
+public interface ConditionStorage {
+    // Current condition, or a negative value when {@code id} has no slot
+    int get(int id);
+
+    // Replaces the condition with {@code update} applied to the current one
+    void update(int id, IntUnaryOperator update);
+
+    void put(int id, int condition);
+
+    void remove(int id);
+
+    // Bulk passes that changed conditions so far; part of every stored artifact's version, as no single version moves for them
+    default long epoch() {
+        return 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.hogwarts.model;
+
+// Notified whenever an artifact changes hands so stores can keep ownership indexes in sync
+@FunctionalInterface
+public interface OwnershipListener {
+    void ownerChanged(Artifact artifact, Wizard previousOwner, Wizard newOwner);
+}
@@ -5,14 +5,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
-import java.time.LocalDate; 
+import java.time.Instant;
 
 public class Transfer {
     private int id;
     private String type;
     private Artifact artifact;
 	private Wizard wizard;
-	private LocalDate timestamp;
+	private Instant timestamp;
 
     public Transfer(String type, Artifact artifact, Wizard wizard) {
     	if (type != "assign" || type != "unassign") {
@@ -21,14 +21,20 @@ public class Transfer {
     	this.type = Objects.requireNonNullElse(type, "Transfer type must be non-null.");
     	this.artifact = artifact;
     	this.wizard = wizard;
-    	this.timestamp = LocalDate.now();
+    	this.timestamp = Instant.now();
+    }
+
+    // Restores a recorded transfer with its original timestamp
+    public Transfer(String type, Artifact artifact, Wizard wizard, Instant timestamp) {
+        this(type, artifact, wizard);
+        this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
     }
 
     public int getId() { return id; }
     public String getType() { return type; }
     public Artifact getArtifact() { return artifact; }
     public Wizard getWizard() { return wizard; }
-    public LocalDate getTimestamp() { return timestamp; }
+    public Instant getTimestamp() { return timestamp; }
 
     public void setId(int id) { this.id = id; }
     public void setType(String type) {
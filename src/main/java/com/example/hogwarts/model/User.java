@@ -2,17 +2,15 @@ package com.example.hogwarts.model;
 
 public class User {
     private String username;
-    private String password;
     private Role role;
 
-    public User(String username, String password, Role role) {
+    // Passwords are held as hashes by the DataStore, never on the user itself
+    public User(String username, Role role) {
         this.username = username;
-        this.password = password;
         this.role = role;
     }
 
     public String getUsername() { return username; }
-    public String getPassword() { return password; }
     public Role getRole() { return role; }
 
     public boolean isAdmin() {
@@ -1,14 +1,24 @@
 package com.example.hogwarts.model;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Wizard {
     private int id;
-    private String name;
-    private final List<Artifact> artifacts = new ArrayList<>();
+    private volatile String name;
+    /*
+     * Owned artifacts keyed by ID, so adding, finding and removing one is O(log n) however many
+     * a wizard owns, and views can iterate while worker threads assign artifacts. Artifacts must
+     * have their store IDs before they are assigned.
+     */
+    private final ConcurrentSkipListMap<Integer, Artifact> artifacts = new ConcurrentSkipListMap<>();
+    private final Collection<Artifact> artifactView = Collections.unmodifiableCollection(artifacts.values());
+    private final AtomicInteger artifactCount = new AtomicInteger(); // skip list size() is a full walk
+    private final AtomicLong version = new AtomicLong(); // see Artifact.getVersion; advanced by renames
 
     public Wizard(String name) {
         this.name = Objects.requireNonNull(name, "name"); // name must not be null
@@ -16,17 +26,28 @@ public class Wizard {
 
     public int getId() { return id; }
     public String getName() { return name; }
-    public List<Artifact> getArtifacts() {
-        return Collections.unmodifiableList(artifacts); // good defensive programming: prevent external modification
+    // Read-only live view by ascending artifact ID; the same object on every call
+    public Collection<Artifact> getArtifacts() {
+        return artifactView;
     }
+    public int getArtifactCount() { return artifactCount.get(); }
 
     public void setId(int id) { this.id = id; }
+    public long getVersion() { return version.get(); }
+    // Moves to the next version if the current one is {@code expected} (any version if negative); false if stale
+    public boolean advanceVersion(long expected) {
+        if (expected < 0) {
+            version.incrementAndGet();
+            return true;
+        }
+        return version.compareAndSet(expected, expected + 1);
+    }
     public void setName(String name) { this.name = Objects.requireNonNull(name, "name"); }
 
     public void addArtifact(Artifact artifact) {
         Objects.requireNonNull(artifact, "artifact"); // artifact must not be null
 
-        if (this.artifacts.contains(artifact)) return; // already in the collection
+        if (this.artifacts.get(artifact.getId()) == artifact) return; // already in the collection
 
         Wizard currentOwner = artifact.getOwner();
 
@@ -35,25 +56,52 @@ public class Wizard {
         }
 
         // now attach to this owner
-        artifacts.add(artifact);
+        if (artifacts.putIfAbsent(artifact.getId(), artifact) == null) {
+            artifactCount.incrementAndGet();
+        }
         artifact.setOwner(this); // keep back-reference in sync
     }
 
     public boolean removeArtifact(Artifact artifact) {
-        boolean removed = artifacts.remove(artifact);
+        boolean removed = artifacts.remove(artifact.getId(), artifact);
         if (removed) {
+            artifactCount.decrementAndGet();
             artifact.setOwner(null);
         }
         return removed;
     }
 
+    // As addArtifact for an artifact without an owner, without telling its ownership listener, for stores that attach many at once
+    public void attachArtifact(Artifact artifact) {
+        Objects.requireNonNull(artifact, "artifact");
+        if (artifact.getOwner() != null) {
+            throw new IllegalStateException("Artifact " + artifact.getId() + " already has an owner");
+        }
+        if (artifacts.putIfAbsent(artifact.getId(), artifact) == null) {
+            artifactCount.incrementAndGet();
+        }
+        artifact.setOwnerQuietly(this);
+    }
+
+    // As removeArtifact without telling the artifact's ownership listener, for stores that detach many at once
+    public boolean detachArtifact(Artifact artifact) {
+        boolean removed = artifacts.remove(artifact.getId(), artifact);
+        if (removed) {
+            artifactCount.decrementAndGet();
+            artifact.setOwnerQuietly(null);
+        }
+        return removed;
+    }
+
     public boolean removeAllArtifacts() {
         if (artifacts.isEmpty()) return false;
 
-        for (Artifact a : artifacts) {
-            a.setOwner(null);   // package-private
+        for (Artifact a : artifacts.values()) {
+            if (artifacts.remove(a.getId(), a)) {
+                artifactCount.decrementAndGet();
+                a.setOwner(null);   // package-private
+            }
         }
-        artifacts.clear();
         return true;
     }
 
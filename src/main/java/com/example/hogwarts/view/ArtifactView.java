@@ -3,52 +3,71 @@ package com.example.hogwarts.view;
 import com.example.hogwarts.controller.ArtifactController;
 import com.example.hogwarts.controller.WizardController;
 import com.example.hogwarts.controller.TransferController;
+import com.example.hogwarts.data.ChangeEvent;
 import com.example.hogwarts.data.DataStore;
 import com.example.hogwarts.model.Artifact;
 import com.example.hogwarts.model.Wizard;
 import com.example.hogwarts.model.Wizard;
 import com.example.hogwarts.model.Transfer;
-import com.example.hogwarts.view.WizardView;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.ReadOnlyStringWrapper;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
-import java.util.Collection;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ArtifactView extends VBox{
+    private static final int TRANSFER_PAGE_SIZE = 50;
+    private static final DateTimeFormatter TRANSFER_TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter RANGE_INPUT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final ArtifactController controller;
     private final WizardController wizController;
     private final TransferController transferController;
     private final TableView<Artifact> artifactTable;
+	private final TableRows<Artifact> rows;
 	private final ObservableList<Artifact> masterData;
-	private final FilteredList<Artifact> filteredData;
-    
-    private static Runnable artifactSignal;
+	private String searchQuery = ""; // empty shows every artifact
+	private final BackgroundSearch<Artifact> search;
+	private final Label statusLabel = new Label();
+	private final BusyIndicator busy; // spins while a controller call runs in the background
 
     public ArtifactView() {
         this.controller = new ArtifactController();
         this.wizController = new WizardController();
         this.transferController = new TransferController();
         this.artifactTable = new TableView<>();
-        this.masterData = FXCollections.observableArrayList(controller.findAllArtifacts());
-		this.filteredData = new FilteredList<>(masterData, p -> true);
+        DataStore store = DataStore.getInstance();
+        this.rows = TableRows.open(store, ChangeEvent.Entity.ARTIFACT, controller.artifactPages(),
+                controller::findAllArtifacts, store::findArtifactById, Artifact::getId);
+        this.masterData = rows.getItems();
+        this.search = new BackgroundSearch<>(controller::searchArtifacts, this::showMatches);
+        rows.setOnFlushed(() -> {
+            if (!searchQuery.isEmpty()) showSearchResults(); // changed rows may now match or stop matching
+        });
 
         setSpacing(10);
         setPadding(new Insets(10));
-        getChildren().addAll(createSearchBar(), createTable(), createButtons());
-        
-        // lambda to refresh table data
-		artifactSignal = () -> masterData.setAll(controller.findAllArtifacts());
+        TableView<Artifact> table = createTable();
+        HBox buttons = createButtons();
+        this.busy = new BusyIndicator(table, buttons);
+        getChildren().addAll(createSearchBar(), table, new HBox(10, busy, statusLabel), buttons);
     }
-    
-	// adds auto-update functionality across views
-    public static void updateTable() {
-    	artifactSignal.run();
+
+    // stops following store changes once the dashboard is closed
+    public void dispose() {
+        rows.dispose();
+        search.cancel();
     }
 
     private TableView<Artifact> createTable() {
@@ -102,8 +121,7 @@ public class ArtifactView extends VBox{
 
                     confirm.showAndWait().ifPresent(response -> {
                         if (response == ButtonType.OK) {
-                            controller.deleteArtifact(artifact.getId());
-                            masterData.setAll(controller.findAllArtifacts());
+                            busy.track(controller.deleteArtifactAsync(artifact.getId())).thenRun(rows::flush);
                         }
                     });
                 });
@@ -124,7 +142,7 @@ public class ArtifactView extends VBox{
             @Override
             protected void updateItem(Void item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty || getIndex() >= masterData.size()) {
+                if (empty || getIndex() >= getTableView().getItems().size()) {
                     setGraphic(null);
                 } else {
                     buttons.getChildren().clear();
@@ -147,8 +165,12 @@ public class ArtifactView extends VBox{
 		});
 
         artifactTable.getColumns().setAll(idCol, nameCol, conditionCol, actionCol, ownerCol);
-        artifactTable.setItems(filteredData);
+        artifactTable.setItems(masterData);
         artifactTable.setPrefHeight(300);
+        artifactTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE); // for Delete Selected
+        // a paged catalogue stays in ID order; search results can still be sorted
+        artifactTable.setSortPolicy(table -> rows.isPaged() && table.getItems() == masterData
+                ? false : TableView.DEFAULT_SORT_POLICY.call(table));
 		
 		ownerCol.setSortable(true); // Explicit, just in case
 
@@ -165,16 +187,46 @@ public class ArtifactView extends VBox{
 
     private HBox createButtons() {
         Button addBtn = new Button("Add");
+        Button deleteSelectedBtn = new Button("Delete Selected");
         HBox box = new HBox(10);
         if (DataStore.getInstance().getCurrentUser().isAdmin()) {
             addBtn.setOnAction(e -> showAddArtifactDialog());
-            box.getChildren().add(addBtn);
+            deleteSelectedBtn.setOnAction(e -> showDeleteSelectedDialog());
+            box.getChildren().addAll(addBtn, deleteSelectedBtn);
         }
         return box;
     }
 
+    // One confirmation and one store operation however many rows are selected
+    private void showDeleteSelectedDialog() {
+        List<Integer> ids = new ArrayList<>();
+        for (Artifact artifact : artifactTable.getSelectionModel().getSelectedItems()) {
+            if (artifact != null) ids.add(artifact.getId());
+        }
+        if (ids.isEmpty()) {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION, "Select the artifacts to delete first.");
+            alert.setHeaderText("Nothing selected");
+            alert.showAndWait();
+            return;
+        }
+
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Confirm Deletion");
+        confirm.setHeaderText("Delete Artifacts");
+        confirm.setContentText("Are you sure you want to delete " + ids.size() + " selected artifact(s)?");
+        confirm.showAndWait().ifPresent(response -> {
+            if (response == ButtonType.OK) {
+                artifactTable.getSelectionModel().clearSelection();
+                busy.track(controller.deleteArtifactsAsync(ids)).thenAccept(deleted -> {
+                    rows.flush();
+                    statusLabel.setText("Deleted " + deleted + " artifact(s)");
+                });
+            }
+        });
+    }
+
     private void showAddArtifactDialog() {
-        Dialog<Artifact> dialog = new Dialog<>();
+        Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Add Artifact");
         dialog.setHeaderText("Enter artifact details:");
 
@@ -187,23 +239,19 @@ public class ArtifactView extends VBox{
         dialog.getDialogPane().setContent(content);
         dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
 
-        dialog.setResultConverter(button -> {
-            if (button == ButtonType.OK) {
-                return controller.addArtifact(nameField.getText(), descField.getText());
-            }
-            return null;
-        });
-
-        dialog.showAndWait().ifPresent(artifact -> {
-            masterData.setAll(controller.findAllArtifacts());
-            artifactTable.getSelectionModel().select(artifact);
-        });
+        dialog.showAndWait().filter(button -> button == ButtonType.OK).ifPresent(button ->
+                busy.track(controller.addArtifactAsync(nameField.getText(), descField.getText()))
+                        .thenAccept(artifact -> {
+                            rows.flush();
+                            select(artifact);
+                        }));
     }
 
     private void showEditArtifactDialog(Artifact artifact) {
         if (artifact == null) return;
+        long version = artifact.getVersion(); // the edit is refused if someone else changes the artifact meanwhile
 
-        Dialog<Void> dialog = new Dialog<>();
+        Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Edit Artifact");
         dialog.setHeaderText("Edit artifact details:");
 
@@ -216,15 +264,9 @@ public class ArtifactView extends VBox{
         dialog.getDialogPane().setContent(content);
         dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
 
-        dialog.setResultConverter(button -> {
-            if (button == ButtonType.OK) {
-                controller.updateArtifact(artifact.getId(), nameField.getText(), descField.getText());
-                masterData.setAll(controller.findAllArtifacts());
-            }
-            return null;
-        });
-
-        dialog.showAndWait();
+        dialog.showAndWait().filter(button -> button == ButtonType.OK).ifPresent(button ->
+                busy.track(controller.updateArtifactAsync(artifact.getId(), version, nameField.getText(), descField.getText()))
+                        .whenComplete((result, error) -> rows.flush()));
     }
 
     private void showViewArtifactDialog(Artifact artifact) {
@@ -256,32 +298,86 @@ public class ArtifactView extends VBox{
 private void showTransferDialog(Artifact artifact) {
     	if (artifact == null) return;
 
-    	Collection<Transfer> transferList = transferController.findAllTransfersById(artifact.getId());
-
     	Dialog<Void> dialog = new Dialog<>();
     	dialog.setTitle("Transfer Details");
     	dialog.setHeaderText("Viewing Transfers for: " + artifact.getName());
 
-    	StringBuilder sb = new StringBuilder();
-    	for (Transfer transfer : transferList) {
-        	sb.append("ID: ").append(transfer.getId()).append("\n")
-          		.append("Type: ").append(transfer.getType()).append("\n")
-          		.append("Wizard: ").append(transfer.getWizard().getName()).append("\n")
-          		.append("Timestamp: ").append(transfer.getTimestamp()).append("\n")
-          		.append("--------").append("\n");
-    	}
+    	TextField fromField = new TextField();
+    	fromField.setPromptText("From (yyyy-MM-dd HH:mm)");
+    	TextField toField = new TextField();
+    	toField.setPromptText("To (yyyy-MM-dd HH:mm)");
+    	Button filterButton = new Button("Filter");
 
-    	TextArea details = new TextArea(sb.toString());
+    	TextArea details = new TextArea();
     	details.setEditable(false);
     	details.setWrapText(true);
 
-    	VBox content = new VBox(details);
+    	Button previousButton = new Button("Previous");
+    	Button nextButton = new Button("Next");
+    	Label pageLabel = new Label();
+
+    	HBox rangeBox = new HBox(10, fromField, toField, filterButton);
+    	HBox pagingBox = new HBox(10, previousButton, pageLabel, nextButton);
+    	BusyIndicator loading = new BusyIndicator(rangeBox, pagingBox);
+
+    	// only one page of history is materialised at a time
+    	int[] offset = {0};
+    	Instant[] range = new Instant[2];
+    	Runnable showPage = () -> loading.track(transferController.findTransfersBetweenAsync(
+    			artifact.getId(), range[0], range[1], offset[0], TRANSFER_PAGE_SIZE)).thenAccept(page -> {
+    		StringBuilder sb = new StringBuilder();
+    		for (Transfer transfer : page.items()) {
+        		sb.append("ID: ").append(transfer.getId()).append("\n")
+          			.append("Type: ").append(transfer.getType()).append("\n")
+          			.append("Wizard: ").append(transfer.getWizard().getName()).append("\n")
+          			.append("Timestamp: ").append(TRANSFER_TIME.format(transfer.getTimestamp())).append("\n")
+          			.append("--------").append("\n");
+    		}
+    		details.setText(sb.toString());
+    		pageLabel.setText(page.total() == 0 ? "No transfers"
+    				: "Showing " + (page.offset() + 1) + "-" + (page.offset() + page.items().size()) + " of " + page.total());
+    		previousButton.setDisable(!page.hasPrevious());
+    		nextButton.setDisable(!page.hasNext());
+    	});
+
+    	previousButton.setOnAction(e -> {
+    		offset[0] = Math.max(0, offset[0] - TRANSFER_PAGE_SIZE);
+    		showPage.run();
+    	});
+    	nextButton.setOnAction(e -> {
+    		offset[0] += TRANSFER_PAGE_SIZE;
+    		showPage.run();
+    	});
+    	filterButton.setOnAction(e -> {
+    		try {
+    			range[0] = parseRangeBound(fromField.getText());
+    			range[1] = parseRangeBound(toField.getText());
+    		} catch (DateTimeParseException ex) {
+    			Alert alert = new Alert(Alert.AlertType.ERROR);
+    			alert.setTitle("Invalid Input");
+    			alert.setHeaderText("Invalid Time");
+    			alert.setContentText("Enter times as yyyy-MM-dd HH:mm, or leave the field empty.");
+    			alert.showAndWait();
+    			return;
+    		}
+    		offset[0] = 0;
+    		showPage.run();
+    	});
+    	showPage.run();
+
+    	VBox content = new VBox(10, rangeBox, details, new HBox(10, pagingBox, loading));
     	content.setPadding(new Insets(10));
 
     	dialog.getDialogPane().setContent(content);
     	dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
     	dialog.showAndWait();
 }
+
+	// Blank means unbounded; times are read in the local time zone
+	private static Instant parseRangeBound(String text) {
+		if (text == null || text.isBlank()) return null;
+		return LocalDateTime.parse(text.trim(), RANGE_INPUT).atZone(ZoneId.systemDefault()).toInstant();
+	}
     
     private void showUnassignArtifactDialogFor(Wizard wizard, Artifact artifact) {
     	if (artifact == null || wizard == null) {
@@ -297,10 +393,10 @@ private void showTransferDialog(Artifact artifact) {
         confirm.setContentText("Are you sure you want to unassign \"" + artifact.getName() + "\" from \"" + wizard.getName() + "\"");
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-            	wizController.unassignArtifactFromWizard(wizard, artifact);
-            	masterData.setAll(controller.findAllArtifacts());
-            	artifactTable.getSelectionModel().select(artifact);
-				WizardView.updateTable();
+            	busy.track(wizController.unassignArtifactFromWizardAsync(wizard, artifact)).thenRun(() -> {
+            		rows.flush();
+            		select(artifact);
+            	});
             }
     	});
     }
@@ -311,22 +407,40 @@ private void showTransferDialog(Artifact artifact) {
     	searchField.setPromptText("Enter artifact name");
 
     	searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-        	String filter = newVal.toLowerCase();
-        	filteredData.setPredicate(artifact -> {
-            	if (filter == null || filter.isEmpty()) {
-                	return true;
-            	}
-            	return artifact.getName().toLowerCase().contains(filter);
-        	});
+        	searchQuery = newVal == null ? "" : newVal;
+        	showSearchResults();
     	});
 
     	HBox box = new HBox(10, searchLabel, searchField);
     	box.setPadding(new Insets(0, 0, 10, 0));
     	return box;
 	}
+
+	// Matches come from the store's name index, looked up off the FX thread once typing pauses
+	private void showSearchResults() {
+		if (searchQuery.isEmpty()) {
+			search.cancel();
+			artifactTable.setItems(masterData);
+			statusLabel.setText("");
+		} else {
+			search.submit(searchQuery);
+		}
+	}
+
+	// Selects by position so a paged table finds the row without reading every page
+	private void select(Artifact artifact) {
+		int index = artifactTable.getItems().indexOf(artifact);
+		if (index >= 0) artifactTable.getSelectionModel().select(index);
+	}
+
+	private void showMatches(String query, List<Artifact> matches, long elapsedNanos) {
+		artifactTable.setItems(FXCollections.observableArrayList(matches));
+		statusLabel.setText(String.format("%d matches for \"%s\" (%.1f ms)", matches.size(), query, elapsedNanos / 1_000_000.0));
+	}
 	
 	private void showRepairArtifactDialog(Artifact artifact) {
         if (artifact == null) return;
+        long version = artifact.getVersion();
 
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("Repair Artifact");
@@ -362,16 +476,17 @@ private void showTransferDialog(Artifact artifact) {
                         return null;
                     }
                     
-                    controller.repairArtifact(artifact.getId(), repairAmount);
-                    masterData.setAll(controller.findAllArtifacts());
-                    
-                    // Show success message with new condition
-                    Alert success = new Alert(Alert.AlertType.INFORMATION);
-                    success.setTitle("Repair Successful");
-                    success.setHeaderText("Artifact Repaired");
-                    success.setContentText("\"" + artifact.getName() + "\" has been repaired.\nNew condition: " + 
-                                         artifact.getCondition() + "%");
-                    success.showAndWait();
+                    busy.track(controller.repairArtifactAsync(artifact.getId(), version, repairAmount)).thenRun(() -> {
+                        rows.flush();
+
+                        // Show success message with new condition
+                        Alert success = new Alert(Alert.AlertType.INFORMATION);
+                        success.setTitle("Repair Successful");
+                        success.setHeaderText("Artifact Repaired");
+                        success.setContentText("\"" + artifact.getName() + "\" has been repaired.\nNew condition: " + 
+                                             artifact.getCondition() + "%");
+                        success.showAndWait();
+                    });
                     
                 } catch (NumberFormatException e) {
                     Alert alert = new Alert(Alert.AlertType.ERROR);
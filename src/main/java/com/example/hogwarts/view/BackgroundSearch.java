@@ -0,0 +1,76 @@
+package com.example.hogwarts.view;
+
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs a search bar's query off the FX thread. Each keystroke restarts a short debounce delay;
+ * only the query still current when the delay expires is executed, and its result is handed back
+ * on the FX thread only if no newer query arrived while it ran.
+ */
+final class BackgroundSearch<T> {
+    private static final long DEBOUNCE_MILLIS = 150;
+    private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+    @FunctionalInterface
+    interface ResultHandler<T> {
+        void accept(String query, List<T> results, long elapsedNanos);
+    }
+
+    private final Function<String, List<T>> search;
+    private final ResultHandler<T> onResult;
+
+    // FX thread only
+    private long generation;
+    private ScheduledFuture<?> scheduled;
+
+    BackgroundSearch(Function<String, List<T>> search, ResultHandler<T> onResult) {
+        this.search = search;
+        this.onResult = onResult;
+    }
+
+    private static ScheduledThreadPoolExecutor createExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "view-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true); // superseded queries leave the queue straight away
+        return executor;
+    }
+
+    // Call on the FX thread for every change of the query text
+    void submit(String query) {
+        long current = cancel();
+        scheduled = EXECUTOR.schedule(() -> run(query, current), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drops the pending query and makes any running one discard its result. Returns the new
+     * generation, which the next query runs under.
+     */
+    long cancel() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        return ++generation;
+    }
+
+    private void run(String query, long queryGeneration) {
+        long start = System.nanoTime();
+        List<T> results = search.apply(query);
+        long elapsed = System.nanoTime() - start;
+        Platform.runLater(() -> {
+            if (queryGeneration == generation) {
+                scheduled = null;
+                onResult.accept(query, results, elapsed);
+            }
+        });
+    }
+}
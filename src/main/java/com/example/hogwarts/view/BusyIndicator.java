@@ -0,0 +1,56 @@
+package com.example.hogwarts.view;
+
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ProgressIndicator;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Small spinner shown while a view waits for asynchronous controller calls. While any call is
+ * outstanding the given nodes are disabled, so the same action cannot be started twice; a call
+ * that fails is reported in an error dialog unless it was cancelled. FX thread only.
+ */
+final class BusyIndicator extends ProgressIndicator {
+    private final Node[] blocked;
+    private int pending;
+
+    BusyIndicator(Node... blocked) {
+        this.blocked = blocked;
+        setMaxSize(18, 18);
+        setVisible(false);
+    }
+
+    // Returns a future that completes after the indicator has been updated, on the FX thread
+    <T> CompletableFuture<T> track(CompletableFuture<T> call) {
+        if (pending++ == 0) setBusy(true);
+        return call.whenComplete((result, error) -> {
+            if (--pending == 0) setBusy(false);
+            if (error != null && !cancelled(error)) showError(error);
+        });
+    }
+
+    private void setBusy(boolean busy) {
+        setVisible(busy);
+        for (Node node : blocked) {
+            node.setDisable(busy);
+        }
+    }
+
+    // a call the user cancelled is not reported as a failure
+    private static boolean cancelled(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof CancellationException;
+    }
+
+    private static void showError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText("The operation could not be completed");
+        alert.setContentText(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        alert.show();
+    }
+}
@@ -13,10 +13,16 @@ public class DashboardView extends BorderPane {
     private DashboardController controller;
     private final ArtifactView artifactView;
     private final WizardView wizardView;
+    private final StatisticsView statisticsView;
+    private final MetricsView metricsView;
+    private final ExportView exportView;
 
     public DashboardView() {
         this.artifactView = new ArtifactView();
         this.wizardView = new WizardView();
+        this.statisticsView = new StatisticsView();
+        this.metricsView = new MetricsView();
+        this.exportView = new ExportView();
 
         setTop(createHeader());
         setLeft(createSidebar());
@@ -45,16 +51,33 @@ public class DashboardView extends BorderPane {
 
         Button artifactBtn = new Button("Artifacts");
         Button wizardBtn = new Button("Wizards");
+        Button statisticsBtn = new Button("Statistics");
+        Button metricsBtn = new Button("Metrics");
+        Button exportBtn = new Button("Export");
         artifactBtn.setMaxWidth(Double.MAX_VALUE);
         wizardBtn.setMaxWidth(Double.MAX_VALUE);
+        statisticsBtn.setMaxWidth(Double.MAX_VALUE);
+        metricsBtn.setMaxWidth(Double.MAX_VALUE);
+        exportBtn.setMaxWidth(Double.MAX_VALUE);
 
         artifactBtn.setOnAction(e -> this.setCenter(artifactView));
         wizardBtn.setOnAction(e -> this.setCenter(wizardView));
+        statisticsBtn.setOnAction(e -> this.setCenter(statisticsView));
+        metricsBtn.setOnAction(e -> this.setCenter(metricsView));
+        exportBtn.setOnAction(e -> this.setCenter(exportView));
 
-        menu.getChildren().addAll(artifactBtn, wizardBtn);
+        menu.getChildren().addAll(artifactBtn, wizardBtn, statisticsBtn, metricsBtn, exportBtn);
         return menu;
     }
 
+    // detaches the tables from the data store; called on logout
+    public void dispose() {
+        artifactView.dispose();
+        wizardView.dispose();
+        statisticsView.dispose();
+        metricsView.dispose();
+    }
+
     public void setController(DashboardController dashboardController) {
         this.controller = dashboardController;
     }
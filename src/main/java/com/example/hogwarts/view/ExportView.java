@@ -0,0 +1,193 @@
+package com.example.hogwarts.view;
+
+import com.example.hogwarts.bulk.BulkExport;
+import com.example.hogwarts.bulk.Format;
+import com.example.hogwarts.controller.ExportController;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.util.StringConverter;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Exports wizards, artifacts or transfer history to a CSV or JSON-lines file. The export runs on a
+ * virtual thread; the exporter reports progress every few thousand rows and at most one progress
+ * update is queued on the FX thread at a time, so a fast export cannot flood it.
+ */
+public class ExportView extends VBox {
+    private static final DateTimeFormatter RANGE_INPUT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final ExportController controller;
+
+    private final ComboBox<BulkExport.Entity> entityBox = new ComboBox<>();
+    private final ComboBox<Format> formatBox = new ComboBox<>();
+    private final TextField artifactField = new TextField();
+    private final TextField wizardField = new TextField();
+    private final TextField fromField = new TextField();
+    private final TextField toField = new TextField();
+    private final Button exportButton = new Button("Export...");
+    private final Button cancelButton = new Button("Cancel");
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label statusLabel = new Label();
+    private BulkExport running;
+
+    public ExportView() {
+        this.controller = new ExportController();
+
+        setSpacing(10);
+        setPadding(new Insets(10));
+
+        entityBox.getItems().addAll(BulkExport.Entity.values());
+        entityBox.setValue(BulkExport.Entity.ARTIFACTS);
+        entityBox.setConverter(labels(entity -> switch (entity) {
+            case WIZARDS -> "Wizards";
+            case ARTIFACTS -> "Artifacts";
+            case TRANSFERS -> "Transfer history";
+        }));
+        formatBox.getItems().addAll(Format.values());
+        formatBox.setValue(Format.CSV);
+        formatBox.setConverter(labels(format -> format == Format.CSV ? "CSV" : "JSON lines"));
+        artifactField.setPromptText("Any");
+        wizardField.setPromptText("Any");
+        fromField.setPromptText("From (yyyy-MM-dd HH:mm)");
+        toField.setPromptText("To (yyyy-MM-dd HH:mm)");
+
+        GridPane form = new GridPane();
+        form.setHgap(10);
+        form.setVgap(5);
+        form.addRow(0, new Label("Export:"), entityBox);
+        form.addRow(1, new Label("Format:"), formatBox);
+        form.addRow(2, new Label("Artifact ID:"), artifactField);
+        form.addRow(3, new Label("Wizard ID:"), wizardField);
+        form.addRow(4, new Label("Time range (transfers):"), new HBox(10, fromField, toField));
+
+        // the time range only narrows transfer history
+        fromField.disableProperty().bind(entityBox.valueProperty().isNotEqualTo(BulkExport.Entity.TRANSFERS));
+        toField.disableProperty().bind(fromField.disableProperty());
+
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        cancelButton.setDisable(true);
+        BusyIndicator busy = new BusyIndicator(form, exportButton);
+
+        exportButton.setOnAction(e -> startExport(busy));
+        cancelButton.setOnAction(e -> {
+            if (running != null) running.cancel();
+        });
+
+        getChildren().addAll(form, new HBox(10, exportButton, cancelButton, busy), progressBar, statusLabel);
+    }
+
+    private void startExport(BusyIndicator busy) {
+        BulkExport.Entity entity = entityBox.getValue();
+        BulkExport.Filter filter;
+        try {
+            filter = new BulkExport.Filter(parseId(artifactField.getText()), parseId(wizardField.getText()),
+                    entity == BulkExport.Entity.TRANSFERS ? parseRangeBound(fromField.getText()) : null,
+                    entity == BulkExport.Entity.TRANSFERS ? parseRangeBound(toField.getText()) : null);
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Invalid Input");
+            alert.setHeaderText("Invalid Filter");
+            alert.setContentText("IDs must be positive whole numbers and times yyyy-MM-dd HH:mm; leave a field empty for no limit.");
+            alert.showAndWait();
+            return;
+        }
+
+        String extension = formatBox.getValue() == Format.CSV ? ".csv" : ".jsonl";
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export " + entity.name().toLowerCase(Locale.ROOT));
+        chooser.setInitialFileName(entity.name().toLowerCase(Locale.ROOT) + extension);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(formatBox.getValue() == Format.CSV
+                ? "CSV files" : "JSON lines files", "*" + extension));
+        File file = chooser.showSaveDialog(getScene().getWindow());
+        if (file == null) return;
+        if (!file.getName().toLowerCase(Locale.ROOT).endsWith(extension)) {
+            file = new File(file.getParentFile(), file.getName() + extension);
+        }
+
+        // an unfiltered export knows its size up front; a filtered one shows an indeterminate bar
+        boolean filtered = !filter.equals(BulkExport.Filter.NONE);
+        long expected = filtered ? -1 : controller.count(entity);
+        AtomicLong written = new AtomicLong();
+        AtomicBoolean updateQueued = new AtomicBoolean();
+        BulkExport export = controller.newExport(rows -> {
+            written.set(rows);
+            if (updateQueued.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    updateQueued.set(false);
+                    showProgress(written.get(), expected);
+                });
+            }
+        });
+
+        running = export;
+        cancelButton.setDisable(false);
+        progressBar.setProgress(expected == 0 ? 1 : filtered ? ProgressBar.INDETERMINATE_PROGRESS : 0);
+        statusLabel.setText("Exporting " + entity.name().toLowerCase(Locale.ROOT) + "...");
+        busy.track(controller.exportAsync(export, entity, file.toPath(), filter)).whenComplete((result, error) -> {
+            running = null;
+            cancelButton.setDisable(true);
+            if (result != null) {
+                progressBar.setProgress(1);
+                statusLabel.setText(String.format("Exported %,d %s to %s in %.1f s (%,.0f rows/s)", result.exported(),
+                        result.entity().name().toLowerCase(Locale.ROOT), result.file(), result.elapsedNanos() / 1e9,
+                        result.rowsPerSecond()));
+            } else {
+                progressBar.setProgress(0);
+                statusLabel.setText("Export stopped; no file was written.");
+            }
+        });
+    }
+
+    private void showProgress(long rows, long expected) {
+        if (expected > 0) progressBar.setProgress(Math.min(1.0, (double) rows / expected));
+        statusLabel.setText(String.format("%,d rows written", rows));
+    }
+
+    private static <T> StringConverter<T> labels(Function<T, String> label) {
+        return new StringConverter<>() {
+            @Override
+            public String toString(T value) {
+                return value == null ? "" : label.apply(value);
+            }
+
+            @Override
+            public T fromString(String text) {
+                throw new UnsupportedOperationException("Not editable");
+            }
+        };
+    }
+
+    // Blank means any
+    private static int parseId(String text) {
+        if (text == null || text.isBlank()) return 0;
+        int id = Integer.parseInt(text.trim());
+        if (id <= 0) throw new NumberFormatException("IDs must be positive");
+        return id;
+    }
+
+    // Blank means unbounded; times are read in the local time zone
+    private static Instant parseRangeBound(String text) {
+        if (text == null || text.isBlank()) return null;
+        return LocalDateTime.parse(text.trim(), RANGE_INPUT).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
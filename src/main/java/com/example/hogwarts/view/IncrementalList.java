@@ -0,0 +1,139 @@
+package com.example.hogwarts.view;
+
+import com.example.hogwarts.data.ChangeEvent;
+import com.example.hogwarts.data.ChangeListener;
+import com.example.hogwarts.data.DataStore;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * An ObservableList kept sorted by ID and in step with DataStore change events for one entity type.
+ * Events arrive on whichever thread mutated the store; their IDs are coalesced and applied in a
+ * single Platform.runLater pass, each one replacing, inserting or removing just that row.
+ */
+final class IncrementalList<T> implements TableRows<T> {
+    private final DataStore store;
+    private final ChangeEvent.Entity entity;
+    private final Supplier<? extends Collection<T>> loadAll;
+    private final IntFunction<T> lookup;
+    private final ToIntFunction<T> idOf;
+    private final ObservableList<T> items;
+    private final ChangeListener listener = this::changed;
+    private Runnable onFlushed = () -> { };
+
+    private Set<Integer> pending = new LinkedHashSet<>(); // guarded by this
+
+    IncrementalList(DataStore store, ChangeEvent.Entity entity, Supplier<? extends Collection<T>> loadAll,
+                    IntFunction<T> lookup, ToIntFunction<T> idOf) {
+        this.store = store;
+        this.entity = entity;
+        this.loadAll = loadAll;
+        this.lookup = lookup;
+        this.idOf = idOf;
+
+        // subscribe before loading so nothing committed in between is missed
+        store.addChangeListener(listener);
+        this.items = FXCollections.observableArrayList(loadSorted());
+    }
+
+    private List<T> loadSorted() {
+        List<T> all = new ArrayList<>(loadAll.get());
+        all.sort(Comparator.comparingInt(idOf));
+        return all;
+    }
+
+    @Override
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    @Override
+    public boolean isPaged() {
+        return false;
+    }
+
+    @Override
+    public void setOnFlushed(Runnable onFlushed) {
+        this.onFlushed = onFlushed;
+    }
+
+    @Override
+    public void dispose() {
+        store.removeChangeListener(listener);
+    }
+
+    private void changed(ChangeEvent event) {
+        if (event.entity() != entity) return;
+        boolean schedule;
+        synchronized (this) {
+            schedule = pending.isEmpty();
+            pending.add(event.id());
+        }
+        if (schedule) {
+            Platform.runLater(this::flush);
+        }
+    }
+
+    /**
+     * Applies every pending change now. Runs on the FX thread; views call it directly after their
+     * own edits so the new row can be selected straight away.
+     */
+    @Override
+    public void flush() {
+        Set<Integer> ids;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            ids = pending;
+            pending = new LinkedHashSet<>();
+        }
+        if (ids.remove(ChangeEvent.ALL)) {
+            items.setAll(loadSorted()); // any row may have changed, and a bulk import adds rows too
+        }
+        for (int id : ids) {
+            apply(id);
+        }
+        onFlushed.run();
+    }
+
+    // Re-reads the entity: present means insert or replace in place, missing means remove
+    private void apply(int id) {
+        int index = indexOf(id);
+        T current = lookup.apply(id);
+        if (current == null) {
+            if (index >= 0) items.remove(index);
+        } else if (index >= 0) {
+            items.set(index, current);
+        } else {
+            items.add(-index - 1, current);
+        }
+    }
+
+    // Binary search by ID; returns -(insertion point) - 1 when absent
+    private int indexOf(int id) {
+        int low = 0;
+        int high = items.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = idOf.applyAsInt(items.get(mid));
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
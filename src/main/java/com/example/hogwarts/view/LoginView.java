@@ -47,6 +47,10 @@ public class LoginView extends VBox{
         return passField;
     }
 
+    public Button getLoginButton() {
+        return loginButton;
+    }
+
     public Label getMessageLabel() {
         return messageLabel;
     }
@@ -0,0 +1,81 @@
+package com.example.hogwarts.view;
+
+import com.example.hogwarts.metrics.Metrics;
+import com.example.hogwarts.metrics.TimerSnapshot;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Latency and call counts of every instrumented operation, re-read from the metrics registry
+ * every two seconds while the dashboard is open. Times are shown in microseconds.
+ */
+public class MetricsView extends VBox {
+    private final TableView<TimerSnapshot> timerTable = new TableView<>();
+    private final Label counters = new Label();
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(2), e -> refresh()));
+
+    public MetricsView() {
+        setSpacing(10);
+        setPadding(new Insets(10));
+
+        TableColumn<TimerSnapshot, String> nameCol = new TableColumn<>("Operation");
+        nameCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().name()));
+        nameCol.setPrefWidth(300);
+
+        TableColumn<TimerSnapshot, Number> countCol = new TableColumn<>("Calls");
+        countCol.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().count()));
+
+        timerTable.getColumns().add(nameCol);
+        timerTable.getColumns().add(countCol);
+        timerTable.getColumns().add(micros("Mean", TimerSnapshot::meanNanos));
+        timerTable.getColumns().add(micros("p50", TimerSnapshot::p50Nanos));
+        timerTable.getColumns().add(micros("p90", TimerSnapshot::p90Nanos));
+        timerTable.getColumns().add(micros("p99", TimerSnapshot::p99Nanos));
+        timerTable.getColumns().add(micros("p99.9", TimerSnapshot::p999Nanos));
+        timerTable.getColumns().add(micros("Max", TimerSnapshot::maxNanos));
+        timerTable.setPlaceholder(new Label(Metrics.ENABLED ? "No operations recorded yet"
+                : "Metrics are disabled (-Dhogwarts.metrics=false)"));
+        VBox.setVgrow(timerTable, Priority.ALWAYS);
+
+        getChildren().addAll(new Label("Operation latency (µs)"), timerTable, counters);
+
+        refresher.setCycleCount(Animation.INDEFINITE);
+        refresher.play();
+        refresh();
+    }
+
+    // stops polling the registry once the dashboard is closed
+    public void dispose() {
+        refresher.stop();
+    }
+
+    private static TableColumn<TimerSnapshot, String> micros(String title, ToLongFunction<TimerSnapshot> nanos) {
+        TableColumn<TimerSnapshot, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell ->
+                new ReadOnlyStringWrapper(String.format("%.1f", nanos.applyAsLong(cell.getValue()) / 1000.0)));
+        return column;
+    }
+
+    private void refresh() {
+        timerTable.getItems().setAll(Metrics.timers());
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Long> counter : Metrics.counters().entrySet()) {
+            if (!text.isEmpty()) text.append("    ");
+            text.append(counter.getKey()).append(": ").append(counter.getValue());
+        }
+        counters.setText(text.toString());
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.hogwarts.view;
+
+import com.example.hogwarts.data.ChangeEvent;
+import com.example.hogwarts.data.ChangeListener;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.Page;
+import com.example.hogwarts.data.PagedDataProvider;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * Table rows for catalogues too large to load: the list reports the store's full count but only
+ * holds the pages the table has actually asked for. TableView requests just the rows it draws, so
+ * a miss fetches that page plus the next one as prefetch, and a small LRU cache keeps the last few.
+ *
+ * Change events are coalesced per ID as in IncrementalList, then replayed in ascending ID order as
+ * positional adds, removes and updates, each position read from the provider; the page cache is
+ * dropped and refilled from the rows still in view. Should the count still disagree with the store
+ * afterwards (an event raced with the reads), the whole list is reported replaced.
+ */
+final class PagedRows<T> implements TableRows<T> {
+    private static final int PAGE_SIZE = 256;
+    private static final int CACHED_PAGES = 8;
+
+    private final DataStore store;
+    private final ChangeEvent.Entity entity;
+    private final PagedDataProvider<T> provider;
+    private final ToIntFunction<T> idOf;
+    private final Rows items = new Rows();
+    private final ChangeListener listener = this::changed;
+    private Runnable onFlushed = () -> { };
+
+    private Map<Integer, ChangeEvent.Kind> pending = new HashMap<>(); // guarded by this
+
+    PagedRows(DataStore store, ChangeEvent.Entity entity, PagedDataProvider<T> provider, ToIntFunction<T> idOf) {
+        this.store = store;
+        this.entity = entity;
+        this.provider = provider;
+        this.idOf = idOf;
+
+        // subscribe before counting so nothing committed in between is missed
+        store.addChangeListener(listener);
+        items.rowCount = provider.count();
+    }
+
+    @Override
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    @Override
+    public boolean isPaged() {
+        return true;
+    }
+
+    @Override
+    public void setOnFlushed(Runnable onFlushed) {
+        this.onFlushed = onFlushed;
+    }
+
+    @Override
+    public void dispose() {
+        store.removeChangeListener(listener);
+    }
+
+    private void changed(ChangeEvent event) {
+        if (event.entity() != entity) return;
+        boolean schedule;
+        synchronized (this) {
+            schedule = pending.isEmpty();
+            pending.merge(event.id(), event.kind(), PagedRows::coalesce);
+        }
+        if (schedule) {
+            Platform.runLater(this::flush);
+        }
+    }
+
+    // Net effect of two events for one ID; null when an add was undone before the table saw it
+    private static ChangeEvent.Kind coalesce(ChangeEvent.Kind previous, ChangeEvent.Kind next) {
+        if (previous == ChangeEvent.Kind.ADDED) {
+            return next == ChangeEvent.Kind.REMOVED ? null : previous;
+        }
+        return next == ChangeEvent.Kind.REMOVED ? next : previous;
+    }
+
+    @Override
+    public void flush() {
+        Map<Integer, ChangeEvent.Kind> changes;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            changes = pending;
+            pending = new HashMap<>();
+        }
+        int[] ids = changes.keySet().stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(ids);
+        items.apply(ids, changes);
+        onFlushed.run();
+    }
+
+    // The list the table shows; FX thread only
+    private final class Rows extends ObservableListBase<T> {
+        private int rowCount;
+        private final Map<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, rowCount);
+            List<T> page = pages.get(index / PAGE_SIZE);
+            if (page == null) {
+                page = load(index / PAGE_SIZE);
+            }
+            int offset = index % PAGE_SIZE;
+            if (offset < page.size()) return page.get(offset);
+            // the store shrank after rowCount was read; the pending event corrects the count shortly
+            return page.isEmpty() ? null : page.get(page.size() - 1);
+        }
+
+        // Position lookups go through the provider instead of scanning every page
+        @Override
+        @SuppressWarnings("unchecked")
+        public int indexOf(Object o) {
+            if (o == null) return -1;
+            int position = provider.positionOf(idOf.applyAsInt((T) o));
+            return position >= 0 && position < rowCount && o.equals(get(position)) ? position : -1;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return indexOf(o); // IDs are unique
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(o) >= 0;
+        }
+
+        // Fetches page {@code number} and the one after it
+        private List<T> load(int number) {
+            Page<T> fetched = provider.fetch(number * PAGE_SIZE, 2 * PAGE_SIZE);
+            List<T> rows = fetched.items();
+            List<T> page = rows.subList(0, Math.min(PAGE_SIZE, rows.size()));
+            pages.put(number, page);
+            if (rows.size() > PAGE_SIZE) {
+                pages.putIfAbsent(number + 1, rows.subList(PAGE_SIZE, rows.size()));
+            }
+            return page;
+        }
+
+        /*
+         * Replays coalesced changes in ascending ID order. At each step the rows below the current
+         * ID already match the store, so the provider's position for it is also its position in the
+         * list as the table sees it at that point of the change.
+         */
+        void apply(int[] ids, Map<Integer, ChangeEvent.Kind> changes) {
+            pages.clear();
+            beginChange();
+            for (int id : ids) {
+                if (id == ChangeEvent.ALL) continue;
+                int position = provider.positionOf(id);
+                switch (changes.get(id)) {
+                    case ADDED -> {
+                        if (position >= 0) {
+                            rowCount++;
+                            nextAdd(position, position + 1);
+                        }
+                    }
+                    case REMOVED -> {
+                        int at = -position - 1;
+                        if (position < 0 && at < rowCount) {
+                            rowCount--;
+                            nextRemove(at, (T) null); // the row is gone from the store; the table only needs the slot
+                        }
+                    }
+                    case UPDATED -> {
+                        if (position >= 0 && position < rowCount) nextUpdate(position);
+                    }
+                }
+            }
+            if (changes.containsKey(ChangeEvent.ALL)) {
+                for (int i = 0; i < rowCount; i++) nextUpdate(i); // merged into a single range
+            }
+            endChange();
+
+            int count = provider.count();
+            if (count != rowCount) {
+                int previous = rowCount;
+                rowCount = count;
+                beginChange();
+                nextReplace(0, count, Collections.nCopies(previous, null));
+                endChange();
+            }
+        }
+    }
+}
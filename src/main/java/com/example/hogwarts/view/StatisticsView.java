@@ -0,0 +1,133 @@
+package com.example.hogwarts.view;
+
+import com.example.hogwarts.controller.StatisticsController;
+import com.example.hogwarts.data.ChangeListener;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.Statistics;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Overview of the catalogue. Every change to the store schedules one refresh on the FX thread;
+ * changes arriving before it runs share it. A refresh reads the store's running aggregates and
+ * updates the existing labels and bars, so it costs the same however much data there is.
+ */
+public class StatisticsView extends VBox {
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("EEE dd MMM");
+
+    private final StatisticsController controller;
+    private final DataStore store;
+    private final ChangeListener listener = event -> scheduleRefresh();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private final Label artifactCount = new Label();
+    private final Label assignedCount = new Label();
+    private final Label unassignedCount = new Label();
+    private final Label blockedCount = new Label();
+    private final Label wizardCount = new Label();
+    private final Label transferCount = new Label();
+    private final XYChart.Series<String, Number> conditionSeries = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> transferSeries = new XYChart.Series<>();
+
+    public StatisticsView() {
+        this.controller = new StatisticsController();
+        this.store = DataStore.getInstance();
+
+        setSpacing(10);
+        setPadding(new Insets(10));
+        getChildren().addAll(createCounts(), createConditionChart(), createTransferChart());
+
+        store.addChangeListener(listener);
+        refresh();
+    }
+
+    // stops following store changes once the dashboard is closed
+    public void dispose() {
+        store.removeChangeListener(listener);
+    }
+
+    private GridPane createCounts() {
+        GridPane grid = new GridPane();
+        grid.setHgap(20);
+        grid.setVgap(5);
+        grid.addRow(0, new Label("Artifacts:"), artifactCount);
+        grid.addRow(1, new Label("Assigned:"), assignedCount);
+        grid.addRow(2, new Label("Unassigned:"), unassignedCount);
+        grid.addRow(3, new Label("Too worn to assign (< 10%):"), blockedCount);
+        grid.addRow(4, new Label("Wizards:"), wizardCount);
+        grid.addRow(5, new Label("Transfers:"), transferCount);
+        return grid;
+    }
+
+    private BarChart<String, Number> createConditionChart() {
+        for (int bucket = 0; bucket < 10; bucket++) {
+            String label = bucket * 10 + "-" + (bucket == 9 ? 100 : bucket * 10 + 9) + "%";
+            conditionSeries.getData().add(new XYChart.Data<>(label, 0));
+        }
+        return chart("Artifacts by condition", conditionSeries);
+    }
+
+    private BarChart<String, Number> createTransferChart() {
+        return chart("Transfers per day", transferSeries);
+    }
+
+    private static BarChart<String, Number> chart(String title, XYChart.Series<String, Number> series) {
+        BarChart<String, Number> chart = new BarChart<>(new CategoryAxis(), new NumberAxis());
+        chart.setTitle(title);
+        chart.setLegendVisible(false);
+        chart.setAnimated(false);
+        chart.setPrefHeight(220);
+        chart.getData().add(series);
+        return chart;
+    }
+
+    private void scheduleRefresh() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::refresh);
+        }
+    }
+
+    private void refresh() {
+        refreshScheduled.set(false);
+        Statistics statistics = controller.getStatistics();
+
+        artifactCount.setText(String.valueOf(statistics.artifactCount()));
+        assignedCount.setText(String.valueOf(statistics.assignedCount()));
+        unassignedCount.setText(String.valueOf(statistics.unassignedCount()));
+        blockedCount.setText(String.valueOf(statistics.blockedCount()));
+        wizardCount.setText(String.valueOf(statistics.wizardCount()));
+        transferCount.setText(String.valueOf(statistics.transferCount()));
+
+        List<Integer> histogram = statistics.conditionHistogram();
+        for (int bucket = 0; bucket < histogram.size(); bucket++) {
+            conditionSeries.getData().get(bucket).setYValue(histogram.get(bucket));
+        }
+
+        // the window moves at midnight, so relabel rather than assume yesterday's days
+        int day = 0;
+        for (Map.Entry<LocalDate, Integer> entry : statistics.transfersPerDay().entrySet()) {
+            String label = DAY.format(entry.getKey());
+            if (day < transferSeries.getData().size()) {
+                XYChart.Data<String, Number> bar = transferSeries.getData().get(day);
+                if (!bar.getXValue().equals(label)) bar.setXValue(label);
+                bar.setYValue(entry.getValue());
+            } else {
+                transferSeries.getData().add(new XYChart.Data<>(label, entry.getValue()));
+            }
+            day++;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.hogwarts.view;
+
+import com.example.hogwarts.data.ChangeEvent;
+import com.example.hogwarts.data.DataStore;
+import com.example.hogwarts.data.PagedDataProvider;
+import javafx.collections.ObservableList;
+
+import java.util.Collection;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * The rows behind an entity table, kept in ID order and in step with DataStore change events.
+ * Small catalogues are loaded whole into an {@link IncrementalList}; from
+ * {@code hogwarts.table.paged.threshold} entities up the table switches to {@link PagedRows},
+ * which only holds the pages on screen.
+ */
+interface TableRows<T> {
+    int PAGED_THRESHOLD = Integer.getInteger("hogwarts.table.paged.threshold", 50_000);
+
+    static <T> TableRows<T> open(DataStore store, ChangeEvent.Entity entity, PagedDataProvider<T> pages,
+                                 Supplier<? extends Collection<T>> loadAll, IntFunction<T> lookup,
+                                 ToIntFunction<T> idOf) {
+        if (pages.count() >= PAGED_THRESHOLD) {
+            return new PagedRows<>(store, entity, pages, idOf);
+        }
+        return new IncrementalList<>(store, entity, loadAll, lookup, idOf);
+    }
+
+    ObservableList<T> getItems();
+
+    // Paged rows can only be shown in ID order, so the table must not sort them
+    boolean isPaged();
+
+    // Runs on the FX thread after each batch of changes has been applied
+    void setOnFlushed(Runnable onFlushed);
+
+    // Applies pending changes now; FX thread only
+    void flush();
+
+    // Stops listening; call when the owning view is discarded
+    void dispose();
+}
@@ -1,44 +1,55 @@
 package com.example.hogwarts.view;
 
 import com.example.hogwarts.controller.WizardController;
+import com.example.hogwarts.data.ChangeEvent;
 import com.example.hogwarts.data.DataStore;
 import com.example.hogwarts.model.Artifact;
 import com.example.hogwarts.model.Wizard;
-import com.example.hogwarts.view.ArtifactView;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class WizardView extends VBox {
     private final WizardController controller;
     private final TableView<Wizard> wizardTable;
+    private final TableRows<Wizard> rows;
     private final ObservableList<Wizard> masterData;
-    private final FilteredList<Wizard> filteredData;
-    
-    private static Runnable wizardSignal;
+    private String searchQuery = ""; // empty shows every wizard
+    private final BackgroundSearch<Wizard> search;
+    private final Label statusLabel = new Label();
+    private final BusyIndicator busy; // spins while a controller call runs in the background
 
     public WizardView() {
         this.controller = new WizardController();
         this.wizardTable = new TableView<>();
-        this.masterData = FXCollections.observableArrayList(controller.findAllWizards());
-        this.filteredData = new FilteredList<>(masterData, p -> true);
+        DataStore store = DataStore.getInstance();
+        this.rows = TableRows.open(store, ChangeEvent.Entity.WIZARD, controller.wizardPages(),
+                controller::findAllWizards, store::findWizardById, Wizard::getId);
+        this.masterData = rows.getItems();
+        this.search = new BackgroundSearch<>(controller::searchWizards, this::showMatches);
+        rows.setOnFlushed(() -> {
+            if (!searchQuery.isEmpty()) showSearchResults(); // a rename can change the hits
+        });
 
         setSpacing(10);
         setPadding(new Insets(10));
-        getChildren().addAll(createSearchBar(), createTable(), createButtons());
-        
-        // lambda to refresh table data
-        wizardSignal = () -> masterData.setAll(controller.findAllWizards());
+        TableView<Wizard> table = createTable();
+        HBox buttons = createButtons();
+        this.busy = new BusyIndicator(table, buttons);
+        getChildren().addAll(createSearchBar(), table, new HBox(10, busy, statusLabel), buttons);
     }
-    
-    // adds auto-update functionality across views
-    public static void updateTable() {
-        wizardSignal.run();
+
+    // stops following store changes once the dashboard is closed
+    public void dispose() {
+        rows.dispose();
+        search.cancel();
     }
 
     private TableView<Wizard> createTable() {
@@ -49,7 +60,7 @@ public class WizardView extends VBox {
         nameCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getName()));
 
         TableColumn<Wizard, Number> artifactCountCol = new TableColumn<>("Artifacts");
-        artifactCountCol.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getArtifacts().size()));
+        artifactCountCol.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getArtifactCount()));
 
         TableColumn<Wizard, Void> actionCol = new TableColumn<>("Actions");
 
@@ -80,9 +91,7 @@ public class WizardView extends VBox {
                     confirm.setContentText("Are you sure you want to delete \"" + wizard.getName() + "\" and unassign their artifacts?");
                     confirm.showAndWait().ifPresent(response -> {
                         if (response == ButtonType.OK) {
-                            controller.deleteWizard(wizard.getId());
-                            masterData.setAll(controller.findAllWizards());
-                            ArtifactView.updateTable(); // Update artifact view
+                            busy.track(controller.deleteWizardAsync(wizard.getId())).thenRun(rows::flush);
                         }
                     });
                 });
@@ -101,7 +110,7 @@ public class WizardView extends VBox {
             @Override
             protected void updateItem(Void item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty || getIndex() >= masterData.size()) {
+                if (empty || getIndex() >= getTableView().getItems().size()) {
                     setGraphic(null);
                 } else {
                     buttons.getChildren().clear();
@@ -115,21 +124,55 @@ public class WizardView extends VBox {
         });
 
         wizardTable.getColumns().setAll(idCol, nameCol, artifactCountCol, actionCol);
-        wizardTable.setItems(filteredData);
+        wizardTable.setItems(masterData);
         wizardTable.setPrefHeight(300);
+        wizardTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE); // for Delete Selected
+        // a paged catalogue stays in ID order; search results can still be sorted
+        wizardTable.setSortPolicy(table -> rows.isPaged() && table.getItems() == masterData
+                ? false : TableView.DEFAULT_SORT_POLICY.call(table));
         return wizardTable;
     }
 
     private HBox createButtons() {
         Button addBtn = new Button("Add");
+        Button deleteSelectedBtn = new Button("Delete Selected");
         HBox buttonBox = new HBox(10);
         if (DataStore.getInstance().getCurrentUser().isAdmin()) {
             addBtn.setOnAction(e -> showAddWizardDialog());
-            buttonBox.getChildren().add(addBtn);
+            deleteSelectedBtn.setOnAction(e -> showDeleteSelectedDialog());
+            buttonBox.getChildren().addAll(addBtn, deleteSelectedBtn);
         }
         return buttonBox;
     }
 
+    // One confirmation and one store operation however many rows are selected
+    private void showDeleteSelectedDialog() {
+        List<Integer> ids = new ArrayList<>();
+        for (Wizard wizard : wizardTable.getSelectionModel().getSelectedItems()) {
+            if (wizard != null) ids.add(wizard.getId());
+        }
+        if (ids.isEmpty()) {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION, "Select the wizards to delete first.");
+            alert.setHeaderText("Nothing selected");
+            alert.showAndWait();
+            return;
+        }
+
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Confirm Deletion");
+        confirm.setHeaderText("Delete Wizards");
+        confirm.setContentText("Are you sure you want to delete " + ids.size() + " selected wizard(s) and unassign their artifacts?");
+        confirm.showAndWait().ifPresent(response -> {
+            if (response == ButtonType.OK) {
+                wizardTable.getSelectionModel().clearSelection();
+                busy.track(controller.deleteWizardsAsync(ids)).thenAccept(deleted -> {
+                    rows.flush();
+                    statusLabel.setText("Deleted " + deleted + " wizard(s)");
+                });
+            }
+        });
+    }
+
     private void showAddWizardDialog() {
         TextInputDialog dialog = new TextInputDialog();
         dialog.setTitle("Add Wizard");
@@ -137,15 +180,17 @@ public class WizardView extends VBox {
 
         dialog.showAndWait().ifPresent(name -> {
             if (!name.isBlank()) {
-                Wizard wizard = controller.addWizard(name);
-                masterData.setAll(controller.findAllWizards());
-                wizardTable.getSelectionModel().select(wizard);
+                busy.track(controller.addWizardAsync(name)).thenAccept(wizard -> {
+                    rows.flush();
+                    select(wizard);
+                });
             }
         });
     }
 
     private void showEditWizardDialog(Wizard wizard) {
         if (wizard == null) return;
+        long version = wizard.getVersion(); // a rename made elsewhere meanwhile wins; this one is refused
 
         TextInputDialog dialog = new TextInputDialog(wizard.getName());
         dialog.setTitle("Edit Wizard");
@@ -153,15 +198,18 @@ public class WizardView extends VBox {
 
         dialog.showAndWait().ifPresent(name -> {
             if (!name.isBlank()) {
-                controller.updateWizard(wizard.getId(), name);
-                masterData.setAll(controller.findAllWizards());
+                busy.track(controller.updateWizardAsync(wizard.getId(), version, name))
+                        .whenComplete((result, error) -> rows.flush());
             }
         });
     }
 
     private void showAssignArtifactDialogFor(Wizard wizard) {
-        var unowned = FXCollections.observableArrayList(controller.getUnassignedArtifacts());
+        busy.track(controller.getUnassignedArtifactsAsync())
+                .thenAccept(unowned -> showAssignArtifactDialog(wizard, unowned));
+    }
 
+    private void showAssignArtifactDialog(Wizard wizard, List<Artifact> unowned) {
         if (unowned.isEmpty()) {
             Alert alert = new Alert(Alert.AlertType.INFORMATION, "No unassigned artifacts available.");
             alert.setHeaderText("Nothing to assign");
@@ -169,12 +217,13 @@ public class WizardView extends VBox {
             return;
         }
 
-        Dialog<Artifact> dialog = new Dialog<>();
+        Dialog<List<Artifact>> dialog = new Dialog<>();
         dialog.setTitle("Assign Artifact");
         dialog.setHeaderText("Assign artifact to: " + wizard.getName());
 
         ListView<Artifact> artifactListView = new ListView<>();
         artifactListView.getItems().addAll(unowned);
+        artifactListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         
         artifactListView.setCellFactory(listView -> new ListCell<Artifact>() {
             @Override
@@ -197,7 +246,7 @@ public class WizardView extends VBox {
             }
         });
 
-        Label instructionLabel = new Label("Select an artifact to assign:");
+        Label instructionLabel = new Label("Select artifacts to assign (Ctrl/Shift-click to select several):");
         Label noteLabel = new Label("Note: Assignment will reduce artifact condition by 5 points.");
         Label warningLabel = new Label("Artifacts with condition < 10% cannot be assigned.");
 
@@ -209,39 +258,57 @@ public class WizardView extends VBox {
 
         dialog.setResultConverter(button -> {
             if (button == ButtonType.OK) {
-                return artifactListView.getSelectionModel().getSelectedItem();
+                return new ArrayList<>(artifactListView.getSelectionModel().getSelectedItems());
             }
             return null;
         });
 
-        dialog.showAndWait().ifPresent(artifact -> {
-            String errorMessage = controller.assignArtifactToWizard(artifact, wizard);
-            
-            if (errorMessage != null) {
-                Alert alert = new Alert(Alert.AlertType.ERROR);
-                alert.setTitle("Assignment Failed");
-                alert.setHeaderText("Cannot Assign Artifact");
-                alert.setContentText(errorMessage);
-                alert.showAndWait();
+        dialog.showAndWait().filter(selected -> !selected.isEmpty()).ifPresent(selected ->
+                busy.track(controller.assignArtifactsToWizardAsync(selected, wizard))
+                        .thenAccept(results -> showAssignmentResults(wizard, results)));
+    }
+
+    private void showAssignmentResults(Wizard wizard, List<WizardController.AssignmentResult> results) {
+        StringBuilder assigned = new StringBuilder();
+        StringBuilder failed = new StringBuilder();
+        for (WizardController.AssignmentResult result : results) {
+            Artifact artifact = result.artifact();
+            if (result.succeeded()) {
+                assigned.append("  - ").append(artifact.getName())
+                        .append(" (New condition: ").append(artifact.getCondition()).append("%)\n");
             } else {
-                masterData.setAll(controller.findAllWizards());
-                wizardTable.getSelectionModel().select(wizard);
-                ArtifactView.updateTable();
-                
-                Alert success = new Alert(Alert.AlertType.INFORMATION);
-                success.setTitle("Assignment Successful");
-                success.setHeaderText("Artifact Assigned");
-                success.setContentText("\"" + artifact.getName() + "\" has been assigned to \"" + wizard.getName() + "\".\n" +
-                                     "Artifact condition reduced by 5 points due to wear.\n" +
-                                     "New condition: " + artifact.getCondition() + "%");
-                success.showAndWait();
+                failed.append("  - ").append(artifact.getName()).append(": ").append(result.error()).append("\n");
             }
-        });
+        }
+
+        if (assigned.length() > 0) {
+            rows.flush();
+            select(wizard);
+        }
+
+        if (assigned.length() == 0) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Assignment Failed");
+            alert.setHeaderText("Cannot Assign Artifact");
+            alert.setContentText(failed.toString());
+            alert.showAndWait();
+        } else {
+            Alert success = new Alert(failed.length() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
+            success.setTitle("Assignment Successful");
+            success.setHeaderText("Artifact Assigned");
+            success.setContentText("Assigned to \"" + wizard.getName() + "\":\n" + assigned +
+                                 "Artifact condition reduced by 5 points due to wear." +
+                                 (failed.length() == 0 ? "" : "\n\nNot assigned:\n" + failed));
+            success.showAndWait();
+        }
     }
-    
+
     public void showUnassignArtifactDialogFor(Wizard wizard) {
-        var owned = FXCollections.observableArrayList(controller.getAssignedArtifacts(wizard));
-        
+        busy.track(controller.getAssignedArtifactsAsync(wizard))
+                .thenAccept(owned -> showUnassignArtifactDialog(wizard, owned));
+    }
+
+    private void showUnassignArtifactDialog(Wizard wizard, List<Artifact> owned) {
         if (owned.isEmpty()) {
             Alert alert = new Alert(Alert.AlertType.INFORMATION, "No assigned artifacts available.");
             alert.setHeaderText("Nothing to unassign");
@@ -260,10 +327,10 @@ public class WizardView extends VBox {
             confirm.setContentText("Are you sure you want to unassign \"" + artifact.getName() + "\" from \"" + wizard.getName() + "\"");
             confirm.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
-                    controller.unassignArtifactFromWizard(wizard, artifact);
-                    masterData.setAll(controller.findAllWizards());
-                    wizardTable.getSelectionModel().select(wizard);
-                    ArtifactView.updateTable();
+                    busy.track(controller.unassignArtifactFromWizardAsync(wizard, artifact)).thenRun(() -> {
+                        rows.flush();
+                        select(wizard);
+                    });
                 }
             });
         });
@@ -279,7 +346,7 @@ public class WizardView extends VBox {
         StringBuilder sb = new StringBuilder();
         sb.append("ID: ").append(wizard.getId()).append("\n");
         sb.append("Name: ").append(wizard.getName()).append("\n");
-        sb.append("Number of Artifacts: ").append(wizard.getArtifacts().size()).append("\n\n");
+        sb.append("Number of Artifacts: ").append(wizard.getArtifactCount()).append("\n\n");
         sb.append("Artifacts:\n");
         for (Artifact a : wizard.getArtifacts()) {
             sb.append("  - ").append(a.getName())
@@ -306,17 +373,34 @@ public class WizardView extends VBox {
         searchField.setPromptText("Enter wizard name");
 
         searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            String filter = newVal.toLowerCase();
-            filteredData.setPredicate(wizard -> {
-                if (filter == null || filter.isEmpty()) {
-                    return true;
-                }
-                return wizard.getName().toLowerCase().contains(filter);
-            });
+            searchQuery = newVal == null ? "" : newVal;
+            showSearchResults();
         });
 
         HBox box = new HBox(10, searchLabel, searchField);
         box.setPadding(new Insets(0, 0, 10, 0));
         return box;
     }
+
+    // Clearing the box is instant; anything else goes to the debounced background search
+    private void showSearchResults() {
+        if (searchQuery.isEmpty()) {
+            search.cancel();
+            wizardTable.setItems(masterData);
+            statusLabel.setText("");
+        } else {
+            search.submit(searchQuery);
+        }
+    }
+
+    // Selects by position so a paged table finds the row without reading every page
+    private void select(Wizard wizard) {
+        int index = wizardTable.getItems().indexOf(wizard);
+        if (index >= 0) wizardTable.getSelectionModel().select(index);
+    }
+
+    private void showMatches(String query, List<Wizard> matches, long elapsedNanos) {
+        wizardTable.setItems(FXCollections.observableArrayList(matches));
+        statusLabel.setText(String.format("%d matches for \"%s\" (%.1f ms)", matches.size(), query, elapsedNanos / 1_000_000.0));
+    }
 }
\ No newline at end of file
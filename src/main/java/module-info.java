@@ -1,6 +1,7 @@
 module javafxapp {
     requires javafx.controls;
     requires java.desktop;
+    requires jdk.httpserver;
     exports com.example.hogwarts;
     exports com.example.hogwarts.model;
     exports com.example.hogwarts.view;
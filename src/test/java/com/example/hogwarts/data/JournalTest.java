@@ -0,0 +1,138 @@
+package com.example.hogwarts.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalTest {
+    @TempDir
+    Path dir;
+
+    private static List<Journal.Entry> sampleEntries() {
+        byte[] table = ConditionStore.table(condition -> condition - 3);
+        return List.of(
+                Journal.Entry.addWizard(1, "Albus Dumbledore"),
+                Journal.Entry.addArtifact(1, "Elder Wand", "Wand of élder wood — unbeatable"),
+                Journal.Entry.assign(1, 1),
+                Journal.Entry.repair(1, 15),
+                Journal.Entry.transfer(1, "assign", 1, 1, 1_700_000_000_123_456L),
+                Journal.Entry.remapConditions(table),
+                Journal.Entry.deleteArtifacts(new int[] {4, 5, 600}),
+                Journal.Entry.deleteWizards(new int[0]));
+    }
+
+    private static List<Journal.Entry> replay(Path file) throws IOException {
+        List<Journal.Entry> entries = new ArrayList<>();
+        Journal.replay(file, entries::add);
+        return entries;
+    }
+
+    private static void write(Path file, Journal.SyncMode mode, List<Journal.Entry> entries) throws IOException {
+        try (Journal journal = Journal.open(file, mode, entry -> { })) {
+            long last = 0;
+            for (Journal.Entry entry : entries) last = journal.append(entry);
+            journal.awaitDurable(last);
+        }
+    }
+
+    @Test
+    void replaysEveryEntryInOrderInEachSyncMode() throws IOException {
+        for (Journal.SyncMode mode : Journal.SyncMode.values()) {
+            Path file = dir.resolve("journal-" + mode);
+            write(file, mode, sampleEntries());
+
+            List<Journal.Entry> replayed = replay(file);
+            assertEquals(sampleEntries(), replayed, mode.name());
+            assertEquals(List.of(4, 5, 600), toList(replayed.get(6).ids()));
+            assertEquals(0, replayed.get(7).ids().length);
+            assertEquals(97, replayed.get(5).conditionTable()[100]);
+            assertEquals(0, replayed.get(5).conditionTable()[2]);
+        }
+    }
+
+    @Test
+    void reopeningAppendsAfterTheExistingRecords() throws IOException {
+        Path file = dir.resolve("journal");
+        List<Journal.Entry> entries = sampleEntries();
+        write(file, Journal.SyncMode.GROUP, entries.subList(0, 3));
+
+        List<Journal.Entry> seen = new ArrayList<>();
+        try (Journal journal = Journal.open(file, Journal.SyncMode.GROUP, seen::add)) {
+            long last = 0;
+            for (Journal.Entry entry : entries.subList(3, entries.size())) last = journal.append(entry);
+            journal.awaitDurable(last);
+        }
+        assertEquals(entries.subList(0, 3), seen);
+        assertEquals(entries, replay(file));
+    }
+
+    @Test
+    void tornTailIsCutOffOnOpen() throws IOException {
+        Path file = dir.resolve("journal");
+        List<Journal.Entry> entries = sampleEntries();
+        write(file, Journal.SyncMode.GROUP, entries);
+        long intactLength = lengthOf(file, entries.subList(0, entries.size() - 1));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3); // a crash in the middle of the last record
+        }
+
+        List<Journal.Entry> seen = new ArrayList<>();
+        Journal.Entry next = Journal.Entry.updateWizard(1, "Professor Dumbledore");
+        try (Journal journal = Journal.open(file, Journal.SyncMode.GROUP, seen::add)) {
+            assertEquals(intactLength, Files.size(file));
+            journal.awaitDurable(journal.append(next));
+        }
+        assertEquals(entries.subList(0, entries.size() - 1), seen);
+
+        List<Journal.Entry> expected = new ArrayList<>(seen);
+        expected.add(next);
+        assertEquals(expected, replay(file));
+    }
+
+    @Test
+    void replayStopsAtACorruptRecord() throws IOException {
+        Path file = dir.resolve("journal");
+        List<Journal.Entry> entries = sampleEntries();
+        write(file, Journal.SyncMode.NONE, entries);
+
+        long offset = lengthOf(file, entries.subList(0, 2)) + 12; // inside the third record's payload
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[(int) offset] ^= 0x40;
+        Files.write(file, bytes);
+
+        assertEquals(entries.subList(0, 2), replay(file));
+    }
+
+    @Test
+    void emptyOrMissingJournalReplaysNothing() throws IOException {
+        Path file = dir.resolve("sub").resolve("journal");
+        try (Journal journal = Journal.open(file, Journal.SyncMode.GROUP, entry -> { throw new AssertionError(entry); })) {
+            assertTrue(Files.exists(file));
+        }
+        assertEquals(List.of(), replay(file));
+    }
+
+    // File length taken up by the given entries, measured by writing them to a scratch journal
+    private long lengthOf(Path file, List<Journal.Entry> entries) throws IOException {
+        Path scratch = file.resolveSibling(file.getFileName() + ".scratch");
+        write(scratch, Journal.SyncMode.NONE, entries);
+        return Files.size(scratch);
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>();
+        for (int value : values) list.add(value);
+        return list;
+    }
+}
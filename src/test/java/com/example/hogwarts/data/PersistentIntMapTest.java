@@ -0,0 +1,182 @@
+package com.example.hogwarts.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentIntMapTest {
+
+    // Checks size, lookups, both iteration orders and iteration from a few starting keys
+    private static void assertMatches(TreeMap<Integer, String> expected, PersistentIntMap<String> actual, int maxKey) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        for (int key = 0; key <= maxKey; key++) {
+            assertEquals(expected.get(key), actual.get(key), "key " + key);
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        actual.forEach((key, value) -> {
+            keys.add(key);
+            values.add(value);
+        });
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        assertEquals(new ArrayList<>(expected.values()), values);
+
+        for (int from : new int[] {0, 1, 31, 32, 33, maxKey / 2, maxKey, maxKey + 1}) {
+            assertEquals(new ArrayList<>(expected.tailMap(from, true).values()), collect(actual.iterator(from)), "from " + from);
+        }
+    }
+
+    private static List<String> collect(Iterator<String> iterator) {
+        List<String> values = new ArrayList<>();
+        while (iterator.hasNext()) values.add(iterator.next());
+        assertThrows(java.util.NoSuchElementException.class, iterator::next);
+        return values;
+    }
+
+    @Test
+    void emptyMap() {
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+        assertMatches(new TreeMap<>(), map, 100);
+        assertNull(map.get(-1));
+        assertSame(map, map.without(5));
+    }
+
+    @Test
+    void singleChangesMatchATreeMap() {
+        Random random = new Random(42);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+        int maxKey = 5000;
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(maxKey + 1);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.without(key);
+            } else {
+                expected.put(key, "v" + i);
+                map = map.with(key, "v" + i);
+            }
+            if (i % 2000 == 0) assertMatches(expected, map, maxKey);
+        }
+        assertMatches(expected, map, maxKey);
+
+        for (int key : new ArrayList<>(expected.keySet())) {
+            map = map.without(key);
+        }
+        assertMatches(new TreeMap<>(), map, maxKey);
+    }
+
+    @Test
+    void earlierVersionsAreNeverChanged() {
+        List<PersistentIntMap<String>> versions = new ArrayList<>();
+        List<TreeMap<Integer, String>> models = new ArrayList<>();
+        Random random = new Random(7);
+        TreeMap<Integer, String> model = new TreeMap<>();
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+        for (int i = 0; i < 300; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextBoolean() && !model.isEmpty()) {
+                key = model.ceilingKey(key) == null ? model.firstKey() : model.ceilingKey(key);
+                model.remove(key);
+                map = map.without(key);
+            } else {
+                model.put(key, "v" + i);
+                map = map.with(key, "v" + i);
+            }
+            versions.add(map);
+            models.add(new TreeMap<>(model));
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            assertMatches(models.get(i), versions.get(i), 2000);
+        }
+    }
+
+    @Test
+    void editorBatchMatchesATreeMapAndLeavesItsBaseAlone() {
+        Random random = new Random(3);
+        TreeMap<Integer, String> baseModel = new TreeMap<>();
+        PersistentIntMap.Editor<String> seed = PersistentIntMap.<String>empty().edit();
+        for (int key = 0; key < 3000; key += 3) {
+            baseModel.put(key, "base" + key);
+            seed.put(key, "base" + key);
+        }
+        PersistentIntMap<String> base = seed.build();
+
+        TreeMap<Integer, String> expected = new TreeMap<>(baseModel);
+        PersistentIntMap.Editor<String> editor = base.edit();
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(40_000); // past 32^2 and 32^3, so the root has to grow
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                editor.remove(key);
+            } else {
+                expected.put(key, "e" + i);
+                editor.put(key, "e" + i);
+            }
+            assertEquals(expected.get(key), editor.get(key));
+            assertEquals(expected.size(), editor.size());
+        }
+        PersistentIntMap<String> edited = editor.build();
+
+        assertMatches(expected, edited, 40_000);
+        assertMatches(baseModel, base, 3000);
+    }
+
+    @Test
+    void editorWithoutChangesReturnsItsBase() {
+        PersistentIntMap<String> base = PersistentIntMap.<String>empty().with(10, "ten");
+        assertSame(base, base.edit().remove(11).build());
+    }
+
+    @Test
+    void removingEveryKeyOfARangeLeavesAnEmptyMap() {
+        PersistentIntMap.Editor<String> editor = PersistentIntMap.<String>empty().edit();
+        for (int key = 1000; key < 1100; key++) editor.put(key, "v");
+        for (int key = 1000; key < 1100; key++) editor.remove(key);
+        PersistentIntMap<String> map = editor.build();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.iterator(0).hasNext());
+        assertEquals("v", map.with(3, "v").get(3));
+    }
+
+    @Test
+    void mapValuesChangesEveryValue() {
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+        for (int key = 0; key < 2000; key += 7) {
+            map = map.with(key, "v" + key);
+            expected.put(key, "v" + key);
+        }
+        PersistentIntMap<String> upper = map.mapValues(value -> value.toUpperCase());
+
+        TreeMap<Integer, String> upperExpected = new TreeMap<>();
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) upperExpected.put(entry.getKey(), entry.getValue().toUpperCase());
+        assertMatches(upperExpected, upper, 2000);
+        assertMatches(expected, map, 2000);
+    }
+
+    @Test
+    void rejectsInvalidUse() {
+        PersistentIntMap.Editor<String> editor = PersistentIntMap.<String>empty().edit();
+        assertThrows(IllegalArgumentException.class, () -> editor.put(-1, "negative"));
+        assertThrows(IllegalArgumentException.class, () -> editor.put(1, null));
+        editor.build();
+        assertThrows(IllegalStateException.class, () -> editor.put(1, "late"));
+        assertThrows(IllegalStateException.class, editor::build);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.hogwarts.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotTest {
+    @TempDir
+    Path dir;
+
+    // Collects whatever a snapshot read hands over
+    private static final class Collector implements Snapshot.Loader {
+        final List<Object> header = new ArrayList<>();
+        final List<Snapshot.WizardRow> wizards = new ArrayList<>();
+        final List<Snapshot.ArtifactRow> artifacts = new ArrayList<>();
+        final List<Snapshot.TransferRow> transfers = new ArrayList<>();
+
+        @Override
+        public void header(long generation, int nextWizardId, int nextArtifactId, int nextTransferId) {
+            header.addAll(List.of(generation, nextWizardId, nextArtifactId, nextTransferId));
+        }
+
+        @Override
+        public void wizard(int id, boolean live, String name) {
+            wizards.add(new Snapshot.WizardRow(id, live, name));
+        }
+
+        @Override
+        public void artifact(int id, boolean live, int condition, int ownerId, String name, String description) {
+            artifacts.add(new Snapshot.ArtifactRow(id, live, condition, ownerId, name, description));
+        }
+
+        @Override
+        public void transfer(int id, String type, int artifactId, int wizardId, long epochMicros) {
+            transfers.add(new Snapshot.TransferRow(id, type, artifactId, wizardId, epochMicros));
+        }
+    }
+
+    private static Snapshot.Contents contents(List<Snapshot.WizardRow> wizards, List<Snapshot.ArtifactRow> artifacts,
+                                              List<Snapshot.TransferRow> transfers) {
+        return new Snapshot.Contents(7, 40, 50, 60, wizards.size(), wizards, artifacts.size(), artifacts,
+                transfers.size(), transfers);
+    }
+
+    private static Collector read(Path file) throws IOException {
+        Collector collector = new Collector();
+        Snapshot.read(file, collector);
+        return collector;
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        List<Snapshot.WizardRow> wizards = List.of(
+                new Snapshot.WizardRow(1, true, "Minerva McGonagall"),
+                new Snapshot.WizardRow(3, false, "Gellert Grindelwald"),
+                new Snapshot.WizardRow(39, true, ""));
+        List<Snapshot.ArtifactRow> artifacts = List.of(
+                new Snapshot.ArtifactRow(2, true, 100, 1, "Sorting Hat", "Sings ♪ and sorts"),
+                new Snapshot.ArtifactRow(5, false, 0, 0, "Horcrux", "Destroyed"),
+                new Snapshot.ArtifactRow(49, true, 37, 3, "Deluminator", ""));
+        List<Snapshot.TransferRow> transfers = List.of(
+                new Snapshot.TransferRow(1, "assign", 2, 1, 1_700_000_000_000_001L),
+                new Snapshot.TransferRow(2, "unassign", 5, 3, -86_400_000_000L), // before the epoch
+                new Snapshot.TransferRow(59, "assign", 49, 3, Long.MAX_VALUE));
+        Path file = dir.resolve("snapshot");
+        Snapshot.write(file, contents(wizards, artifacts, transfers));
+
+        Collector read = read(file);
+        assertEquals(List.of(7L, 40, 50, 60), read.header);
+        assertEquals(wizards, read.wizards);
+        assertEquals(artifacts, read.artifacts);
+        assertEquals(transfers, read.transfers);
+        assertFalse(Files.exists(dir.resolve("snapshot.tmp")));
+    }
+
+    @Test
+    void emptySnapshotRoundTrips() throws IOException {
+        Path file = dir.resolve("snapshot");
+        Snapshot.write(file, contents(List.of(), List.of(), List.of()));
+
+        Collector read = read(file);
+        assertEquals(List.of(7L, 40, 50, 60), read.header);
+        assertEquals(List.of(), read.wizards);
+        assertEquals(List.of(), read.artifacts);
+        assertEquals(List.of(), read.transfers);
+    }
+
+    @Test
+    void rewritingReplacesThePreviousSnapshot() throws IOException {
+        Path file = dir.resolve("snapshot");
+        Snapshot.write(file, contents(List.of(new Snapshot.WizardRow(1, true, "Old")), List.of(), List.of()));
+        Snapshot.write(file, contents(List.of(new Snapshot.WizardRow(2, true, "New")), List.of(), List.of()));
+
+        assertEquals(List.of(new Snapshot.WizardRow(2, true, "New")), read(file).wizards);
+    }
+
+    @Test
+    void countMismatchKeepsThePreviousSnapshot() throws IOException {
+        Path file = dir.resolve("snapshot");
+        List<Snapshot.WizardRow> previous = List.of(new Snapshot.WizardRow(1, true, "Kept"));
+        Snapshot.write(file, contents(previous, List.of(), List.of()));
+
+        List<Snapshot.WizardRow> rows = List.of(new Snapshot.WizardRow(1, true, "A"), new Snapshot.WizardRow(2, true, "B"));
+        Snapshot.Contents wrongCount = new Snapshot.Contents(8, 3, 1, 1, 1, rows, 0, List.of(), 0, List.of());
+        assertThrows(IOException.class, () -> Snapshot.write(file, wrongCount));
+
+        assertEquals(previous, read(file).wizards);
+    }
+
+    @Test
+    void rejectsAFileThatIsNotASnapshot() throws IOException {
+        Path file = dir.resolve("journal-1");
+        Files.write(file, new byte[] {0, 0, 0, 12, 1, 2, 3, 4});
+
+        assertThrows(IOException.class, () -> read(file));
+    }
+}
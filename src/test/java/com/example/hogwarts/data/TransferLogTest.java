@@ -0,0 +1,120 @@
+package com.example.hogwarts.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransferLogTest {
+
+    // Transfers 1..6 at times 10, 20, 20, 30, 40, 40; artifact 100 moves between wizards 1 and 2
+    private static TransferLog sampleLog() {
+        TransferLog log = new TransferLog();
+        log.put(1, "assign", 100, 1, 10);
+        log.put(3, "assign", 101, 2, 20); // recorded out of ID order at the same time as 2
+        log.put(2, "unassign", 100, 1, 20);
+        log.put(4, "assign", 100, 2, 30);
+        log.put(5, "assign", 102, 1, 40);
+        log.put(6, "unassign", 100, 2, 40);
+        return log;
+    }
+
+    private static List<Integer> ids(TransferLog.Slice slice) {
+        List<Integer> ids = new ArrayList<>();
+        for (TransferLog.Row row : slice.rows()) ids.add(row.id());
+        return ids;
+    }
+
+    @Test
+    void rangeIncludesItsStartAndExcludesItsEnd() {
+        TransferLog log = sampleLog();
+        assertEquals(List.of(2, 3, 4), ids(log.findBetween(20, 40, 0, 10)));
+        assertEquals(List.of(1), ids(log.findBetween(10, 11, 0, 10)));
+        assertEquals(List.of(5, 6), ids(log.findBetween(40, 41, 0, 10)));
+        assertEquals(List.of(), ids(log.findBetween(41, Long.MAX_VALUE, 0, 10)));
+        assertEquals(List.of(), ids(log.findBetween(Long.MIN_VALUE, 10, 0, 10)));
+    }
+
+    @Test
+    void openRangeCoversEverythingOldestFirst() {
+        TransferLog.Slice all = sampleLog().findBetween(Long.MIN_VALUE, Long.MAX_VALUE, 0, Integer.MAX_VALUE);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), ids(all)); // equal times keep ID order
+        assertEquals(6, all.total());
+        assertEquals("unassign", all.rows().get(1).type());
+        assertEquals(100, all.rows().get(1).artifactId());
+        assertEquals(1, all.rows().get(1).wizardId());
+        assertEquals(20, all.rows().get(1).time());
+    }
+
+    @Test
+    void emptyAndInvertedRangesFindNothing() {
+        TransferLog log = sampleLog();
+        TransferLog.Slice empty = log.findBetween(20, 20, 0, 10);
+        assertEquals(List.of(), ids(empty));
+        assertEquals(0, empty.total());
+
+        TransferLog.Slice inverted = log.findBetween(40, 10, 0, 10);
+        assertEquals(List.of(), ids(inverted));
+        assertEquals(0, inverted.total());
+    }
+
+    @Test
+    void pagesWithinARange() {
+        TransferLog log = sampleLog();
+        TransferLog.Slice page = log.findBetween(20, 41, 1, 2);
+        assertEquals(List.of(3, 4), ids(page));
+        assertEquals(5, page.total());
+
+        assertEquals(List.of(6), ids(log.findBetween(20, 41, 4, 2)));
+        assertEquals(List.of(), ids(log.findBetween(20, 41, 5, 2)));
+        assertEquals(List.of(), ids(log.findBetween(20, 41, Integer.MAX_VALUE, Integer.MAX_VALUE)));
+        TransferLog.Slice none = log.findBetween(20, 41, 0, 0);
+        assertEquals(List.of(), ids(none));
+        assertEquals(5, none.total());
+    }
+
+    @Test
+    void rejectsNegativeOffsetOrLimit() {
+        TransferLog log = sampleLog();
+        assertThrows(IllegalArgumentException.class, () -> log.findBetween(0, 100, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> log.findBetween(0, 100, 0, -1));
+    }
+
+    @Test
+    void restrictsToOneArtifactOrWizard() {
+        TransferLog log = sampleLog();
+        assertEquals(List.of(2, 4), ids(log.findBetweenForArtifact(100, 20, 40, 0, 10)));
+        assertEquals(4, log.findBetweenForArtifact(100, Long.MIN_VALUE, Long.MAX_VALUE, 0, 1).total());
+        assertEquals(List.of(3, 4, 6), ids(log.findBetweenForWizard(2, 0, 100, 0, 10)));
+        assertEquals(List.of(5), ids(log.findBetweenForWizard(1, 40, 41, 0, 10)));
+
+        TransferLog.Slice unknown = log.findBetweenForArtifact(999, Long.MIN_VALUE, Long.MAX_VALUE, 0, 10);
+        assertEquals(List.of(), ids(unknown));
+        assertEquals(0, unknown.total());
+    }
+
+    @Test
+    void replacedRowMovesToItsNewTime() {
+        TransferLog log = sampleLog();
+        log.put(1, "assign", 100, 1, 35); // the same ID written again, as a journal replay can
+        assertEquals(List.of(2, 3, 4, 1), ids(log.findBetween(0, 40, 0, 10)));
+        assertEquals(List.of(2, 4, 1, 6), ids(log.findBetweenForArtifact(100, 0, 100, 0, 10)));
+        assertEquals(6, log.size());
+    }
+
+    @Test
+    void loadedRowsAreIndexedOnceLoadingFinishes() {
+        TransferLog log = new TransferLog();
+        log.startLoading();
+        log.put(2, "assign", 100, 1, 50);
+        log.put(1, "assign", 100, 1, 50);
+        log.put(3, "unassign", 100, 1, -5);
+        log.finishLoading();
+
+        assertEquals(List.of(3, 1, 2), ids(log.findBetween(Long.MIN_VALUE, Long.MAX_VALUE, 0, 10)));
+        assertEquals(List.of(1, 2), ids(log.findBetweenForWizard(1, 0, 51, 0, 10)));
+    }
+}